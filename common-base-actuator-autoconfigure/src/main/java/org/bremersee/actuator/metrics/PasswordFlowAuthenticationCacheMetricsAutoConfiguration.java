@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.actuator.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.authentication.JwtSupportAutoConfiguration;
+import org.bremersee.security.authentication.PasswordFlowAuthenticationCache;
+import org.bremersee.security.authentication.ReactiveJwtSupportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The metrics auto configuration of the authentication cache of the password flow. It exposes
+ * the size, the hits, the misses and the hit rate of the cache.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnClass({
+    MeterRegistry.class,
+    PasswordFlowAuthenticationCache.class
+})
+@ConditionalOnBean(PasswordFlowAuthenticationCache.class)
+@AutoConfigureAfter({
+    JwtSupportAutoConfiguration.class,
+    ReactiveJwtSupportAutoConfiguration.class
+})
+@Configuration
+@Slf4j
+public class PasswordFlowAuthenticationCacheMetricsAutoConfiguration {
+
+  /**
+   * The prefix of the meter names.
+   */
+  public static final String METER_PREFIX = "bremersee.password.flow.authentication.cache";
+
+  /**
+   * Creates the meter binder of the password flow authentication cache.
+   *
+   * @param cache the cache
+   * @return the meter binder
+   */
+  @Bean
+  public MeterBinder passwordFlowAuthenticationCacheMetrics(
+      PasswordFlowAuthenticationCache cache) {
+    log.info("Creating metrics of {} ...", cache);
+    return registry -> {
+      Gauge.builder(METER_PREFIX + ".size", cache, PasswordFlowAuthenticationCache::size)
+          .description("The number of cached authentications.")
+          .register(registry);
+      Gauge.builder(METER_PREFIX + ".hit.rate", cache, PasswordFlowAuthenticationCache::getHitRate)
+          .description("The hit rate of the cache.")
+          .register(registry);
+      FunctionCounter
+          .builder(METER_PREFIX + ".hits", cache, PasswordFlowAuthenticationCache::getHits)
+          .description("The number of cache hits.")
+          .register(registry);
+      FunctionCounter
+          .builder(METER_PREFIX + ".misses", cache, PasswordFlowAuthenticationCache::getMisses)
+          .description("The number of cache misses.")
+          .register(registry);
+    };
+  }
+
+}
@@ -30,6 +30,7 @@ import lombok.ToString;
 import org.bremersee.security.authentication.AccessExpressionUtils;
 import org.bremersee.security.authentication.AutoSecurityMode;
 import org.bremersee.security.authentication.ClientCredentialsFlowProperties;
+import org.bremersee.security.authentication.CompiledAccessRule;
 import org.bremersee.security.core.AuthorityConstants;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.StringUtils;
@@ -213,6 +214,29 @@ public class ActuatorAuthProperties {
     return AccessExpressionUtils.hasAuthorityOrIpAddressExpr(adminRolesOrDefaults(), null, null);
   }
 
+  /**
+   * Build compiled access rule for actuator endpoints. It has the same meaning as the access
+   * expression of {@link #buildAccessExpression()}.
+   *
+   * @return the compiled access rule for actuator endpoints
+   */
+  @NotNull
+  public CompiledAccessRule buildAccessRule() {
+    return AccessExpressionUtils.hasAuthorityOrIpAddressRule(
+        rolesOrDefaults(), null, ipAddresses);
+  }
+
+  /**
+   * Build compiled access rule for admin actuator endpoints. It has the same meaning as the
+   * access expression of {@link #buildAdminAccessExpression()}.
+   *
+   * @return the compiled access rule for admin actuator endpoints
+   */
+  @NotNull
+  public CompiledAccessRule buildAdminAccessRule() {
+    return AccessExpressionUtils.hasAuthorityOrIpAddressRule(adminRolesOrDefaults(), null, null);
+  }
+
   /**
    * Ensure role prefix.
    *
@@ -20,8 +20,11 @@ import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.security.authentication.AuthProperties;
 import org.bremersee.security.authentication.AutoSecurityMode;
+import org.bremersee.security.authentication.CompiledAccessRule;
+import org.bremersee.security.authentication.CompiledAccessRules;
 import org.bremersee.security.authentication.InMemoryUserDetailsAutoConfiguration;
 import org.bremersee.security.authentication.JsonPathJwtConverter;
+import org.bremersee.security.authentication.PasswordFlowAuthenticationCache;
 import org.bremersee.security.authentication.PasswordFlowAuthenticationManager;
 import org.bremersee.security.authentication.PasswordFlowProperties;
 import org.bremersee.security.authentication.RestTemplateAccessTokenRetriever;
@@ -42,6 +45,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
@@ -54,6 +58,7 @@ import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
@@ -92,6 +97,8 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
 
   private final ObjectProvider<PasswordEncoder> passwordEncoderProvider;
 
+  private final ObjectProvider<PasswordFlowAuthenticationCache> authenticationCacheProvider;
+
   /**
    * Instantiates a new actuator security auto configuration.
    *
@@ -101,6 +108,7 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
    * @param jsonPathJwtConverterProvider the json path jwt converter provider
    * @param tokenRetrieverProvider the token retriever provider
    * @param passwordEncoderProvider the password encoder provider
+   * @param authenticationCacheProvider the password flow authentication cache provider
    */
   public ActuatorSecurityAutoConfiguration(
       SecurityProperties securityProperties,
@@ -108,7 +116,8 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
       ActuatorAuthProperties actuatorAuthProperties,
       ObjectProvider<JsonPathJwtConverter> jsonPathJwtConverterProvider,
       ObjectProvider<RestTemplateAccessTokenRetriever> tokenRetrieverProvider,
-      ObjectProvider<PasswordEncoder> passwordEncoderProvider) {
+      ObjectProvider<PasswordEncoder> passwordEncoderProvider,
+      ObjectProvider<PasswordFlowAuthenticationCache> authenticationCacheProvider) {
 
     this.securityProperties = securityProperties;
     this.authProperties = authProperties;
@@ -116,6 +125,7 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
     this.jsonPathJwtConverterProvider = jsonPathJwtConverterProvider;
     this.tokenRetrieverProvider = tokenRetrieverProvider;
     this.passwordEncoderProvider = passwordEncoderProvider;
+    this.authenticationCacheProvider = authenticationCacheProvider;
   }
 
   /**
@@ -173,18 +183,21 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
           .and()
           .httpBasic().disable();
     } else {
+      final CompiledAccessRules rules = new CompiledAccessRules(getApplicationContext()
+          .getBeanProvider(RoleHierarchy.class).getIfAvailable());
       if (actuatorAuthProperties.isEnableCors()) {
-        reg = reg.antMatchers(HttpMethod.OPTIONS, "/**").permitAll();
+        reg = rules.register(reg, CompiledAccessRule.PERMIT_ALL,
+            new AntPathRequestMatcher("/**", HttpMethod.OPTIONS.name()));
       }
-      http = reg
-          .requestMatchers(unauthenticatedEndpointMatchers()).permitAll()
-          .requestMatchers(new AndRequestMatcher(
+      reg = rules.register(reg, CompiledAccessRule.PERMIT_ALL,
+          unauthenticatedEndpointMatchers());
+      reg = rules.register(reg, actuatorAuthProperties.buildAccessRule(),
+          new AndRequestMatcher(
               EndpointRequest.toAnyEndpoint(),
-              new AntPathRequestMatcher("/**", "GET")))
-          .access(actuatorAuthProperties.buildAccessExpression())
-          .anyRequest()
-          .access(actuatorAuthProperties.buildAdminAccessExpression())
-          .and();
+              new AntPathRequestMatcher("/**", "GET")));
+      reg = rules.register(reg, actuatorAuthProperties.buildAdminAccessRule(),
+          AnyRequestMatcher.INSTANCE);
+      http = rules.apply(reg).and();
       if (StringUtils.hasText(actuatorAuthProperties.getJwkSetUri())) {
         http.authenticationProvider(passwordFlowAuthenticationManager());
       }
@@ -215,17 +228,24 @@ public class ActuatorSecurityAutoConfiguration extends WebSecurityConfigurerAdap
         passwordEncoderProvider);
   }
 
-  private PasswordFlowAuthenticationManager passwordFlowAuthenticationManager() {
+  /**
+   * Creates the password flow authentication manager of the actuator endpoints.
+   *
+   * @return the password flow authentication manager
+   */
+  PasswordFlowAuthenticationManager passwordFlowAuthenticationManager() {
     RestTemplateAccessTokenRetriever tokenRetriever = tokenRetrieverProvider.getIfAvailable();
     log.info("Creating actuator {} with token retriever {} ...",
         PasswordFlowAuthenticationManager.class.getSimpleName(), tokenRetriever);
-    return new PasswordFlowAuthenticationManager(
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
         actuatorAuthProperties.getPasswordFlow(),
         jwtDecoder(),
         jwtConverter(),
         Objects.requireNonNullElseGet(
             tokenRetriever,
             () -> new RestTemplateAccessTokenRetriever(new RestTemplate())));
+    manager.setAuthenticationCache(authenticationCacheProvider.getIfAvailable());
+    return manager;
   }
 
   private JwtDecoder jwtDecoder() {
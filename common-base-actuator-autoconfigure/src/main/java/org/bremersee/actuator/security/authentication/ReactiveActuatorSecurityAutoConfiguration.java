@@ -24,6 +24,7 @@ import org.bremersee.security.authentication.AuthProperties;
 import org.bremersee.security.authentication.AutoSecurityMode;
 import org.bremersee.security.authentication.JsonPathJwtConverter;
 import org.bremersee.security.authentication.JsonPathReactiveJwtConverter;
+import org.bremersee.security.authentication.PasswordFlowAuthenticationCache;
 import org.bremersee.security.authentication.PasswordFlowProperties;
 import org.bremersee.security.authentication.PasswordFlowReactiveAuthenticationManager;
 import org.bremersee.security.authentication.RoleBasedAuthorizationManager;
@@ -95,6 +96,8 @@ public class ReactiveActuatorSecurityAutoConfiguration {
 
   private final ObjectProvider<PasswordEncoder> passwordEncoderProvider;
 
+  private final ObjectProvider<PasswordFlowAuthenticationCache> authenticationCacheProvider;
+
   /**
    * Instantiates a new reactive actuator security auto configuration.
    *
@@ -104,6 +107,7 @@ public class ReactiveActuatorSecurityAutoConfiguration {
    * @param tokenRetrieverProvider the token retriever provider
    * @param userDetailsServiceProvider the user details service provider
    * @param passwordEncoderProvider the password encoder provider
+   * @param authenticationCacheProvider the password flow authentication cache provider
    */
   public ReactiveActuatorSecurityAutoConfiguration(
       AuthProperties authProperties,
@@ -111,13 +115,15 @@ public class ReactiveActuatorSecurityAutoConfiguration {
       ObjectProvider<JsonPathReactiveJwtConverter> jsonPathJwtConverterProvider,
       ObjectProvider<WebClientAccessTokenRetriever> tokenRetrieverProvider,
       ObjectProvider<ReactiveUserDetailsService> userDetailsServiceProvider,
-      ObjectProvider<PasswordEncoder> passwordEncoderProvider) {
+      ObjectProvider<PasswordEncoder> passwordEncoderProvider,
+      ObjectProvider<PasswordFlowAuthenticationCache> authenticationCacheProvider) {
     this.authProperties = authProperties;
     this.actuatorAuthProperties = actuatorAuthProperties;
     this.jsonPathJwtConverterProvider = jsonPathJwtConverterProvider;
     this.tokenRetrieverProvider = tokenRetrieverProvider;
     this.userDetailsServiceProvider = userDetailsServiceProvider;
     this.passwordEncoderProvider = passwordEncoderProvider;
+    this.authenticationCacheProvider = authenticationCacheProvider;
   }
 
   /**
@@ -223,15 +229,23 @@ public class ReactiveActuatorSecurityAutoConfiguration {
                 .buildBasicAuthUserDetails(passwordEncoderProvider.getIfAvailable()))));
   }
 
-  private PasswordFlowReactiveAuthenticationManager passwordFlowReactiveAuthenticationManager() {
+  /**
+   * Creates the password flow authentication manager of the actuator endpoints.
+   *
+   * @return the password flow reactive authentication manager
+   */
+  PasswordFlowReactiveAuthenticationManager passwordFlowReactiveAuthenticationManager() {
     WebClientAccessTokenRetriever tokenRetriever = tokenRetrieverProvider.getIfAvailable();
     log.info("Creating actuator {} with token retriever {} ...",
         PasswordFlowReactiveAuthenticationManager.class.getSimpleName(), tokenRetriever);
-    return new PasswordFlowReactiveAuthenticationManager(
+    PasswordFlowReactiveAuthenticationManager manager
+        = new PasswordFlowReactiveAuthenticationManager(
         actuatorAuthProperties.getPasswordFlow(),
         jwtDecoder(),
         jwtConverter(),
         Objects.requireNonNullElseGet(tokenRetriever, WebClientAccessTokenRetriever::new));
+    manager.setAuthenticationCache(authenticationCacheProvider.getIfAvailable());
+    return manager;
   }
 
   private ReactiveJwtDecoder jwtDecoder() {
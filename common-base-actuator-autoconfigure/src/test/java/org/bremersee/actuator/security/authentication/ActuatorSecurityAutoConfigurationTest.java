@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.actuator.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.bremersee.security.authentication.AuthProperties;
+import org.bremersee.security.authentication.PasswordFlowAuthenticationCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+
+/**
+ * The actuator security auto configuration test.
+ *
+ * @author Christian Bremer
+ */
+class ActuatorSecurityAutoConfigurationTest {
+
+  /**
+   * Password flow authentication manager with cache.
+   */
+  @Test
+  void passwordFlowAuthenticationManagerWithCache() {
+    PasswordFlowAuthenticationCache cache = new PasswordFlowAuthenticationCache(10, null);
+    assertSame(cache, configuration(cache)
+        .passwordFlowAuthenticationManager()
+        .getAuthenticationCache());
+  }
+
+  /**
+   * Password flow authentication manager without cache.
+   */
+  @Test
+  void passwordFlowAuthenticationManagerWithoutCache() {
+    assertNull(configuration(null)
+        .passwordFlowAuthenticationManager()
+        .getAuthenticationCache());
+  }
+
+  private static ActuatorSecurityAutoConfiguration configuration(
+      PasswordFlowAuthenticationCache cache) {
+    ActuatorAuthProperties actuatorAuthProperties = new ActuatorAuthProperties();
+    actuatorAuthProperties.setJwkSetUri("http://localhost/jwk");
+    return new ActuatorSecurityAutoConfiguration(
+        new SecurityProperties(),
+        new AuthProperties(),
+        actuatorAuthProperties,
+        provider(null),
+        provider(null),
+        provider(null),
+        provider(cache));
+  }
+
+  private static <T> ObjectProvider<T> provider(T value) {
+    //noinspection unchecked
+    ObjectProvider<T> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable()).thenReturn(value);
+    return provider;
+  }
+
+}
@@ -19,14 +19,19 @@ package org.bremersee.exception;
 import java.lang.reflect.Method;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.bremersee.exception.RestApiExceptionMapperProperties.ExceptionMapping;
 import org.bremersee.exception.RestApiExceptionMapperProperties.ExceptionMappingConfig;
 import org.bremersee.exception.annotation.ErrorCode;
 import org.bremersee.exception.model.Handler;
@@ -46,6 +51,13 @@ import org.springframework.web.server.ResponseStatusException;
 /**
  * The default implementation of a rest api exception mapper.
  *
+ * <p>The annotations, the status method, the exception mapping and the exception mapping config
+ * of an exception class are resolved only once and then taken from a cache, so that mapping an
+ * exception, that was already seen, needs no reflection and no scan of the configured mappings.
+ * The annotations of the handler methods are cached, too. If the exception mappings or the
+ * exception mapping configs of the properties are replaced, the cache of the exception classes is
+ * rebuilt.
+ *
  * @author Christian Bremer
  */
 @Validated
@@ -58,6 +70,11 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
   @Getter(AccessLevel.PROTECTED)
   private String applicationName;
 
+  private final ConcurrentMap<Method, AnnotationResolution> handlerMethodResolutions
+      = new ConcurrentHashMap<>();
+
+  private volatile ExceptionClassResolutions exceptionClassResolutions;
+
   /**
    * Instantiates a new rest api exception mapper.
    *
@@ -86,31 +103,27 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
     if (httpStatus == null && exception instanceof ResponseStatusException) {
       httpStatus = ((ResponseStatusException) exception).getStatus();
     }
+    final ExceptionClassResolution resolution = resolve(exception.getClass());
     if (httpStatus == null) {
-      final ResponseStatus ann = AnnotatedElementUtils
-          .findMergedAnnotation(exception.getClass(), ResponseStatus.class);
+      final ResponseStatus ann = resolution.responseStatus;
       if (ann != null) {
         httpStatus = ann.code();
       }
     }
     if (httpStatus == null) {
-      final Method method = findHandlerMethod(handler);
-      if (method != null) {
-        final ResponseStatus ann = AnnotatedElementUtils
-            .findMergedAnnotation(method, ResponseStatus.class);
-        if (ann != null) {
-          httpStatus = ann.code();
-        }
+      final ResponseStatus ann = resolve(findHandlerMethod(handler)).responseStatus;
+      if (ann != null) {
+        httpStatus = ann.code();
       }
     }
     if (httpStatus == null && !(exception instanceof HttpStatusAware)) {
-      final Object result = getMethodValue(exception, "status");
+      final Object result = getMethodValue(exception, resolution.statusMethod);
       if (result instanceof Integer) {
         httpStatus = fromStatus((Integer) result);
       }
     }
     if (httpStatus == null) {
-      httpStatus = fromStatus(properties.findExceptionMapping(exception).getStatus());
+      httpStatus = fromStatus(findExceptionMapping(exception).getStatus());
     }
     if (httpStatus == null) {
       httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -118,24 +131,19 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
     return httpStatus;
   }
 
-  @SuppressWarnings("SameParameterValue")
   private <T> T getMethodValue(
       @NotNull final Throwable throwable,
-      @NotNull final String methodName) {
+      @Nullable final Method method) {
 
+    if (method == null) {
+      return null;
+    }
     try {
-      final Method method = ReflectionUtils.findMethod(
-          throwable.getClass(), methodName);
-      if (method != null) {
-        //noinspection unchecked
-        return (T) ReflectionUtils.invokeMethod(method, throwable);
-      } else {
-        log.debug("Method " + methodName + " not found in " + throwable.getClass().getName());
-        return null;
-      }
+      //noinspection unchecked
+      return (T) ReflectionUtils.invokeMethod(method, throwable);
     } catch (Exception e) {
-      log.warn("Calling " + methodName + " from " + throwable.getClass().getName() + " failed. "
-          + "Returning null.", e);
+      log.warn("Calling " + method.getName() + " from " + throwable.getClass().getName()
+          + " failed. Returning null.", e);
       return null;
     }
   }
@@ -154,7 +162,7 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
       @Nullable final String requestPath,
       @Nullable final Object handler) {
 
-    final ExceptionMappingConfig config = getProperties().findExceptionMappingConfig(exception);
+    final ExceptionMappingConfig config = findExceptionMappingConfig(exception);
     final HttpStatus httpStatus = detectHttpStatus(exception, handler);
 
     final RestApiException restApiException = new RestApiException();
@@ -203,6 +211,67 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
     return restApiException;
   }
 
+  /**
+   * Find the exception mapping of the given exception. The result is the same as the one of
+   * {@link RestApiExceptionMapperProperties#findExceptionMapping(Throwable)}, but the exception
+   * mappings are only scanned once per exception class.
+   *
+   * @param exception the exception
+   * @return the exception mapping
+   */
+  @SuppressWarnings("WeakerAccess")
+  @NotNull
+  protected ExceptionMapping findExceptionMapping(@NotNull Throwable exception) {
+    final ExceptionClassResolutions resolutions = getExceptionClassResolutions();
+    final int index = resolutions.indexOf(exception, true);
+    return index >= 0
+        ? resolutions.mappings.get(index)
+        : getProperties().getDefaultExceptionMapping();
+  }
+
+  /**
+   * Find the exception mapping config of the given exception. The result is the same as the one
+   * of {@link RestApiExceptionMapperProperties#findExceptionMappingConfig(Throwable)}, but the
+   * exception mapping configs are only scanned once per exception class.
+   *
+   * @param exception the exception
+   * @return the exception mapping config
+   */
+  @SuppressWarnings("WeakerAccess")
+  @NotNull
+  protected ExceptionMappingConfig findExceptionMappingConfig(@NotNull Throwable exception) {
+    final ExceptionClassResolutions resolutions = getExceptionClassResolutions();
+    final int index = resolutions.indexOf(exception, false);
+    return index >= 0
+        ? resolutions.configs.get(index)
+        : getProperties().getDefaultExceptionMappingConfig();
+  }
+
+  private ExceptionClassResolution resolve(@NotNull Class<?> exceptionClass) {
+    return getExceptionClassResolutions().get(exceptionClass);
+  }
+
+  private AnnotationResolution resolve(@Nullable Method handlerMethod) {
+    if (handlerMethod == null) {
+      return AnnotationResolution.EMPTY;
+    }
+    return handlerMethodResolutions.computeIfAbsent(
+        handlerMethod,
+        method -> new AnnotationResolution(
+            AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class),
+            AnnotationUtils.findAnnotation(method, ErrorCode.class)));
+  }
+
+  private ExceptionClassResolutions getExceptionClassResolutions() {
+    final RestApiExceptionMapperProperties props = getProperties();
+    ExceptionClassResolutions resolutions = exceptionClassResolutions;
+    if (resolutions == null || !resolutions.isBuiltFrom(props)) {
+      resolutions = new ExceptionClassResolutions(props);
+      exceptionClassResolutions = resolutions;
+    }
+    return resolutions;
+  }
+
   /**
    * Find the handler class.
    *
@@ -257,20 +326,16 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
       return message;
     }
 
-    ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(
-        exception.getClass(), ResponseStatus.class);
+    ResponseStatus responseStatus = resolve(exception.getClass()).responseStatus;
     if (responseStatus == null) {
-      Method method = findHandlerMethod(handler);
-      if (method != null) {
-        responseStatus = AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
-      }
+      responseStatus = resolve(findHandlerMethod(handler)).responseStatus;
     }
     if (responseStatus != null && StringUtils.hasText(responseStatus.reason())) {
       message = responseStatus.reason();
     }
     return StringUtils.hasText(message)
         ? message
-        : getProperties().findExceptionMapping(exception).getMessage();
+        : findExceptionMapping(exception).getMessage();
   }
 
   /**
@@ -295,19 +360,16 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
       return code;
     }
 
-    ErrorCode errorCode = AnnotationUtils.findAnnotation(exception.getClass(), ErrorCode.class);
+    ErrorCode errorCode = resolve(exception.getClass()).errorCode;
     if (errorCode == null) {
-      Method method = findHandlerMethod(handler);
-      if (method != null) {
-        errorCode = AnnotationUtils.findAnnotation(method, ErrorCode.class);
-      }
+      errorCode = resolve(findHandlerMethod(handler)).errorCode;
     }
     if (errorCode != null && StringUtils.hasText(errorCode.value())) {
       code = errorCode.value();
     }
     return StringUtils.hasText(code)
         ? code
-        : getProperties().findExceptionMapping(exception).getCode();
+        : findExceptionMapping(exception).getCode();
   }
 
   /**
@@ -446,4 +508,139 @@ public class RestApiExceptionMapperImpl implements RestApiExceptionMapper {
     return destination;
   }
 
+  /**
+   * The annotations of an exception class or of a handler method.
+   */
+  private static class AnnotationResolution {
+
+    private static final AnnotationResolution EMPTY = new AnnotationResolution(null, null);
+
+    final ResponseStatus responseStatus;
+
+    final ErrorCode errorCode;
+
+    private AnnotationResolution(
+        @Nullable ResponseStatus responseStatus,
+        @Nullable ErrorCode errorCode) {
+      this.responseStatus = responseStatus;
+      this.errorCode = errorCode;
+    }
+  }
+
+  /**
+   * The resolved values of an exception class.
+   */
+  private static class ExceptionClassResolution extends AnnotationResolution {
+
+    private final Method statusMethod;
+
+    private final int mappingIndex;
+
+    private final int configIndex;
+
+    private ExceptionClassResolution(
+        Class<?> exceptionClass,
+        int mappingIndex,
+        int configIndex) {
+      super(
+          AnnotatedElementUtils.findMergedAnnotation(exceptionClass, ResponseStatus.class),
+          AnnotationUtils.findAnnotation(exceptionClass, ErrorCode.class));
+      this.statusMethod = ReflectionUtils.findMethod(exceptionClass, "status");
+      if (statusMethod == null) {
+        log.debug("Method status not found in " + exceptionClass.getName());
+      }
+      this.mappingIndex = mappingIndex;
+      this.configIndex = configIndex;
+    }
+  }
+
+  /**
+   * The cache of the resolved values of the exception classes. It belongs to the exception
+   * mappings and the exception mapping configs, that it was built from. These lists are copied
+   * into immutable ones, when the cache is built, and the size and the content hash of the
+   * original lists are kept, so that a list, which is replaced or modified in place afterwards
+   * (for example by {@code getExceptionMappings().add(...)}), causes a rebuild of the cache.
+   */
+  private static class ExceptionClassResolutions extends ClassValue<ExceptionClassResolution> {
+
+    /**
+     * The maximum number of causes, that are considered; it only guards against cyclic causes.
+     */
+    private static final int MAX_CAUSES = 64;
+
+    private final RestApiExceptionMapperProperties properties;
+
+    private final List<ExceptionMapping> mappings;
+
+    private final List<ExceptionMappingConfig> configs;
+
+    private final int mappingsHash;
+
+    private final int configsHash;
+
+    private ExceptionClassResolutions(RestApiExceptionMapperProperties properties) {
+      this.properties = properties;
+      this.mappings = copyOf(properties.getExceptionMappings());
+      this.configs = copyOf(properties.getExceptionMappingConfigs());
+      this.mappingsHash = mappings.hashCode();
+      this.configsHash = configs.hashCode();
+    }
+
+    private static <E> List<E> copyOf(@Nullable List<E> list) {
+      return list != null
+          ? Collections.unmodifiableList(new ArrayList<>(list))
+          : Collections.emptyList();
+    }
+
+    @Override
+    protected ExceptionClassResolution computeValue(Class<?> type) {
+      return new ExceptionClassResolution(
+          type,
+          properties.indexOfExceptionMapping(mappings, type),
+          properties.indexOfExceptionMappingConfig(configs, type));
+    }
+
+    /**
+     * Determines whether this cache was built from the given properties and whether their
+     * exception mappings and exception mapping configs are still the same; the lists are compared
+     * by size and content hash.
+     *
+     * @param properties the properties
+     * @return {@code true} if the cache can be used, otherwise {@code false}
+     */
+    private boolean isBuiltFrom(RestApiExceptionMapperProperties properties) {
+      return this.properties == properties
+          && isSnapshotOf(mappings, mappingsHash, properties.getExceptionMappings())
+          && isSnapshotOf(configs, configsHash, properties.getExceptionMappingConfigs());
+    }
+
+    private static boolean isSnapshotOf(List<?> snapshot, int snapshotHash, List<?> list) {
+      return list != null
+          ? snapshot.size() == list.size() && snapshotHash == list.hashCode()
+          : snapshot.isEmpty();
+    }
+
+    /**
+     * Returns the lowest index of the exception mappings or of the exception mapping configs,
+     * that matches the exception or one of its causes.
+     *
+     * @param exception the exception
+     * @param mapping {@code true} for the exception mappings, {@code false} for the configs
+     * @return the index or {@code -1}
+     */
+    private int indexOf(Throwable exception, boolean mapping) {
+      int index = -1;
+      Throwable throwable = exception;
+      for (int n = 0; throwable != null && n < MAX_CAUSES && index != 0; n++) {
+        final ExceptionClassResolution resolution = get(throwable.getClass());
+        final int i = mapping ? resolution.mappingIndex : resolution.configIndex;
+        if (i >= 0 && (index < 0 || i < index)) {
+          index = i;
+        }
+        throwable = throwable.getCause();
+      }
+      return index;
+    }
+  }
+
 }
@@ -225,6 +225,66 @@ public class RestApiExceptionMapperProperties {
         .orElseGet(this::getDefaultExceptionMappingConfig);
   }
 
+  /**
+   * Returns the index of the first exception mapping, that matches the given exception class or
+   * one of its super classes. The causes of an exception are not considered here.
+   *
+   * @param exceptionClass the exception class
+   * @return the index of the exception mapping or {@code -1}
+   */
+  int indexOfExceptionMapping(final Class<?> exceptionClass) {
+    return indexOfExceptionMapping(getExceptionMappings(), exceptionClass);
+  }
+
+  /**
+   * Returns the index of the first of the given exception mappings, that matches the given
+   * exception class or one of its super classes.
+   *
+   * @param mappings the exception mappings
+   * @param exceptionClass the exception class
+   * @return the index of the exception mapping or {@code -1}
+   */
+  int indexOfExceptionMapping(
+      final List<ExceptionMapping> mappings,
+      final Class<?> exceptionClass) {
+    for (int i = 0; i < mappings.size(); i++) {
+      if (matches(exceptionClass, mappings.get(i).getExceptionClassName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the first exception mapping config, that matches the given exception
+   * class or one of its super classes. The causes of an exception are not considered here.
+   *
+   * @param exceptionClass the exception class
+   * @return the index of the exception mapping config or {@code -1}
+   */
+  int indexOfExceptionMappingConfig(final Class<?> exceptionClass) {
+    return indexOfExceptionMappingConfig(getExceptionMappingConfigs(), exceptionClass);
+  }
+
+  /**
+   * Returns the index of the first of the given exception mapping configs, that matches the given
+   * exception class or one of its super classes.
+   *
+   * @param configs the exception mapping configs
+   * @param exceptionClass the exception class
+   * @return the index of the exception mapping config or {@code -1}
+   */
+  int indexOfExceptionMappingConfig(
+      final List<ExceptionMappingConfig> configs,
+      final Class<?> exceptionClass) {
+    for (int i = 0; i < configs.size(); i++) {
+      if (matches(exceptionClass, configs.get(i).getExceptionClassName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   private boolean matches(final Throwable throwable, final String exceptionClassName) {
     if (throwable == null || exceptionClassName == null) {
       return false;
@@ -26,11 +26,13 @@ import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
@@ -165,20 +167,19 @@ public abstract class AbstractResourceServerAutoConfiguration extends WebSecurit
   configurePathMatchers(
       ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry reg) {
 
+    final CompiledAccessRules rules = new CompiledAccessRules(getApplicationContext()
+        .getBeanProvider(RoleHierarchy.class).getIfAvailable());
     for (PathMatcherProperties props : authProperties.preparePathMatchers(corsProperties)) {
       log.info("Securing requests to {}", props);
       HttpMethod httpMethod = props.httpMethod();
-      if (httpMethod == null) {
-        reg = reg.antMatchers(props.getAntPattern())
-            .access(props.accessExpression(
-                authProperties::ensureRolePrefix));
-      } else {
-        reg = reg.antMatchers(httpMethod, props.getAntPattern())
-            .access(props.accessExpression(
-                authProperties::ensureRolePrefix));
-      }
+      reg = rules.register(
+          reg,
+          props.accessRule(authProperties::ensureRolePrefix),
+          new AntPathRequestMatcher(
+              props.getAntPattern(),
+              httpMethod != null ? httpMethod.name() : null));
     }
-    return reg;
+    return rules.apply(reg);
   }
 
   private HttpSecurity configureAuthenticationProvider(HttpSecurity http) throws Exception {
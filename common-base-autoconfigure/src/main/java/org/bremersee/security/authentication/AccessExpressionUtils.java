@@ -16,6 +16,9 @@
 
 package org.bremersee.security.authentication;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -24,6 +27,8 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bremersee.security.IpAddressParser;
 import org.bremersee.security.authentication.AuthProperties.EurekaAccessProperties;
 import org.bremersee.security.authentication.AuthProperties.PathMatcherProperties;
 import org.springframework.util.StringUtils;
@@ -114,18 +119,37 @@ public abstract class AccessExpressionUtils {
   }
 
   /**
-   * Builds the {@code hasIpAddress} expression.
+   * Builds the {@code hasIpAddress} expression. The expression is evaluated on every request, and
+   * an address, that is not a literal, would be resolved every time. So a hostname is resolved
+   * here once and the expression contains its addresses.
    *
    * @param ip the ip
    * @return the {@code hasIpAddress} expression
    */
   public static String hasIpAddressExpr(String ip) {
     if (StringUtils.hasText(ip)) {
-      return String.format(HAS_IP_ADDRESS_TEMPLATE, ip);
+      return resolveIpAddress(ip.trim())
+          .map(value -> String.format(HAS_IP_ADDRESS_TEMPLATE, value))
+          .collect(Collectors.joining(" or "));
     }
     return "";
   }
 
+  private static Stream<String> resolveIpAddress(String ip) {
+    final int index = ip.indexOf('/');
+    final String address = index > 0 ? ip.substring(0, index) : ip;
+    if (IpAddressParser.isLiteral(address)) {
+      return Stream.of(ip);
+    }
+    final String mask = index > 0 ? ip.substring(index) : "";
+    try {
+      return Arrays.stream(InetAddress.getAllByName(address))
+          .map(inetAddress -> inetAddress.getHostAddress() + mask);
+    } catch (UnknownHostException e) {
+      return Stream.of(ip);
+    }
+  }
+
   /**
    * Builds the {@code hasIpAddress} expression.
    *
@@ -175,6 +199,74 @@ public abstract class AccessExpressionUtils {
     return sb.toString();
   }
 
+  /**
+   * Builds a compiled access rule from the given roles and ip addresses. It has the same meaning
+   * as the expression of {@link #hasAuthorityOrIpAddressExpr(Collection, Function, Collection)}.
+   *
+   * @param roles the roles
+   * @param ensurePrefixFunction the ensure prefix function
+   * @param ips the ips
+   * @return the compiled access rule
+   */
+  public static CompiledAccessRule hasAuthorityOrIpAddressRule(
+      Collection<String> roles,
+      Function<String, String> ensurePrefixFunction,
+      Collection<String> ips) {
+
+    return CompiledAccessRule.builder()
+        .authorities(roles, ensurePrefixFunction)
+        .ipAddresses(ips)
+        .build();
+  }
+
+  /**
+   * Build compiled access rule of the given path matcher properties. It has the same meaning as
+   * the access expression of {@link #buildAccessExpression(PathMatcherProperties, Function)}.
+   *
+   * @param properties the properties
+   * @param ensureRolePrefixFunction the ensure role prefix function
+   * @return the compiled access rule
+   */
+  static CompiledAccessRule buildAccessRule(
+      PathMatcherProperties properties,
+      Function<String, String> ensureRolePrefixFunction) {
+
+    if (AccessMode.PERMIT_ALL == properties.getAccessMode()) {
+      return CompiledAccessRule.PERMIT_ALL;
+    }
+    if (AccessMode.DENY_ALL == properties.getAccessMode()) {
+      return CompiledAccessRule.DENY_ALL;
+    }
+    return CompiledAccessRule.builder()
+        .authorities(properties.getRoles(), ensureRolePrefixFunction)
+        .ipAddresses(properties.getIpAddresses())
+        .authenticated(properties.getRoles() == null || properties.getRoles().isEmpty())
+        .build();
+  }
+
+  /**
+   * Build compiled access rule of the given eureka access properties. It has the same meaning as
+   * the access expression of {@link #buildAccessExpression(EurekaAccessProperties, Function)}.
+   *
+   * @param properties the properties
+   * @param ensureRolePrefixFunction the ensure role prefix function
+   * @return the compiled access rule
+   */
+  static CompiledAccessRule buildAccessRule(
+      EurekaAccessProperties properties,
+      Function<String, String> ensureRolePrefixFunction) {
+
+    return CompiledAccessRule.builder()
+        .authorities(
+            StringUtils.hasText(properties.getRole())
+                ? Collections.singleton(properties.getRole())
+                : null,
+            ensureRolePrefixFunction)
+        .ipAddresses(properties.getIpAddresses())
+        .authenticated(!StringUtils.hasText(properties.getRole()))
+        .build();
+  }
+
   /**
    * Build access expression of the given path matcher properties.
    *
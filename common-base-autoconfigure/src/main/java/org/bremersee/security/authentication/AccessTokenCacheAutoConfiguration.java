@@ -171,6 +171,11 @@ public class AccessTokenCacheAutoConfiguration {
 
       RedisConnectionFactory connectionFactory = connectionFactoryProvider.getIfAvailable();
       Assert.notNull(connectionFactory, "Redis connection factory must not be null.");
+      if (authProperties.getJwtCache().isNearCache()) {
+        log.info("Creating {} with {} ...", RedisNearAccessTokenCache.class.getSimpleName(),
+            ClassUtils.getUserClass(connectionFactory).getSimpleName());
+        return new RedisNearAccessTokenCache(authProperties.getJwtCache(), connectionFactory);
+      }
       log.info("Creating {} with {} ...", RedisAccessTokenCache.class.getSimpleName(),
           ClassUtils.getUserClass(connectionFactory).getSimpleName());
       return new RedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory);
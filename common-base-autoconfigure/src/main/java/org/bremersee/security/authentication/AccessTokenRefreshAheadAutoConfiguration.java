@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The auto configuration of the background refresh of cached access tokens. It is used by the
+ * blocking and by the reactive access token retrievers.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnClass(name = {
+    "org.bremersee.security.authentication.AccessTokenRefreshAhead"
+})
+@Conditional(JwtSupportCondition.class)
+@ConditionalOnProperty(
+    prefix = "bremersee.auth.jwt-cache",
+    name = "refresh-ahead",
+    havingValue = "true")
+@ConditionalOnMissingBean(AccessTokenRefreshAhead.class)
+@Configuration
+@EnableConfigurationProperties(AuthProperties.class)
+@Slf4j
+public class AccessTokenRefreshAheadAutoConfiguration {
+
+  private final AuthProperties authProperties;
+
+  /**
+   * Instantiates a new auto configuration of the background refresh.
+   *
+   * @param authProperties the auth properties
+   */
+  public AccessTokenRefreshAheadAutoConfiguration(AuthProperties authProperties) {
+    this.authProperties = authProperties;
+  }
+
+  /**
+   * Creates the access token refresh ahead.
+   *
+   * @return the access token refresh ahead
+   */
+  @Bean
+  public AccessTokenRefreshAhead accessTokenRefreshAhead() {
+    AccessTokenRefreshAhead refreshAhead = new AccessTokenRefreshAhead(
+        authProperties.getJwtCache().getRefreshAheadFactor(),
+        authProperties.getJwtCache().getExpirationTimeThreshold(),
+        authProperties.getJwtCache().getRefreshAheadPoolSize());
+    log.info("Creating {} ...", refreshAhead);
+    return refreshAhead;
+  }
+
+}
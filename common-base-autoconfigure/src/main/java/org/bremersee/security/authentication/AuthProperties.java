@@ -136,12 +136,24 @@ public class AuthProperties {
   @NotNull
   private JwtCache jwtCache = new JwtCache();
 
+  /**
+   * The properties of the cache of the authentications, that are converted from a jwt.
+   */
+  @NotNull
+  private JwtAuthenticationCache jwtAuthenticationCache = new JwtAuthenticationCache();
+
   /**
    * The properties for the oauth2 password flow.
    */
   @NotNull
   private PasswordFlow passwordFlow = new PasswordFlow();
 
+  /**
+   * The properties of the authentication cache of the password flow.
+   */
+  @NotNull
+  private PasswordFlowCache passwordFlowCache = new PasswordFlowCache();
+
   /**
    * The properties for the client credentials flow.
    */
@@ -294,6 +306,18 @@ public class AuthProperties {
       return AccessExpressionUtils.buildAccessExpression(this, ensureRolePrefixFunction);
     }
 
+    /**
+     * Returns the compiled access rule.
+     *
+     * @param ensureRolePrefixFunction the ensure role prefix function
+     * @return the compiled access rule
+     */
+    @NotNull
+    public CompiledAccessRule accessRule(
+        @Nullable Function<String, String> ensureRolePrefixFunction) {
+      return AccessExpressionUtils.buildAccessRule(this, ensureRolePrefixFunction);
+    }
+
     /**
      * Returns valid roles.
      *
@@ -369,6 +393,18 @@ public class AuthProperties {
       return AccessExpressionUtils.buildAccessExpression(this, ensureRolePrefixFunction);
     }
 
+    /**
+     * Build compiled access rule.
+     *
+     * @param ensureRolePrefixFunction the ensure role prefix function
+     * @return the compiled access rule
+     */
+    @NotNull
+    public CompiledAccessRule buildAccessRule(
+        @Nullable Function<String, String> ensureRolePrefixFunction) {
+      return AccessExpressionUtils.buildAccessRule(this, ensureRolePrefixFunction);
+    }
+
     /**
      * Build basic auth user details.
      *
@@ -444,6 +480,52 @@ public class AuthProperties {
     private String password;
   }
 
+  /**
+   * The properties of the cache of the authentications, that are converted from a jwt.
+   */
+  @Getter
+  @Setter
+  @ToString
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @Validated
+  public static class JwtAuthenticationCache {
+
+    /**
+     * Specifies whether the authentications, that are converted from a jwt, are cached by the
+     * token value until the jwt expires.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of cached authentications.
+     */
+    private int maxSize = 10000;
+  }
+
+  /**
+   * The properties of the authentication cache of the password flow.
+   */
+  @Getter
+  @Setter
+  @ToString
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @Validated
+  public static class PasswordFlowCache {
+
+    /**
+     * Specifies whether authentications of basic auth requests, that are authenticated with the
+     * password flow, are cached until the token expires.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of cached authentications.
+     */
+    private int maxSize = 1000;
+  }
+
   /**
    * A simple user.
    */
@@ -513,6 +595,42 @@ public class AuthProperties {
      */
     private String keyPrefix = "jwt:";
 
+    /**
+     * Specifies whether access tokens of the client credentials flow are refreshed in the
+     * background before they expire.
+     */
+    private boolean refreshAhead = false;
+
+    /**
+     * The fraction of the token lifetime, after that the token will be refreshed in the background
+     * (must be greater than 0 and less than 1).
+     */
+    private double refreshAheadFactor = AccessTokenRefreshAhead.DEFAULT_FACTOR;
+
+    /**
+     * The number of threads, that refresh access tokens in the background.
+     */
+    private int refreshAheadPoolSize = AccessTokenRefreshAhead.DEFAULT_POOL_SIZE;
+
+    /**
+     * Specifies whether the redis access token cache has a bounded in memory tier (near cache).
+     */
+    private boolean nearCache = false;
+
+    /**
+     * The maximum number of access tokens in the in memory tier of the near cache.
+     */
+    private int nearCacheMaxSize = 1000;
+
+    /**
+     * Gets the redis channel, on which the near caches publish their invalidations.
+     *
+     * @return the near cache invalidation channel
+     */
+    public String getNearCacheInvalidationChannel() {
+      return addKeyPrefix("near-cache-invalidation");
+    }
+
     /**
      * Add key prefix to the given key.
      *
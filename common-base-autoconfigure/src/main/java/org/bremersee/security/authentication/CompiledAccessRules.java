@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.intercept.FilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * The compiled access rules of a servlet security configuration. The rules are registered like
+ * access expressions, but the requests, that match, are decided by the {@link CompiledAccessRule}
+ * and not by evaluating its expression. The rules are applied in the order of their registration
+ * and before all other mappings of the registry, so all mappings of a registry should be
+ * registered here. If a role hierarchy is given, the authorities are expanded by it, like the
+ * expression handler does.
+ *
+ * <p>Usage:
+ * <pre>
+ * CompiledAccessRules rules = new CompiledAccessRules();
+ * reg = rules.register(reg, CompiledAccessRule.PERMIT_ALL, matcher);
+ * ...
+ * reg = rules.apply(reg);
+ * </pre>
+ *
+ * @author Christian Bremer
+ */
+public class CompiledAccessRules {
+
+  private final Map<RequestMatcher, Collection<ConfigAttribute>> rules = new LinkedHashMap<>();
+
+  private final RoleHierarchy roleHierarchy;
+
+  /**
+   * Instantiates new compiled access rules without role hierarchy.
+   */
+  public CompiledAccessRules() {
+    this(null);
+  }
+
+  /**
+   * Instantiates new compiled access rules.
+   *
+   * @param roleHierarchy the role hierarchy
+   */
+  public CompiledAccessRules(@Nullable RoleHierarchy roleHierarchy) {
+    this.roleHierarchy = roleHierarchy;
+  }
+
+  /**
+   * Registers the given rule for the requests, that match the given matchers.
+   *
+   * @param registry the registry
+   * @param rule the rule
+   * @param requestMatchers the request matchers
+   * @return the registry
+   */
+  public ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry register(
+      ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry registry,
+      CompiledAccessRule rule,
+      RequestMatcher... requestMatchers) {
+
+    final Collection<ConfigAttribute> attributes = Collections
+        .singletonList(new RuleAttribute(rule));
+    for (RequestMatcher requestMatcher : requestMatchers) {
+      rules.putIfAbsent(requestMatcher, attributes);
+    }
+    return registry.requestMatchers(requestMatchers).access(rule.getExpression());
+  }
+
+  /**
+   * Applies the registered rules to the security interceptor, that is built by the registry.
+   *
+   * @param registry the registry
+   * @return the registry
+   */
+  public ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry apply(
+      ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry registry) {
+
+    return registry.withObjectPostProcessor(new ObjectPostProcessor<FilterSecurityInterceptor>() {
+      @Override
+      public <O extends FilterSecurityInterceptor> O postProcess(O interceptor) {
+        interceptor.setSecurityMetadataSource(
+            new RuleMetadataSource(rules, interceptor.getSecurityMetadataSource()));
+        interceptor.setAccessDecisionManager(
+            new RuleDecisionManager(interceptor.getAccessDecisionManager(), roleHierarchy));
+        return interceptor;
+      }
+    });
+  }
+
+  /**
+   * Gets the number of registered request matchers.
+   *
+   * @return the size
+   */
+  public int size() {
+    return rules.size();
+  }
+
+  /**
+   * The config attribute of a compiled access rule.
+   */
+  static class RuleAttribute implements ConfigAttribute {
+
+    private final CompiledAccessRule rule;
+
+    /**
+     * Instantiates a new rule attribute.
+     *
+     * @param rule the rule
+     */
+    RuleAttribute(CompiledAccessRule rule) {
+      this.rule = rule;
+    }
+
+    @Override
+    public String getAttribute() {
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return rule.getExpression();
+    }
+  }
+
+  /**
+   * The security metadata source, that returns the compiled rule of the first matching request
+   * matcher, or the attributes of the delegate, if no request matcher matches.
+   */
+  static class RuleMetadataSource implements FilterInvocationSecurityMetadataSource {
+
+    private final Map<RequestMatcher, Collection<ConfigAttribute>> rules;
+
+    private final FilterInvocationSecurityMetadataSource delegate;
+
+    /**
+     * Instantiates a new rule metadata source.
+     *
+     * @param rules the rules
+     * @param delegate the delegate
+     */
+    RuleMetadataSource(
+        Map<RequestMatcher, Collection<ConfigAttribute>> rules,
+        FilterInvocationSecurityMetadataSource delegate) {
+      this.rules = rules;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Collection<ConfigAttribute> getAttributes(Object object) {
+      final HttpServletRequest request = ((FilterInvocation) object).getRequest();
+      for (Map.Entry<RequestMatcher, Collection<ConfigAttribute>> entry : rules.entrySet()) {
+        if (entry.getKey().matches(request)) {
+          return entry.getValue();
+        }
+      }
+      return delegate != null ? delegate.getAttributes(object) : null;
+    }
+
+    @Override
+    public Collection<ConfigAttribute> getAllConfigAttributes() {
+      final Set<ConfigAttribute> attributes = new HashSet<>();
+      rules.values().forEach(attributes::addAll);
+      if (delegate != null && delegate.getAllConfigAttributes() != null) {
+        attributes.addAll(delegate.getAllConfigAttributes());
+      }
+      return attributes;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+      return FilterInvocation.class.isAssignableFrom(clazz);
+    }
+  }
+
+  /**
+   * The access decision manager, that decides the compiled rules and delegates all other
+   * attributes.
+   */
+  static class RuleDecisionManager implements AccessDecisionManager {
+
+    private final AccessDecisionManager delegate;
+
+    private final RoleHierarchy roleHierarchy;
+
+    /**
+     * Instantiates a new rule decision manager.
+     *
+     * @param delegate the delegate
+     * @param roleHierarchy the role hierarchy
+     */
+    RuleDecisionManager(AccessDecisionManager delegate, @Nullable RoleHierarchy roleHierarchy) {
+      this.delegate = delegate;
+      this.roleHierarchy = roleHierarchy;
+    }
+
+    @Override
+    public void decide(
+        Authentication authentication,
+        Object object,
+        Collection<ConfigAttribute> configAttributes)
+        throws AccessDeniedException, InsufficientAuthenticationException {
+
+      if (configAttributes != null && configAttributes.size() == 1
+          && object instanceof FilterInvocation) {
+        final ConfigAttribute attribute = configAttributes.iterator().next();
+        if (attribute instanceof RuleAttribute) {
+          final String remoteAddress = ((FilterInvocation) object).getRequest().getRemoteAddr();
+          final CompiledAccessRule rule = ((RuleAttribute) attribute).rule;
+          if (rule.isGranted(authentication, remoteAddress, roleHierarchy)) {
+            return;
+          }
+          throw new AccessDeniedException("Access is denied");
+        }
+      }
+      delegate.decide(authentication, object, configAttributes);
+    }
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+      return attribute instanceof RuleAttribute || delegate.supports(attribute);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+      return delegate.supports(clazz);
+    }
+  }
+
+}
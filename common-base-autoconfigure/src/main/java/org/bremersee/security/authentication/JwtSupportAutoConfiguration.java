@@ -106,9 +106,45 @@ public class JwtSupportAutoConfiguration {
         properties.getPreferredTimeZoneJsonPath());
   }
 
+  /**
+   * Creates the cache of the authentications, that are converted from a jwt.
+   *
+   * @return the jwt authentication token cache
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.auth.jwt-authentication-cache",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public JwtAuthenticationTokenCache jwtAuthenticationTokenCache() {
+    log.info("Creating application {} ...", JwtAuthenticationTokenCache.class.getSimpleName());
+    return new JwtAuthenticationTokenCache(properties.getJwtAuthenticationCache().getMaxSize());
+  }
+
+  /**
+   * Creates the cache of the authentications of the password flow authentication manager.
+   *
+   * @return the password flow authentication cache
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.auth.password-flow-cache",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public PasswordFlowAuthenticationCache passwordFlowAuthenticationCache() {
+    log.info("Creating application {} ...",
+        PasswordFlowAuthenticationCache.class.getSimpleName());
+    return new PasswordFlowAuthenticationCache(
+        properties.getPasswordFlowCache().getMaxSize(),
+        properties.getJwtCache().getExpirationTimeThreshold());
+  }
+
   /**
    * Creates a json path jwt converter bean.
    *
+   * @param authenticationCache the cache of the converted authentications
    * @return the json path jwt converter
    */
   @ConditionalOnProperty(
@@ -117,7 +153,8 @@ public class JwtSupportAutoConfiguration {
   @ConditionalOnMissingBean
   @Bean
   @SuppressWarnings("DuplicatedCode")
-  public JsonPathJwtConverter jsonPathJwtConverter() {
+  public JsonPathJwtConverter jsonPathJwtConverter(
+      ObjectProvider<JwtAuthenticationTokenCache> authenticationCache) {
     log.info("Creating application {} ...", JsonPathJwtConverter.class.getSimpleName());
     JsonPathJwtConverter converter = new JsonPathJwtConverter();
     converter.setNameJsonPath(properties.getNameJsonPath());
@@ -125,6 +162,7 @@ public class JwtSupportAutoConfiguration {
     converter.setRolesJsonPath(properties.getRolesJsonPath());
     converter.setRolesValueList(properties.isRolesValueList());
     converter.setRolesValueSeparator(properties.getRolesValueSeparator());
+    converter.setAuthenticationCache(authenticationCache.getIfAvailable());
     return converter;
   }
 
@@ -133,6 +171,7 @@ public class JwtSupportAutoConfiguration {
    *
    * @param restTemplateBuilder the rest template builder
    * @param accessTokenCache the access token cache
+   * @param refreshAhead the refresh ahead of cached access tokens
    * @return the rest template access token retriever
    */
   @Conditional(JwtSupportCondition.class)
@@ -140,7 +179,8 @@ public class JwtSupportAutoConfiguration {
   @Bean
   public RestTemplateAccessTokenRetriever restTemplateAccessTokenRetriever(
       ObjectProvider<RestTemplateBuilder> restTemplateBuilder,
-      ObjectProvider<AccessTokenCache> accessTokenCache) {
+      ObjectProvider<AccessTokenCache> accessTokenCache,
+      ObjectProvider<AccessTokenRefreshAhead> refreshAhead) {
 
     AccessTokenCache cache = accessTokenCache.getIfAvailable();
     log.info("Creating common {} with cache {} ...",
@@ -150,7 +190,8 @@ public class JwtSupportAutoConfiguration {
         "Rest template builder must be present.");
     return new RestTemplateAccessTokenRetriever(
         restTemplateBuilder.getIfAvailable().build(),
-        cache);
+        cache,
+        refreshAhead.getIfAvailable());
   }
 
   /**
@@ -159,6 +200,7 @@ public class JwtSupportAutoConfiguration {
    * @param jwtDecoder the jwt decoder
    * @param jwtConverter the jwt converter
    * @param tokenRetriever the token retriever
+   * @param authenticationCache the cache of the authentications
    * @return the password flow authentication manager
    */
   @ConditionalOnProperty(
@@ -173,18 +215,21 @@ public class JwtSupportAutoConfiguration {
   public PasswordFlowAuthenticationManager passwordFlowAuthenticationManager(
       ObjectProvider<JwtDecoder> jwtDecoder,
       JsonPathJwtConverter jwtConverter,
-      RestTemplateAccessTokenRetriever tokenRetriever) {
+      RestTemplateAccessTokenRetriever tokenRetriever,
+      ObjectProvider<PasswordFlowAuthenticationCache> authenticationCache) {
 
     log.info("Creating application {} ...",
         PasswordFlowAuthenticationManager.class.getSimpleName());
     Assert.notNull(
         jwtDecoder.getIfAvailable(),
         "Jwt decoder must be present.");
-    return new PasswordFlowAuthenticationManager(
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
         properties.getPasswordFlow(),
         jwtDecoder.getIfAvailable(),
         jwtConverter,
         tokenRetriever);
+    manager.setAuthenticationCache(authenticationCache.getIfAvailable());
+    return manager;
   }
 
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The bounded in memory tier of the near caches. It is keyed by the hashed cache key and holds the
+ * access tokens with their expiration time, so an entry lives at most until its token expires. If
+ * the maximum size is reached, the least recently used entry is removed.
+ *
+ * @author Christian Bremer
+ */
+class LocalAccessTokenCacheTier {
+
+  private final Map<String, AccessTokenCacheEntry> entries;
+
+  private final Duration expirationTimeThreshold;
+
+  /**
+   * Instantiates a new local access token cache tier.
+   *
+   * @param maxSize the max size
+   * @param expirationTimeThreshold the expiration time threshold
+   */
+  LocalAccessTokenCacheTier(int maxSize, Duration expirationTimeThreshold) {
+    final int capacity = Math.max(1, maxSize);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, AccessTokenCacheEntry> eldest) {
+        return size() > capacity;
+      }
+    };
+    this.expirationTimeThreshold = expirationTimeThreshold;
+  }
+
+  /**
+   * Find not expired access token.
+   *
+   * @param key the key
+   * @return the access token
+   */
+  Optional<String> findAccessToken(String key) {
+    final AccessTokenCacheEntry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && entry.isExpired(expirationTimeThreshold)) {
+        entries.remove(key);
+        return Optional.empty();
+      }
+    }
+    return Optional.ofNullable(entry).map(AccessTokenCacheEntry::getAccessToken);
+  }
+
+  /**
+   * Put access token, if it is not expired.
+   *
+   * @param key the key
+   * @param accessToken the access token
+   */
+  void putAccessToken(String key, String accessToken) {
+    putAccessToken(key, AccessTokenCacheEntry.of(accessToken));
+  }
+
+  /**
+   * Put access token with a known expiration time, if it is not expired.
+   *
+   * @param key the key
+   * @param entry the access token with its expiration time
+   */
+  void putAccessToken(String key, AccessTokenCacheEntry entry) {
+    if (!entry.isExpired(expirationTimeThreshold)) {
+      synchronized (entries) {
+        entries.put(key, entry);
+      }
+    }
+  }
+
+  /**
+   * Evict the entry with the given key.
+   *
+   * @param key the key
+   */
+  void evict(String key) {
+    synchronized (entries) {
+      entries.remove(key);
+    }
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the size
+   */
+  int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import javax.validation.constraints.NotNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The cache of the authentications, that were created by the password flow authentication
+ * managers. The key is a salted hash of the user name and the password, the salt is created
+ * randomly for every cache instance. An authentication is only cached, if it is a jwt
+ * authentication token, whose jwt has an expiration time, and it is removed when the jwt expires.
+ * If the maximum size is reached, the least recently used authentication is removed.
+ *
+ * <p>The jwt, the name and the authorities of the authentication are cached; a new authentication
+ * token is created from them for every hit, because spring security sets the details of the
+ * returned authentication (see {@link JwtAuthenticationTokenCache}).
+ *
+ * @author Christian Bremer
+ */
+public class PasswordFlowAuthenticationCache {
+
+  private final String salt;
+
+  private final Map<String, Entry> entries;
+
+  private final Duration expirationTimeThreshold;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Instantiates a new password flow authentication cache.
+   *
+   * @param maxSize the max size
+   * @param expirationTimeThreshold the expiration time threshold
+   */
+  public PasswordFlowAuthenticationCache(int maxSize, @Nullable Duration expirationTimeThreshold) {
+    final byte[] saltBytes = new byte[32];
+    new SecureRandom().nextBytes(saltBytes);
+    this.salt = Base64.getEncoder().encodeToString(saltBytes);
+    final int capacity = Math.max(1, maxSize);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+  }
+
+  /**
+   * Creates the cache key of the given credentials.
+   *
+   * @param username the username
+   * @param password the password
+   * @return the cache key
+   */
+  public String createKey(@Nullable String username, @Nullable String password) {
+    return createKey(null, username, password);
+  }
+
+  /**
+   * Creates the cache key of the given credentials within the given scope. Authentication
+   * managers, that share this cache, but request their tokens from different endpoints or convert
+   * them differently, use different scopes.
+   *
+   * @param scope the scope
+   * @param username the username
+   * @param password the password
+   * @return the cache key
+   */
+  public String createKey(
+      @Nullable String scope,
+      @Nullable String username,
+      @Nullable String password) {
+    return CacheKeyHasher.hash(salt + ':' + scope + ':' + username + ':' + password);
+  }
+
+  /**
+   * Find not expired authentication. Every call returns a new authentication token.
+   *
+   * @param key the key
+   * @return the authentication
+   */
+  public Optional<Authentication> findAuthentication(@NotNull String key) {
+    final long millis = System.currentTimeMillis() + expirationTimeThreshold.toMillis();
+    final Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && entry.expiresAt < millis) {
+        entries.remove(key);
+        misses.increment();
+        return Optional.empty();
+      }
+    }
+    if (entry == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+    hits.increment();
+    return Optional.of(
+        new JsonPathJwtAuthenticationToken(entry.jwt, entry.authorities, entry.name));
+  }
+
+  /**
+   * Put the authentication into the cache, if it is a jwt authentication token, whose jwt has an
+   * expiration time.
+   *
+   * @param key the key
+   * @param authentication the authentication
+   */
+  public void putAuthentication(@NotNull String key, @Nullable Authentication authentication) {
+    if (!(authentication instanceof JwtAuthenticationToken)) {
+      return;
+    }
+    final JwtAuthenticationToken jwtAuthentication = (JwtAuthenticationToken) authentication;
+    final Jwt jwt = jwtAuthentication.getToken();
+    Optional.ofNullable(jwt.getExpiresAt())
+        .map(Instant::toEpochMilli)
+        .filter(expiresAt -> expiresAt > System.currentTimeMillis()
+            + expirationTimeThreshold.toMillis())
+        .ifPresent(expiresAt -> {
+          synchronized (entries) {
+            entries.put(key, new Entry(
+                jwt,
+                jwtAuthentication.getAuthorities(),
+                jwtAuthentication.getName(),
+                expiresAt));
+          }
+        });
+  }
+
+  /**
+   * Gets the number of cache hits.
+   *
+   * @return the hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of cache misses.
+   *
+   * @return the misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the hit rate.
+   *
+   * @return the hit rate (a value between 0 and 1)
+   */
+  public double getHitRate() {
+    final long hitCount = getHits();
+    final long total = hitCount + getMisses();
+    return total > 0L ? (double) hitCount / (double) total : 0.;
+  }
+
+  /**
+   * Gets the number of cached authentications.
+   *
+   * @return the size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PasswordFlowAuthenticationCache {size = " + size()
+        + ", hits = " + getHits()
+        + ", misses = " + getMisses()
+        + '}';
+  }
+
+  private static class Entry {
+
+    private final Jwt jwt;
+
+    private final Collection<GrantedAuthority> authorities;
+
+    private final String name;
+
+    private final long expiresAt;
+
+    private Entry(
+        Jwt jwt,
+        Collection<GrantedAuthority> authorities,
+        String name,
+        long expiresAt) {
+      this.jwt = jwt;
+      this.authorities = authorities;
+      this.name = name;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+}
@@ -17,6 +17,10 @@
 package org.bremersee.security.authentication;
 
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
@@ -54,6 +58,20 @@ public class PasswordFlowAuthenticationManager
 
   private final Converter<Jwt, ? extends AbstractAuthenticationToken> jwtAuthenticationConverter;
 
+  /**
+   * The optional cache of the created authentications.
+   */
+  @Getter
+  @Setter
+  @Nullable
+  private PasswordFlowAuthenticationCache authenticationCache;
+
+  /**
+   * The scope of the cache keys of this manager, so that it can share the cache with other
+   * managers.
+   */
+  private final String cacheKeyScope = UUID.randomUUID().toString();
+
   /**
    * Instantiates a new password flow authentication manager.
    *
@@ -78,15 +96,30 @@ public class PasswordFlowAuthenticationManager
 
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    final String username = authentication.getName();
+    final String password = (String) authentication.getCredentials();
+    final String cacheKey = authenticationCache != null
+        ? authenticationCache.createKey(cacheKeyScope, username, password)
+        : null;
+    if (cacheKey != null) {
+      Optional<Authentication> cached = authenticationCache.findAuthentication(cacheKey);
+      if (cached.isPresent()) {
+        return cached.get();
+      }
+    }
     final PasswordFlowProperties properties = PasswordFlowProperties.builder()
         .from(passwordFlowProperties)
-        .username(authentication.getName())
-        .password((String) authentication.getCredentials())
+        .username(username)
+        .password(password)
         .build();
     try {
-      return this.jwtAuthenticationConverter.convert(
+      final Authentication result = this.jwtAuthenticationConverter.convert(
           jwtDecoder.decode(
               accessTokenRetriever.retrieveAccessToken(properties)));
+      if (cacheKey != null) {
+        authenticationCache.putAuthentication(cacheKey, result);
+      }
+      return result;
 
     } catch (JwtException failed) {
       final OAuth2Error invalidToken = invalidToken(failed.getMessage());
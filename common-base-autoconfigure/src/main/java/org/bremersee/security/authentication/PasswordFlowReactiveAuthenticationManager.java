@@ -17,6 +17,9 @@
 package org.bremersee.security.authentication;
 
 import java.util.Objects;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpStatus;
@@ -51,6 +54,20 @@ public class PasswordFlowReactiveAuthenticationManager implements ReactiveAuthen
 
   private final AccessTokenRetriever<Mono<String>> retriever;
 
+  /**
+   * The optional cache of the created authentications.
+   */
+  @Getter
+  @Setter
+  @Nullable
+  private PasswordFlowAuthenticationCache authenticationCache;
+
+  /**
+   * The scope of the cache keys of this manager, so that it can share the cache with other
+   * managers.
+   */
+  private final String cacheKeyScope = UUID.randomUUID().toString();
+
   /**
    * Instantiates a new password flow reactive authentication manager.
    *
@@ -91,10 +108,23 @@ public class PasswordFlowReactiveAuthenticationManager implements ReactiveAuthen
   @Override
   public Mono<Authentication> authenticate(final Authentication authentication) {
 
+    final String username = authentication.getName();
+    final String password = (String) authentication.getCredentials();
+    final PasswordFlowAuthenticationCache cache = authenticationCache;
+    if (cache == null) {
+      return authenticate(username, password);
+    }
+    final String cacheKey = cache.createKey(cacheKeyScope, username, password);
+    return Mono.defer(() -> Mono.justOrEmpty(cache.findAuthentication(cacheKey)))
+        .switchIfEmpty(Mono.defer(() -> authenticate(username, password))
+            .doOnNext(result -> cache.putAuthentication(cacheKey, result)));
+  }
+
+  private Mono<Authentication> authenticate(String username, String password) {
     final PasswordFlowProperties properties = PasswordFlowProperties.builder()
         .from(passwordFlowProperties)
-        .username(authentication.getName())
-        .password((String) authentication.getCredentials())
+        .username(username)
+        .password(password)
         .build();
     return retriever.retrieveAccessToken(properties)
         .flatMap(jwtDecoder::decode)
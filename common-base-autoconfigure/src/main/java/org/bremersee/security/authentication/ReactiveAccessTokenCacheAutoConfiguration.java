@@ -169,6 +169,14 @@ public class ReactiveAccessTokenCacheAutoConfiguration {
 
       ReactiveRedisConnectionFactory connectionFactory = connectionFactoryProvider.getIfAvailable();
       Assert.notNull(connectionFactory, "Redis connection factory must not be null.");
+      if (authProperties.getJwtCache().isNearCache()) {
+        log.info("Creating {} with {} ...",
+            ReactiveRedisNearAccessTokenCache.class.getSimpleName(),
+            ClassUtils.getUserClass(connectionFactory).getSimpleName());
+        return new ReactiveRedisNearAccessTokenCache(
+            authProperties.getJwtCache(),
+            connectionFactory);
+      }
       log.info("Creating {} with {} ...", RedisAccessTokenCache.class.getSimpleName(),
           ClassUtils.getUserClass(connectionFactory).getSimpleName());
       return new ReactiveRedisAccessTokenCache(authProperties.getJwtCache(), connectionFactory);
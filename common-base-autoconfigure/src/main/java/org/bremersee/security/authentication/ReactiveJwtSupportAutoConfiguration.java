@@ -105,9 +105,45 @@ public class ReactiveJwtSupportAutoConfiguration {
         properties.getPreferredTimeZoneJsonPath());
   }
 
+  /**
+   * Creates the cache of the authentications, that are converted from a jwt.
+   *
+   * @return the jwt authentication token cache
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.auth.jwt-authentication-cache",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public JwtAuthenticationTokenCache jwtAuthenticationTokenCache() {
+    log.info("Creating application {} ...", JwtAuthenticationTokenCache.class.getSimpleName());
+    return new JwtAuthenticationTokenCache(properties.getJwtAuthenticationCache().getMaxSize());
+  }
+
+  /**
+   * Creates the cache of the authentications of the password flow authentication manager.
+   *
+   * @return the password flow authentication cache
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.auth.password-flow-cache",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public PasswordFlowAuthenticationCache passwordFlowAuthenticationCache() {
+    log.info("Creating application {} ...",
+        PasswordFlowAuthenticationCache.class.getSimpleName());
+    return new PasswordFlowAuthenticationCache(
+        properties.getPasswordFlowCache().getMaxSize(),
+        properties.getJwtCache().getExpirationTimeThreshold());
+  }
+
   /**
    * Creates a json path reactive jwt converter bean.
    *
+   * @param authenticationCache the cache of the converted authentications
    * @return the json path reactive jwt converter
    */
   @ConditionalOnProperty(
@@ -116,7 +152,8 @@ public class ReactiveJwtSupportAutoConfiguration {
   @ConditionalOnMissingBean
   @Bean
   @SuppressWarnings("DuplicatedCode")
-  public JsonPathReactiveJwtConverter jsonPathReactiveJwtConverter() {
+  public JsonPathReactiveJwtConverter jsonPathReactiveJwtConverter(
+      ObjectProvider<JwtAuthenticationTokenCache> authenticationCache) {
 
     log.info("Creating application {} ...", JsonPathReactiveJwtConverter.class.getSimpleName());
     JsonPathJwtConverter converter = new JsonPathJwtConverter();
@@ -125,6 +162,7 @@ public class ReactiveJwtSupportAutoConfiguration {
     converter.setRolesJsonPath(properties.getRolesJsonPath());
     converter.setRolesValueList(properties.isRolesValueList());
     converter.setRolesValueSeparator(properties.getRolesValueSeparator());
+    converter.setAuthenticationCache(authenticationCache.getIfAvailable());
     return new JsonPathReactiveJwtConverter(converter);
   }
 
@@ -132,20 +170,23 @@ public class ReactiveJwtSupportAutoConfiguration {
    * Creates access token retriever.
    *
    * @param accessTokenCache the access token cache
+   * @param refreshAhead the refresh ahead of cached access tokens
    * @return the web client access token retriever
    */
   @Conditional(JwtSupportCondition.class)
   @ConditionalOnMissingBean
   @Bean
   public WebClientAccessTokenRetriever webClientAccessTokenRetriever(
-      ObjectProvider<ReactiveAccessTokenCache> accessTokenCache) {
+      ObjectProvider<ReactiveAccessTokenCache> accessTokenCache,
+      ObjectProvider<AccessTokenRefreshAhead> refreshAhead) {
 
     ReactiveAccessTokenCache cache = accessTokenCache.getIfAvailable();
     log.info("Creating common {} with cache {} ...",
         WebClientAccessTokenRetriever.class.getSimpleName(), cache);
     return new WebClientAccessTokenRetriever(
         WebClient.builder().build(),
-        cache);
+        cache,
+        refreshAhead.getIfAvailable());
   }
 
   /**
@@ -154,6 +195,7 @@ public class ReactiveJwtSupportAutoConfiguration {
    * @param jwtDecoder the jwt decoder
    * @param jwtConverter the jwt converter
    * @param tokenRetriever the token retriever
+   * @param authenticationCache the cache of the authentications
    * @return the password flow reactive authentication manager
    */
   @ConditionalOnProperty(
@@ -168,15 +210,19 @@ public class ReactiveJwtSupportAutoConfiguration {
   public PasswordFlowReactiveAuthenticationManager passwordFlowReactiveAuthenticationManager(
       ObjectProvider<ReactiveJwtDecoder> jwtDecoder,
       JsonPathReactiveJwtConverter jwtConverter,
-      WebClientAccessTokenRetriever tokenRetriever) {
+      WebClientAccessTokenRetriever tokenRetriever,
+      ObjectProvider<PasswordFlowAuthenticationCache> authenticationCache) {
 
     Assert.notNull(jwtDecoder.getIfAvailable(), "Jwt decoder must be present.");
     log.info("Creating {} ...", PasswordFlowReactiveAuthenticationManager.class.getSimpleName());
-    return new PasswordFlowReactiveAuthenticationManager(
+    PasswordFlowReactiveAuthenticationManager manager
+        = new PasswordFlowReactiveAuthenticationManager(
         properties.getPasswordFlow(),
         jwtDecoder.getIfAvailable(),
         jwtConverter,
         tokenRetriever);
+    manager.setAuthenticationCache(authenticationCache.getIfAvailable());
+    return manager;
   }
 
 }
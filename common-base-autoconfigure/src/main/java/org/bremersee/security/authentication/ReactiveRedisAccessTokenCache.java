@@ -17,7 +17,13 @@
 package org.bremersee.security.authentication;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import javax.validation.constraints.NotNull;
 import lombok.Setter;
@@ -26,10 +32,15 @@ import org.bremersee.security.authentication.AuthProperties.JwtCache;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
- * The reactive redis access token cache.
+ * The reactive redis access token cache. Access tokens are written with one {@code SET key value
+ * PX ttl} command, so they never exist in redis without a time to live. The time to live ends at
+ * the expiration time of the token minus the expiration time threshold.
  *
  * @author Christian Bremer
  */
@@ -60,9 +71,34 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
     this.redis = new ReactiveStringRedisTemplate(connectionFactory);
   }
 
+  private Optional<Duration> findTimeToLive(String accessToken) {
+    try {
+      return Optional.ofNullable(findExpirationTimeFn.apply(accessToken))
+          .flatMap(expirationTime -> findTimeToLive(expirationTime.getTime()));
+
+    } catch (RuntimeException e) {
+      log.debug("Getting expiration time of access token failed: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private Optional<Duration> findTimeToLive(AccessTokenCacheEntry entry) {
+    return entry.hasExpirationTime()
+        ? findTimeToLive(entry.getExpiresAt())
+        : findTimeToLive(entry.getAccessToken());
+  }
+
+  private Optional<Duration> findTimeToLive(long expiresAt) {
+    return Optional.of(expiresAt
+        - jwtCacheProperties.getExpirationTimeThreshold().toMillis()
+        - System.currentTimeMillis())
+        .filter(millis -> millis > 0L)
+        .map(Duration::ofMillis);
+  }
+
   @Override
   public Mono<String> findAccessToken(String key) {
-    return redis.opsForValue().get(key)
+    return redis.opsForValue().get(jwtCacheProperties.addKeyPrefix(key))
         .onErrorResume(
             throwable -> throwable instanceof RuntimeException,
             throwable -> {
@@ -71,17 +107,75 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
             });
   }
 
+  /**
+   * Find not expired access token together with its expiration time. {@code GET} and {@code
+   * PTTL} are sent without waiting for each other and the expiration time is calculated from the
+   * remaining time to live, so the access token is not parsed and may be opaque.
+   *
+   * @param key the key
+   * @return the access token with its expiration time
+   */
+  protected Mono<AccessTokenCacheEntry> findAccessTokenEntry(String key) {
+    String dbKey = jwtCacheProperties.addKeyPrefix(key);
+    return Mono.zip(redis.opsForValue().get(dbKey), redis.getExpire(dbKey))
+        .map(tuple -> createEntry(tuple.getT1(), tuple.getT2()))
+        .onErrorResume(
+            throwable -> throwable instanceof RuntimeException,
+            throwable -> {
+              log.error("Getting access token from redis cache failed.", throwable);
+              return Mono.empty();
+            });
+  }
+
+  /**
+   * Find not expired access tokens together with their expiration times. The commands are sent
+   * without waiting for the previous replies, so the connection pipelines them.
+   *
+   * @param keys the keys
+   * @return the found access tokens with their expiration times by key
+   */
+  protected Mono<Map<String, AccessTokenCacheEntry>> findAccessTokenEntries(
+      Collection<String> keys) {
+    if (keys == null || keys.isEmpty()) {
+      return Mono.just(new LinkedHashMap<>());
+    }
+    return Flux.fromIterable(keys)
+        .flatMapSequential(key -> findAccessTokenEntry(key)
+            .map(entry -> Tuples.of(key, entry)))
+        .collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new);
+  }
+
+  private AccessTokenCacheEntry createEntry(String accessToken, Duration timeToLive) {
+    if (timeToLive.isZero() || timeToLive.isNegative()) {
+      return new AccessTokenCacheEntry(accessToken, AccessTokenCacheEntry.NO_EXPIRATION_TIME);
+    }
+    // The time to live in redis ends at the expiration time minus the threshold.
+    return new AccessTokenCacheEntry(accessToken, System.currentTimeMillis()
+        + timeToLive.toMillis() + jwtCacheProperties.getExpirationTimeThreshold().toMillis());
+  }
+
   @Override
   public Mono<String> putAccessToken(String key, String accessToken) {
-    Duration duration = jwtCacheProperties.getExpirationTimeThreshold();
-    long millis = System.currentTimeMillis() + duration.toMillis();
+    return putAccessToken(key, accessToken, findTimeToLive(accessToken).orElse(null));
+  }
+
+  /**
+   * Put new access token into the cache. The time to live is calculated from the expiration time
+   * of the entry, so the access token is not parsed.
+   *
+   * @param key the key
+   * @param entry the access token with its expiration time
+   * @return the access token
+   */
+  @Override
+  public Mono<String> putAccessToken(String key, AccessTokenCacheEntry entry) {
+    return putAccessToken(key, entry.getAccessToken(), findTimeToLive(entry).orElse(null));
+  }
+
+  private Mono<String> putAccessToken(String key, String accessToken, Duration timeToLive) {
     String dbKey = jwtCacheProperties.addKeyPrefix(key);
-    return Mono.justOrEmpty(findExpirationTimeFn.apply(accessToken))
-        .filter(expirationTime -> expirationTime.getTime() > millis)
-        .flatMap(expirationTime -> redis.opsForValue().set(dbKey, accessToken)
-            .flatMap(success -> success
-                ? redis.expireAt(dbKey, expirationTime.toInstant().minus(duration))
-                : Mono.just(false)))
+    return Mono.justOrEmpty(timeToLive)
+        .flatMap(ttl -> redis.opsForValue().set(dbKey, accessToken, ttl))
         .map(result -> accessToken)
         .onErrorResume(
             throwable -> throwable instanceof RuntimeException,
@@ -92,4 +186,74 @@ public class ReactiveRedisAccessTokenCache implements ReactiveAccessTokenCache {
         .defaultIfEmpty(accessToken);
   }
 
+  /**
+   * Find not expired access tokens with one {@code MGET} command.
+   *
+   * @param keys the keys
+   * @return the found access tokens by key
+   */
+  @Override
+  public Mono<Map<String, String>> findAccessTokens(Collection<String> keys) {
+    if (keys == null || keys.isEmpty()) {
+      return Mono.just(new LinkedHashMap<>());
+    }
+    List<String> keyList = new ArrayList<>(keys);
+    List<String> dbKeys = new ArrayList<>(keyList.size());
+    keyList.forEach(key -> dbKeys.add(jwtCacheProperties.addKeyPrefix(key)));
+    return redis.opsForValue().multiGet(dbKeys)
+        .map(values -> {
+          Map<String, String> accessTokens = new LinkedHashMap<>();
+          for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+            if (values.get(i) != null) {
+              accessTokens.put(keyList.get(i), values.get(i));
+            }
+          }
+          return accessTokens;
+        })
+        .onErrorResume(
+            throwable -> throwable instanceof RuntimeException,
+            throwable -> {
+              log.error("Getting access tokens from redis cache failed.", throwable);
+              return Mono.just(new LinkedHashMap<String, String>());
+            });
+  }
+
+  /**
+   * Put new access tokens into the cache. The {@code SET} commands are sent without waiting for
+   * the previous replies, so the connection pipelines them. A failing command doesn't stop the
+   * others; the keys of the failed commands are logged.
+   *
+   * @param accessTokens the access tokens by key
+   * @return the access tokens by key
+   */
+  @Override
+  public Mono<Map<String, String>> putAccessTokens(Map<String, String> accessTokens) {
+    if (accessTokens == null || accessTokens.isEmpty()) {
+      return Mono.just(new LinkedHashMap<>());
+    }
+    return Flux.fromIterable(accessTokens.entrySet())
+        .flatMap(entry -> Mono.justOrEmpty(findTimeToLive(entry.getValue()))
+            .flatMap(timeToLive -> redis.opsForValue().set(
+                jwtCacheProperties.addKeyPrefix(entry.getKey()),
+                entry.getValue(),
+                timeToLive))
+            .filter(Boolean.FALSE::equals)
+            .onErrorResume(
+                throwable -> throwable instanceof RuntimeException,
+                throwable -> {
+                  log.debug("Putting access token into redis cache failed (key = {}).",
+                      entry.getKey(), throwable);
+                  return Mono.just(Boolean.FALSE);
+                })
+            .map(result -> entry.getKey()))
+        .collectList()
+        .doOnNext(failedKeys -> {
+          if (!failedKeys.isEmpty()) {
+            log.error("Putting {} of {} access tokens into redis cache failed (keys = {}).",
+                failedKeys.size(), accessTokens.size(), failedKeys);
+          }
+        })
+        .thenReturn(accessTokens);
+  }
+
 }
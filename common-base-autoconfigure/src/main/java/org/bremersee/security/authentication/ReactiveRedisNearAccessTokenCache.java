@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.authentication.AuthProperties.JwtCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription.Message;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The reactive redis access token cache with a bounded in memory tier (near cache). Access tokens
+ * are looked up in memory first and in redis only on a miss. Every put is published on a redis
+ * channel, so that the other nodes evict their local copy.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class ReactiveRedisNearAccessTokenCache extends ReactiveRedisAccessTokenCache
+    implements InitializingBean, DisposableBean {
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final String channel;
+
+  private final LocalAccessTokenCacheTier localTier;
+
+  private final ReactiveStringRedisTemplate redis;
+
+  private Disposable subscription;
+
+  /**
+   * Instantiates a new reactive redis access token cache with a near cache.
+   *
+   * @param jwtCacheProperties the jwt cache properties
+   * @param connectionFactory the connection factory
+   */
+  public ReactiveRedisNearAccessTokenCache(
+      JwtCache jwtCacheProperties,
+      ReactiveRedisConnectionFactory connectionFactory) {
+    super(jwtCacheProperties, connectionFactory);
+    this.channel = jwtCacheProperties.getNearCacheInvalidationChannel();
+    this.localTier = new LocalAccessTokenCacheTier(
+        jwtCacheProperties.getNearCacheMaxSize(),
+        jwtCacheProperties.getExpirationTimeThreshold());
+    this.redis = new ReactiveStringRedisTemplate(connectionFactory);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    subscription = redis.listenTo(new ChannelTopic(channel))
+        .map(Message::getMessage)
+        .subscribe(
+            this::onInvalidation,
+            throwable -> log.error("Listening to near cache invalidations failed.", throwable));
+  }
+
+  @Override
+  public void destroy() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+
+  private void onInvalidation(String message) {
+    int index = message.indexOf(' ');
+    if (index > 0 && !nodeId.equals(message.substring(0, index))) {
+      String key = message.substring(index + 1);
+      log.trace("Evicting access token from near cache (key = {}).", key);
+      localTier.evict(key);
+    }
+  }
+
+  @Override
+  public Mono<String> findAccessToken(String key) {
+    return Mono.defer(() -> Mono.justOrEmpty(localTier.findAccessToken(key)))
+        .switchIfEmpty(findAccessTokenEntry(key)
+            .doOnNext(entry -> localTier.putAccessToken(key, entry))
+            .map(AccessTokenCacheEntry::getAccessToken));
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, String accessToken) {
+    return super.putAccessToken(key, accessToken)
+        .doOnNext(token -> localTier.putAccessToken(key, token))
+        .flatMap(token -> publishInvalidation(key).thenReturn(token));
+  }
+
+  @Override
+  public Mono<String> putAccessToken(String key, AccessTokenCacheEntry entry) {
+    return super.putAccessToken(key, entry)
+        .doOnNext(token -> localTier.putAccessToken(key, entry))
+        .flatMap(token -> publishInvalidation(key).thenReturn(token));
+  }
+
+  @Override
+  public Mono<Map<String, String>> findAccessTokens(Collection<String> keys) {
+    return Mono.defer(() -> {
+      Map<String, String> accessTokens = new LinkedHashMap<>();
+      List<String> missingKeys = new ArrayList<>();
+      keys.forEach(key -> localTier.findAccessToken(key).ifPresentOrElse(
+          accessToken -> accessTokens.put(key, accessToken),
+          () -> missingKeys.add(key)));
+      if (missingKeys.isEmpty()) {
+        return Mono.just(accessTokens);
+      }
+      return findAccessTokenEntries(missingKeys)
+          .map(found -> {
+            found.forEach((key, entry) -> {
+              localTier.putAccessToken(key, entry);
+              accessTokens.put(key, entry.getAccessToken());
+            });
+            return accessTokens;
+          });
+    });
+  }
+
+  @Override
+  public Mono<Map<String, String>> putAccessTokens(Map<String, String> accessTokens) {
+    return super.putAccessTokens(accessTokens)
+        .flatMap(result -> Flux.fromIterable(result.entrySet())
+            .doOnNext(entry -> localTier.putAccessToken(entry.getKey(), entry.getValue()))
+            .flatMap(entry -> publishInvalidation(entry.getKey()))
+            .then(Mono.just(result)));
+  }
+
+  private Mono<Long> publishInvalidation(String key) {
+    return redis.convertAndSend(channel, nodeId + ' ' + key)
+        .onErrorResume(
+            throwable -> throwable instanceof RuntimeException,
+            throwable -> {
+              log.error("Publishing near cache invalidation failed.", throwable);
+              return Mono.just(0L);
+            });
+  }
+
+}
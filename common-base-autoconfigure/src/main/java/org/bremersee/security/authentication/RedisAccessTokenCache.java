@@ -17,7 +17,13 @@
 package org.bremersee.security.authentication;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import javax.validation.constraints.NotNull;
@@ -25,11 +31,17 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.bremersee.security.authentication.AuthProperties.JwtCache;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.util.Assert;
 
 /**
- * The redis access token cache.
+ * The redis access token cache. Access tokens are written with one {@code SET key value PX ttl}
+ * command, so they never exist in redis without a time to live. The time to live ends at the
+ * expiration time of the token minus the expiration time threshold.
  *
  * @author Christian Bremer
  */
@@ -59,6 +71,31 @@ public class RedisAccessTokenCache implements AccessTokenCache {
     this.redis = new StringRedisTemplate(connectionFactory);
   }
 
+  private Optional<Duration> findTimeToLive(String accessToken) {
+    try {
+      return Optional.ofNullable(findExpirationTimeFn.apply(accessToken))
+          .flatMap(expirationTime -> findTimeToLive(expirationTime.getTime()));
+
+    } catch (RuntimeException e) {
+      log.debug("Getting expiration time of access token failed: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private Optional<Duration> findTimeToLive(AccessTokenCacheEntry entry) {
+    return entry.hasExpirationTime()
+        ? findTimeToLive(entry.getExpiresAt())
+        : findTimeToLive(entry.getAccessToken());
+  }
+
+  private Optional<Duration> findTimeToLive(long expiresAt) {
+    return Optional.of(expiresAt
+        - jwtCacheProperties.getExpirationTimeThreshold().toMillis()
+        - System.currentTimeMillis())
+        .filter(millis -> millis > 0L)
+        .map(Duration::ofMillis);
+  }
+
   @Override
   public Optional<String> findAccessToken(String key) {
     try {
@@ -70,22 +107,155 @@ public class RedisAccessTokenCache implements AccessTokenCache {
     }
   }
 
+  /**
+   * Find not expired access token together with its expiration time. {@code GET} and {@code
+   * PTTL} are sent in one pipeline and the expiration time is calculated from the remaining time
+   * to live, so the access token is not parsed and may be opaque.
+   *
+   * @param key the key
+   * @return the access token with its expiration time
+   */
+  protected Optional<AccessTokenCacheEntry> findAccessTokenEntry(String key) {
+    return Optional.ofNullable(findAccessTokenEntries(Collections.singletonList(key)).get(key));
+  }
+
+  /**
+   * Find not expired access tokens together with their expiration times. All {@code GET} and
+   * {@code PTTL} commands are sent in one pipeline and the expiration times are calculated from
+   * the remaining times to live, so the access tokens are not parsed and may be opaque.
+   *
+   * @param keys the keys
+   * @return the found access tokens with their expiration times by key
+   */
+  protected Map<String, AccessTokenCacheEntry> findAccessTokenEntries(Collection<String> keys) {
+    Map<String, AccessTokenCacheEntry> entries = new LinkedHashMap<>();
+    if (keys == null || keys.isEmpty()) {
+      return entries;
+    }
+    try {
+      List<String> keyList = new ArrayList<>(keys);
+      List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+        StringRedisConnection stringConnection = (StringRedisConnection) connection;
+        keyList.forEach(key -> {
+          String dbKey = jwtCacheProperties.addKeyPrefix(key);
+          stringConnection.get(dbKey);
+          stringConnection.pTtl(dbKey);
+        });
+        return null;
+      });
+      for (int i = 0; i < keyList.size() && 2 * i + 1 < results.size(); i++) {
+        Object accessToken = results.get(2 * i);
+        Object timeToLive = results.get(2 * i + 1);
+        if (accessToken instanceof String && timeToLive instanceof Long) {
+          entries.put(keyList.get(i), createEntry((String) accessToken, (Long) timeToLive));
+        }
+      }
+
+    } catch (RuntimeException e) {
+      log.error("Getting access tokens from redis cache failed.", e);
+    }
+    return entries;
+  }
+
+  private AccessTokenCacheEntry createEntry(String accessToken, long timeToLive) {
+    if (timeToLive <= 0L) {
+      return new AccessTokenCacheEntry(accessToken, AccessTokenCacheEntry.NO_EXPIRATION_TIME);
+    }
+    // The time to live in redis ends at the expiration time minus the threshold.
+    return new AccessTokenCacheEntry(accessToken, System.currentTimeMillis() + timeToLive
+        + jwtCacheProperties.getExpirationTimeThreshold().toMillis());
+  }
+
   @Override
   public void putAccessToken(String key, String accessToken) {
+    putAccessToken(key, accessToken, findTimeToLive(accessToken).orElse(null));
+  }
+
+  /**
+   * Put new access token into the cache. The time to live is calculated from the expiration time
+   * of the entry, so the access token is not parsed.
+   *
+   * @param key the key
+   * @param entry the access token with its expiration time
+   */
+  @Override
+  public void putAccessToken(String key, AccessTokenCacheEntry entry) {
+    putAccessToken(key, entry.getAccessToken(), findTimeToLive(entry).orElse(null));
+  }
+
+  private void putAccessToken(String key, String accessToken, Duration timeToLive) {
+    if (timeToLive == null) {
+      return;
+    }
     try {
-      Duration duration = jwtCacheProperties.getExpirationTimeThreshold();
-      long millis = System.currentTimeMillis() + duration.toMillis();
-      String dbKey = jwtCacheProperties.addKeyPrefix(key);
-      Optional.ofNullable(findExpirationTimeFn.apply(accessToken))
-          .filter(expirationTime -> expirationTime.getTime() > millis)
-          .ifPresent(expirationTime -> {
-            redis.opsForValue().set(dbKey, accessToken);
-            redis.expireAt(dbKey, expirationTime);
-          });
+      redis.opsForValue().set(jwtCacheProperties.addKeyPrefix(key), accessToken, timeToLive);
 
     } catch (RuntimeException e) {
       log.error("Putting access token into the redis cache failed.", e);
     }
   }
 
+  /**
+   * Find not expired access tokens with one {@code MGET} command.
+   *
+   * @param keys the keys
+   * @return the found access tokens by key
+   */
+  @Override
+  public Map<String, String> findAccessTokens(Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    if (keys == null || keys.isEmpty()) {
+      return accessTokens;
+    }
+    try {
+      List<String> keyList = new ArrayList<>(keys);
+      List<String> dbKeys = new ArrayList<>(keyList.size());
+      keyList.forEach(key -> dbKeys.add(jwtCacheProperties.addKeyPrefix(key)));
+      List<String> values = redis.opsForValue().multiGet(dbKeys);
+      if (values != null) {
+        for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+          if (values.get(i) != null) {
+            accessTokens.put(keyList.get(i), values.get(i));
+          }
+        }
+      }
+
+    } catch (RuntimeException e) {
+      log.error("Getting access tokens from redis cache failed.", e);
+    }
+    return accessTokens;
+  }
+
+  /**
+   * Put new access tokens into the cache. All {@code SET} commands are sent in one pipeline.
+   *
+   * @param accessTokens the access tokens by key
+   */
+  @Override
+  public void putAccessTokens(Map<String, String> accessTokens) {
+    if (accessTokens == null || accessTokens.isEmpty()) {
+      return;
+    }
+    try {
+      Map<String, Duration> timeToLives = new LinkedHashMap<>();
+      accessTokens.forEach((key, accessToken) -> findTimeToLive(accessToken)
+          .ifPresent(timeToLive -> timeToLives.put(key, timeToLive)));
+      if (timeToLives.isEmpty()) {
+        return;
+      }
+      redis.executePipelined((RedisCallback<Object>) connection -> {
+        StringRedisConnection stringConnection = (StringRedisConnection) connection;
+        timeToLives.forEach((key, timeToLive) -> stringConnection.set(
+            jwtCacheProperties.addKeyPrefix(key),
+            accessTokens.get(key),
+            Expiration.milliseconds(timeToLive.toMillis()),
+            SetOption.upsert()));
+        return null;
+      });
+
+    } catch (RuntimeException e) {
+      log.error("Putting access tokens into the redis cache failed.", e);
+    }
+  }
+
 }
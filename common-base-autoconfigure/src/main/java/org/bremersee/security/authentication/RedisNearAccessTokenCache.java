@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.authentication.AuthProperties.JwtCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * The redis access token cache with a bounded in memory tier (near cache). Access tokens are
+ * looked up in memory first and in redis only on a miss. Every put is published on a redis
+ * channel, so that the other nodes evict their local copy.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class RedisNearAccessTokenCache extends RedisAccessTokenCache
+    implements InitializingBean, DisposableBean {
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final String channel;
+
+  private final LocalAccessTokenCacheTier localTier;
+
+  private final StringRedisTemplate redis;
+
+  private final RedisMessageListenerContainer listenerContainer;
+
+  /**
+   * Instantiates a new redis access token cache with a near cache.
+   *
+   * @param jwtCacheProperties the jwt cache properties
+   * @param connectionFactory the connection factory
+   */
+  public RedisNearAccessTokenCache(
+      JwtCache jwtCacheProperties,
+      RedisConnectionFactory connectionFactory) {
+    super(jwtCacheProperties, connectionFactory);
+    this.channel = jwtCacheProperties.getNearCacheInvalidationChannel();
+    this.localTier = new LocalAccessTokenCacheTier(
+        jwtCacheProperties.getNearCacheMaxSize(),
+        jwtCacheProperties.getExpirationTimeThreshold());
+    this.redis = new StringRedisTemplate(connectionFactory);
+    this.listenerContainer = new RedisMessageListenerContainer();
+    this.listenerContainer.setConnectionFactory(connectionFactory);
+    this.listenerContainer.addMessageListener(
+        (message, pattern) -> onInvalidation(
+            new String(message.getBody(), StandardCharsets.UTF_8)),
+        new ChannelTopic(channel));
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    listenerContainer.afterPropertiesSet();
+    listenerContainer.start();
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    listenerContainer.destroy();
+  }
+
+  private void onInvalidation(String message) {
+    int index = message.indexOf(' ');
+    if (index > 0 && !nodeId.equals(message.substring(0, index))) {
+      String key = message.substring(index + 1);
+      log.trace("Evicting access token from near cache (key = {}).", key);
+      localTier.evict(key);
+    }
+  }
+
+  @Override
+  public Optional<String> findAccessToken(String key) {
+    Optional<String> accessToken = localTier.findAccessToken(key);
+    if (accessToken.isPresent()) {
+      return accessToken;
+    }
+    return findAccessTokenEntry(key)
+        .map(entry -> {
+          localTier.putAccessToken(key, entry);
+          return entry.getAccessToken();
+        });
+  }
+
+  @Override
+  public void putAccessToken(String key, String accessToken) {
+    super.putAccessToken(key, accessToken);
+    localTier.putAccessToken(key, accessToken);
+    publishInvalidation(key);
+  }
+
+  @Override
+  public void putAccessToken(String key, AccessTokenCacheEntry entry) {
+    super.putAccessToken(key, entry);
+    localTier.putAccessToken(key, entry);
+    publishInvalidation(key);
+  }
+
+  @Override
+  public Map<String, String> findAccessTokens(Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    List<String> missingKeys = new ArrayList<>();
+    keys.forEach(key -> localTier.findAccessToken(key).ifPresentOrElse(
+        accessToken -> accessTokens.put(key, accessToken),
+        () -> missingKeys.add(key)));
+    if (!missingKeys.isEmpty()) {
+      findAccessTokenEntries(missingKeys).forEach((key, entry) -> {
+        localTier.putAccessToken(key, entry);
+        accessTokens.put(key, entry.getAccessToken());
+      });
+    }
+    return accessTokens;
+  }
+
+  @Override
+  public void putAccessTokens(Map<String, String> accessTokens) {
+    super.putAccessTokens(accessTokens);
+    accessTokens.forEach((key, accessToken) -> {
+      localTier.putAccessToken(key, accessToken);
+      publishInvalidation(key);
+    });
+  }
+
+  private void publishInvalidation(String key) {
+    try {
+      redis.convertAndSend(channel, nodeId + ' ' + key);
+
+    } catch (RuntimeException e) {
+      log.error("Publishing near cache invalidation failed.", e);
+    }
+  }
+
+}
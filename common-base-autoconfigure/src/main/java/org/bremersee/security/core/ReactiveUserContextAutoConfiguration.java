@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The reactive user context auto configuration.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnClass(name = "org.bremersee.security.core.ReactiveUserContextCaller")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Configuration
+@EnableConfigurationProperties(UserContextProperties.class)
+@Slf4j
+public class ReactiveUserContextAutoConfiguration {
+
+  private final UserContextProperties properties;
+
+  /**
+   * Instantiates a new reactive user context auto configuration.
+   *
+   * @param properties the properties
+   */
+  public ReactiveUserContextAutoConfiguration(UserContextProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Creates the web filter, that enables the user context cache of the requests.
+   *
+   * @return the reactive user context cache web filter
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.user-context",
+      name = "request-cache-enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public ReactiveUserContextCacheWebFilter reactiveUserContextCacheWebFilter() {
+    log.info("Creating {} ...", ReactiveUserContextCacheWebFilter.class.getSimpleName());
+    return new ReactiveUserContextCacheWebFilter();
+  }
+
+  /**
+   * Creates the executor of blocking group lookups.
+   *
+   * @return the blocking groups executor
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.user-context.blocking-groups",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public BlockingGroupsExecutor blockingGroupsExecutor() {
+    log.info("Creating {} with properties {} ...",
+        BlockingGroupsExecutor.class.getSimpleName(), properties.getBlockingGroups());
+    return new BlockingGroupsExecutor(
+        properties.getBlockingGroups().isVirtualThreads(),
+        properties.getBlockingGroups().getTimeout(),
+        properties.getBlockingGroups().getMaxConcurrentCalls());
+  }
+
+  /**
+   * Creates the post processor, that sets the user groups cache and the blocking groups executor
+   * into the reactive user context callers of the application context, that don't have them yet.
+   *
+   * @param userGroupsCache the user groups cache
+   * @param blockingGroupsExecutor the blocking groups executor
+   * @return the reactive user context caller post processor
+   */
+  @Bean
+  public static BeanPostProcessor reactiveUserContextCallerPostProcessor(
+      ObjectProvider<UserGroupsCache> userGroupsCache,
+      ObjectProvider<BlockingGroupsExecutor> blockingGroupsExecutor) {
+    return new ReactiveUserContextCallerPostProcessor(userGroupsCache, blockingGroupsExecutor);
+  }
+
+  /**
+   * The reactive user context caller post processor.
+   */
+  static class ReactiveUserContextCallerPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<UserGroupsCache> userGroupsCache;
+
+    private final ObjectProvider<BlockingGroupsExecutor> blockingGroupsExecutor;
+
+    /**
+     * Instantiates a new reactive user context caller post processor.
+     *
+     * @param userGroupsCache the user groups cache
+     * @param blockingGroupsExecutor the blocking groups executor
+     */
+    ReactiveUserContextCallerPostProcessor(
+        ObjectProvider<UserGroupsCache> userGroupsCache,
+        ObjectProvider<BlockingGroupsExecutor> blockingGroupsExecutor) {
+      this.userGroupsCache = userGroupsCache;
+      this.blockingGroupsExecutor = blockingGroupsExecutor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof ReactiveUserContextCaller) {
+        final ReactiveUserContextCaller caller = (ReactiveUserContextCaller) bean;
+        if (caller.getGroupsCache() == null) {
+          caller.setGroupsCache(userGroupsCache.getIfAvailable());
+        }
+        if (caller.getBlockingGroupsExecutor() == null) {
+          caller.setBlockingGroupsExecutor(blockingGroupsExecutor.getIfAvailable());
+        }
+      }
+      return bean;
+    }
+  }
+
+}
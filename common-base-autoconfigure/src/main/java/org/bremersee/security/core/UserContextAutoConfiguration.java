@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The user context auto configuration.
+ *
+ * @author Christian Bremer
+ */
+@ConditionalOnClass(name = "org.bremersee.security.core.UserGroupsCache")
+@Configuration
+@EnableConfigurationProperties(UserContextProperties.class)
+@Slf4j
+public class UserContextAutoConfiguration {
+
+  private final UserContextProperties properties;
+
+  /**
+   * Instantiates a new user context auto configuration.
+   *
+   * @param properties the properties
+   */
+  public UserContextAutoConfiguration(UserContextProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Init.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    log.info("\n"
+            + "*********************************************************************************\n"
+            + "* {}\n"
+            + "*********************************************************************************\n"
+            + "* properties = {}\n"
+            + "*********************************************************************************",
+        ClassUtils.getUserClass(getClass()).getSimpleName(),
+        properties);
+  }
+
+  /**
+   * Creates the cache of the groups of the users.
+   *
+   * @return the user groups cache
+   */
+  @ConditionalOnProperty(
+      prefix = "bremersee.user-context.groups-cache",
+      name = "enabled",
+      havingValue = "true")
+  @ConditionalOnMissingBean
+  @Bean
+  public UserGroupsCache userGroupsCache() {
+    log.info("Creating {} ...", UserGroupsCache.class.getSimpleName());
+    return new UserGroupsCache(
+        properties.getGroupsCache().getTimeToLive(),
+        properties.getGroupsCache().getMaxSize());
+  }
+
+  /**
+   * Creates the post processor, that sets the user groups cache into the user context callers of
+   * the application context, that don't have one yet.
+   *
+   * @param userGroupsCache the user groups cache
+   * @return the user context caller post processor
+   */
+  @Bean
+  public static BeanPostProcessor userContextCallerPostProcessor(
+      ObjectProvider<UserGroupsCache> userGroupsCache) {
+    return new UserContextCallerPostProcessor(userGroupsCache);
+  }
+
+  /**
+   * The user context caller post processor.
+   */
+  static class UserContextCallerPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<UserGroupsCache> userGroupsCache;
+
+    /**
+     * Instantiates a new user context caller post processor.
+     *
+     * @param userGroupsCache the user groups cache
+     */
+    UserContextCallerPostProcessor(ObjectProvider<UserGroupsCache> userGroupsCache) {
+      this.userGroupsCache = userGroupsCache;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof UserContextCaller) {
+        final UserContextCaller caller = (UserContextCaller) bean;
+        if (caller.getGroupsCache() == null) {
+          caller.setGroupsCache(userGroupsCache.getIfAvailable());
+        }
+      }
+      return bean;
+    }
+  }
+
+}
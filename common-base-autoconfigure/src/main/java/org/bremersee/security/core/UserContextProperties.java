@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.time.Duration;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * The user context properties.
+ *
+ * @author Christian Bremer
+ */
+@ConfigurationProperties(prefix = "bremersee.user-context")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@Validated
+public class UserContextProperties {
+
+  /**
+   * Specifies whether the user context of a reactive request is created only once (servlet
+   * requests always store the user context in the request attributes).
+   */
+  private boolean requestCacheEnabled = false;
+
+  private GroupsCache groupsCache = new GroupsCache();
+
+  private BlockingGroups blockingGroups = new BlockingGroups();
+
+  /**
+   * The properties of the cache of the groups of the users.
+   */
+  @Getter
+  @Setter
+  @ToString
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @Validated
+  public static class GroupsCache {
+
+    /**
+     * Specifies whether the groups of the users are cached across requests.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The time to live of the cached groups.
+     */
+    private Duration timeToLive = UserGroupsCache.DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * The maximum number of cached users.
+     */
+    private int maxSize = UserGroupsCache.DEFAULT_MAX_SIZE;
+  }
+
+  /**
+   * The properties of the executor of blocking group lookups of reactive applications.
+   */
+  @Getter
+  @Setter
+  @ToString
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @Validated
+  public static class BlockingGroups {
+
+    /**
+     * Specifies whether an executor of blocking group lookups is created.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Specifies whether the lookups run on virtual threads, if the jdk has them.
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * The timeout of a lookup.
+     */
+    private Duration timeout = Duration.ofSeconds(10L);
+
+    /**
+     * The maximum number of concurrent lookups.
+     */
+    private int maxConcurrentCalls = 50;
+  }
+
+}
@@ -20,13 +20,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.bremersee.exception.RestApiExceptionMapperProperties.ExceptionMapping;
 import org.bremersee.exception.RestApiExceptionMapperProperties.ExceptionMappingConfig;
+import org.bremersee.exception.annotation.ErrorCode;
 import org.bremersee.exception.model.RestApiException;
 import org.bremersee.web.reactive.function.client.WebClientException;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,6 +40,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
  * The rest api exception mapper impl test.
@@ -195,4 +200,108 @@ class RestApiExceptionMapperImplTest {
     assertEquals(cause, model.getCause());
   }
 
+  /**
+   * Find exception mapping.
+   */
+  @Test
+  void findExceptionMapping() {
+    final RestApiExceptionMapperProperties properties = new RestApiExceptionMapperProperties();
+    properties.getExceptionMappings().add(new ExceptionMapping(
+        "java.lang.*",
+        HttpStatus.SERVICE_UNAVAILABLE,
+        "LANG"));
+    properties.getExceptionMappingConfigs().add(new ExceptionMappingConfig(
+        NullPointerException.class.getName(),
+        false,
+        true,
+        true,
+        true,
+        true,
+        true,
+        true));
+    final RestApiExceptionMapperImpl mapperImpl = new RestApiExceptionMapperImpl(
+        properties, "test");
+
+    final List<Throwable> exceptions = new ArrayList<>();
+    exceptions.add(new IllegalArgumentException());
+    exceptions.add(new NumberFormatException());
+    exceptions.add(new IllegalStateException());
+    exceptions.add(new IllegalStateException(new IllegalArgumentException()));
+    exceptions.add(new ServiceException(400, "TEST:4711", "Bad request"));
+    exceptions.add(new ServiceException(
+        500, "TEST:4711", "Something failed.", new NullPointerException()));
+    for (int i = 0; i < 2; i++) {
+      for (Throwable exception : exceptions) {
+        assertSame(
+            properties.findExceptionMapping(exception),
+            mapperImpl.findExceptionMapping(exception));
+        assertSame(
+            properties.findExceptionMappingConfig(exception),
+            mapperImpl.findExceptionMappingConfig(exception));
+      }
+    }
+
+    final ExceptionMapping mapping = new ExceptionMapping(
+        IllegalStateException.class.getName(),
+        HttpStatus.CONFLICT,
+        "STATE");
+    properties.setExceptionMappings(Collections.singletonList(mapping));
+    assertSame(mapping, mapperImpl.findExceptionMapping(new IllegalStateException()));
+    assertSame(
+        properties.getDefaultExceptionMapping(),
+        mapperImpl.findExceptionMapping(new IllegalArgumentException()));
+  }
+
+  /**
+   * Find exception mapping after modifying the exception mappings in place.
+   */
+  @Test
+  void findExceptionMappingAfterModifyingMappings() {
+    final RestApiExceptionMapperProperties properties = new RestApiExceptionMapperProperties();
+    final RestApiExceptionMapperImpl mapperImpl = new RestApiExceptionMapperImpl(
+        properties, "test");
+    assertSame(
+        properties.getDefaultExceptionMapping(),
+        mapperImpl.findExceptionMapping(new IllegalStateException()));
+
+    final ExceptionMapping mapping = new ExceptionMapping(
+        IllegalStateException.class.getName(),
+        HttpStatus.CONFLICT,
+        "STATE");
+    properties.getExceptionMappings().add(mapping);
+    assertSame(mapping, mapperImpl.findExceptionMapping(new IllegalStateException()));
+
+    mapping.setExceptionClassName(IllegalArgumentException.class.getName());
+    assertSame(mapping, mapperImpl.findExceptionMapping(new IllegalArgumentException()));
+    assertSame(
+        properties.getDefaultExceptionMapping(),
+        mapperImpl.findExceptionMapping(new IllegalStateException()));
+  }
+
+  /**
+   * Test build with annotated exception.
+   */
+  @Test
+  void testBuildWithAnnotatedException() {
+    for (int i = 0; i < 2; i++) {
+      final RestApiException model = mapper.build(
+          new AnnotatedException(), "/api/annotated", null);
+      assertNotNull(model);
+      assertEquals("ANNOTATED", model.getErrorCode());
+      assertEquals("I'm a teapot", model.getMessage());
+      assertEquals(
+          HttpStatus.I_AM_A_TEAPOT,
+          mapper.detectHttpStatus(new AnnotatedException(), null));
+    }
+  }
+
+  /**
+   * The annotated exception.
+   */
+  @ResponseStatus(code = HttpStatus.I_AM_A_TEAPOT, reason = "I'm a teapot")
+  @ErrorCode("ANNOTATED")
+  static class AnnotatedException extends RuntimeException {
+
+  }
+
 }
@@ -17,6 +17,9 @@
 package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,6 +28,10 @@ import java.util.function.Function;
 import org.bremersee.security.authentication.AuthProperties.EurekaAccessProperties;
 import org.bremersee.security.authentication.AuthProperties.PathMatcherProperties;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 
 /**
  * The access expression utils test.
@@ -171,4 +178,70 @@ class AccessExpressionUtilsTest {
     actual = AccessExpressionUtils.buildAccessExpression(properties, null);
     assertEquals("isAuthenticated() or hasIpAddress('127.0.0.1/32')", actual);
   }
-}
\ No newline at end of file
+
+  /**
+   * Build path matcher properties access rule.
+   */
+  @Test
+  void buildPathMatcherPropertiesAccessRule() {
+    Authentication admin = new TestingAuthenticationToken("admin", "pass", "ROLE_ADMIN");
+    admin.setAuthenticated(true);
+    Authentication user = new TestingAuthenticationToken("user", "pass", "ROLE_USER");
+    user.setAuthenticated(true);
+    Authentication anonymous = new AnonymousAuthenticationToken(
+        "key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+    PathMatcherProperties properties = new PathMatcherProperties();
+    properties.setAccessMode(AccessMode.DENY_ALL);
+    assertSame(CompiledAccessRule.DENY_ALL,
+        AccessExpressionUtils.buildAccessRule(properties, null));
+
+    properties.setAccessMode(AccessMode.PERMIT_ALL);
+    assertSame(CompiledAccessRule.PERMIT_ALL,
+        AccessExpressionUtils.buildAccessRule(properties, null));
+
+    properties.setAccessMode(AccessMode.AUTHENTICATED);
+    CompiledAccessRule rule = AccessExpressionUtils.buildAccessRule(properties, null);
+    assertEquals(AccessExpressionUtils.buildAccessExpression(properties, null),
+        rule.getExpression());
+    assertTrue(rule.isGranted(user, "10.0.0.1"));
+    assertFalse(rule.isGranted(anonymous, "10.0.0.1"));
+
+    properties.setRoles(Collections.singletonList("ADMIN"));
+    properties.setIpAddresses(Arrays.asList("192.168.1.0/24", "192.168.2.0/24"));
+    rule = AccessExpressionUtils.buildAccessRule(properties, ensureRolePrefixFunction);
+    assertEquals(
+        AccessExpressionUtils.buildAccessExpression(properties, ensureRolePrefixFunction),
+        rule.getExpression());
+    assertTrue(rule.isGranted(admin, "10.0.0.1"));
+    assertFalse(rule.isGranted(user, "10.0.0.1"));
+    assertTrue(rule.isGranted(user, "192.168.2.3"));
+    assertTrue(rule.isGranted(anonymous, "192.168.1.3"));
+    assertFalse(rule.isGranted(anonymous, "192.168.3.3"));
+  }
+
+  /**
+   * Build eureka properties access rule.
+   */
+  @Test
+  void buildEurekaPropertiesAccessRule() {
+    Authentication eureka = new TestingAuthenticationToken("eureka", "pass", "ROLE_EUREKA");
+    eureka.setAuthenticated(true);
+    Authentication user = new TestingAuthenticationToken("user", "pass", "ROLE_USER");
+    user.setAuthenticated(true);
+
+    EurekaAccessProperties properties = new EurekaAccessProperties();
+    properties.setRole("ROLE_EUREKA");
+    CompiledAccessRule rule = AccessExpressionUtils.buildAccessRule(properties, null);
+    assertTrue(rule.isGranted(eureka, null));
+    assertFalse(rule.isGranted(user, null));
+
+    properties.setRole("");
+    properties.setIpAddresses(Collections.singletonList("127.0.0.1/32"));
+    rule = AccessExpressionUtils.buildAccessRule(properties, null);
+    assertTrue(rule.isGranted(user, null));
+    assertTrue(rule.isGranted(null, "127.0.0.1"));
+    assertFalse(rule.isGranted(null, "127.0.0.2"));
+  }
+
+}
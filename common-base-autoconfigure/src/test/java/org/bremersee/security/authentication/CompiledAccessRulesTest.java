@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.FilterChain;
+import org.bremersee.security.authentication.CompiledAccessRules.RuleAttribute;
+import org.bremersee.security.authentication.CompiledAccessRules.RuleDecisionManager;
+import org.bremersee.security.authentication.CompiledAccessRules.RuleMetadataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.web.FilterInvocation;
+import org.springframework.security.web.access.intercept.FilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * The compiled access rules test.
+ *
+ * @author Christian Bremer
+ */
+class CompiledAccessRulesTest {
+
+  /**
+   * Decide.
+   */
+  @Test
+  void decide() {
+    CompiledAccessRule adminRule = CompiledAccessRule.builder()
+        .authorities(Collections.singletonList("ROLE_ADMIN"), null)
+        .ipAddresses(Collections.singletonList("10.0.0.0/8"))
+        .build();
+    Map<RequestMatcher, Collection<ConfigAttribute>> rules = new LinkedHashMap<>();
+    rules.put(new AntPathRequestMatcher("/public/**"),
+        Collections.singletonList(new RuleAttribute(CompiledAccessRule.PERMIT_ALL)));
+    rules.put(new AntPathRequestMatcher("/admin/**"),
+        Collections.singletonList(new RuleAttribute(adminRule)));
+
+    Collection<ConfigAttribute> otherAttributes = SecurityConfig.createList("other");
+    FilterInvocationSecurityMetadataSource delegateSource = mock(
+        FilterInvocationSecurityMetadataSource.class);
+    when(delegateSource.getAttributes(any())).thenReturn(otherAttributes);
+    when(delegateSource.getAllConfigAttributes()).thenReturn(otherAttributes);
+    RuleMetadataSource source = new RuleMetadataSource(rules, delegateSource);
+    assertEquals(3, source.getAllConfigAttributes().size());
+    assertTrue(source.supports(FilterInvocation.class));
+
+    AccessDecisionManager delegateManager = mock(AccessDecisionManager.class);
+    RuleDecisionManager manager = new RuleDecisionManager(delegateManager, null);
+    assertTrue(manager.supports(rules.values().iterator().next().iterator().next()));
+
+    TestingAuthenticationToken user = new TestingAuthenticationToken(
+        "user", "pass", "ROLE_USER");
+    TestingAuthenticationToken admin = new TestingAuthenticationToken(
+        "admin", "pass", "ROLE_ADMIN");
+
+    FilterInvocation publicRequest = filterInvocation("/public/info", "192.168.1.2");
+    assertDoesNotThrow(() -> manager.decide(
+        user, publicRequest, source.getAttributes(publicRequest)));
+
+    FilterInvocation adminRequest = filterInvocation("/admin/users", "192.168.1.2");
+    assertDoesNotThrow(() -> manager.decide(
+        admin, adminRequest, source.getAttributes(adminRequest)));
+    assertThrows(AccessDeniedException.class, () -> manager.decide(
+        user, adminRequest, source.getAttributes(adminRequest)));
+
+    FilterInvocation localAdminRequest = filterInvocation("/admin/users", "10.1.2.3");
+    assertDoesNotThrow(() -> manager.decide(
+        user, localAdminRequest, source.getAttributes(localAdminRequest)));
+
+    FilterInvocation otherRequest = filterInvocation("/other", "192.168.1.2");
+    Collection<ConfigAttribute> attributes = source.getAttributes(otherRequest);
+    assertEquals(otherAttributes, attributes);
+    manager.decide(user, otherRequest, attributes);
+    verify(delegateManager).decide(user, otherRequest, attributes);
+
+    assertNull(new RuleMetadataSource(rules, null).getAttributes(otherRequest));
+  }
+
+  /**
+   * Decide with role hierarchy.
+   */
+  @Test
+  void decideWithRoleHierarchy() {
+    CompiledAccessRule adminRule = CompiledAccessRule.builder()
+        .authorities(Collections.singletonList("ROLE_ADMIN"), null)
+        .build();
+    Collection<ConfigAttribute> attributes = Collections
+        .singletonList(new RuleAttribute(adminRule));
+    RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+    roleHierarchy.setHierarchy("ROLE_SUPER > ROLE_ADMIN");
+    TestingAuthenticationToken superUser = new TestingAuthenticationToken(
+        "super", "pass", "ROLE_SUPER");
+    FilterInvocation adminRequest = filterInvocation("/admin/users", "192.168.1.2");
+
+    AccessDecisionManager delegateManager = mock(AccessDecisionManager.class);
+    assertThrows(AccessDeniedException.class, () -> new RuleDecisionManager(delegateManager, null)
+        .decide(superUser, adminRequest, attributes));
+    assertDoesNotThrow(() -> new RuleDecisionManager(delegateManager, roleHierarchy)
+        .decide(superUser, adminRequest, attributes));
+  }
+
+  private static FilterInvocation filterInvocation(String path, String remoteAddress) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setServletPath(path);
+    request.setRemoteAddr(remoteAddress);
+    return new FilterInvocation(request, new MockHttpServletResponse(), mock(FilterChain.class));
+  }
+
+}
@@ -51,7 +51,11 @@ class JwtSupportAutoConfigurationTest {
    */
   @Test
   void jsonPathJwtConverter() {
-    assertNotNull(configuration.jsonPathJwtConverter());
+    @SuppressWarnings("unchecked")
+    ObjectProvider<JwtAuthenticationTokenCache> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable())
+        .thenReturn(configuration.jwtAuthenticationTokenCache());
+    assertNotNull(configuration.jsonPathJwtConverter(provider));
   }
 
   /**
@@ -62,9 +66,13 @@ class JwtSupportAutoConfigurationTest {
     @SuppressWarnings("unchecked")
     ObjectProvider<AccessTokenCache> provider = mock(ObjectProvider.class);
     when(provider.getIfAvailable()).thenReturn(null);
+    @SuppressWarnings("unchecked")
+    ObjectProvider<AccessTokenRefreshAhead> refreshAhead = mock(ObjectProvider.class);
+    when(refreshAhead.getIfAvailable()).thenReturn(null);
     assertNotNull(configuration.restTemplateAccessTokenRetriever(
         restTemplateBuilder(),
-        provider));
+        provider,
+        refreshAhead));
   }
 
   /**
@@ -72,10 +80,15 @@ class JwtSupportAutoConfigurationTest {
    */
   @Test
   void passwordFlowAuthenticationManager() {
+    @SuppressWarnings("unchecked")
+    ObjectProvider<PasswordFlowAuthenticationCache> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable())
+        .thenReturn(configuration.passwordFlowAuthenticationCache());
     assertNotNull(configuration.passwordFlowAuthenticationManager(
         jwtDecoder(),
         new JsonPathJwtConverter(),
-        new RestTemplateAccessTokenRetriever(new RestTemplate())));
+        new RestTemplateAccessTokenRetriever(new RestTemplate()),
+        provider));
   }
 
   private static ObjectProvider<RestTemplateBuilder> restTemplateBuilder() {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The local access token cache tier test.
+ *
+ * @author Christian Bremer
+ */
+class LocalAccessTokenCacheTierTest {
+
+  /**
+   * Put and find access token.
+   */
+  @Test
+  void putAndFindAccessToken() {
+    LocalAccessTokenCacheTier tier = new LocalAccessTokenCacheTier(2, Duration.ofSeconds(10L));
+    String token = createAccessToken(Duration.ofHours(1L));
+    tier.putAccessToken("a", token);
+    assertEquals(token, tier.findAccessToken("a").orElse(null));
+
+    tier.putAccessToken("expired", createAccessToken(Duration.ofSeconds(5L)));
+    assertTrue(tier.findAccessToken("expired").isEmpty());
+
+    tier.putAccessToken("invalid", UUID.randomUUID().toString());
+    assertTrue(tier.findAccessToken("invalid").isEmpty());
+
+    tier.evict("a");
+    assertTrue(tier.findAccessToken("a").isEmpty());
+  }
+
+  /**
+   * Least recently used entry is removed.
+   */
+  @Test
+  void removeEldestEntry() {
+    LocalAccessTokenCacheTier tier = new LocalAccessTokenCacheTier(2, Duration.ofSeconds(10L));
+    tier.putAccessToken("a", createAccessToken(Duration.ofHours(1L)));
+    tier.putAccessToken("b", createAccessToken(Duration.ofHours(1L)));
+    assertTrue(tier.findAccessToken("a").isPresent());
+    tier.putAccessToken("c", createAccessToken(Duration.ofHours(1L)));
+    assertEquals(2, tier.size());
+    assertTrue(tier.findAccessToken("a").isPresent());
+    assertTrue(tier.findAccessToken("b").isEmpty());
+    assertTrue(tier.findAccessToken("c").isPresent());
+  }
+
+  private static String createAccessToken(Duration expiresIn) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .subject("subject")
+        .expirationTime(new Date(System.currentTimeMillis() + expiresIn.toMillis()))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
+}
@@ -19,11 +19,15 @@ package org.bremersee.security.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -33,6 +37,7 @@ import java.util.Map;
 import java.util.UUID;
 import org.bremersee.security.authentication.AuthProperties.PasswordFlow;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
@@ -128,6 +133,79 @@ class PasswordFlowAuthenticationManagerTest {
     assertEquals(jwt.getHeaders(), actualJwt.getHeaders());
   }
 
+  /**
+   * Tests authenticate with cache.
+   */
+  @Test
+  void authenticateWithCache() {
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("test-key", "test-value");
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("sub", "an_username");
+    Jwt jwt = jwt(headers, claims);
+
+    JwtDecoder jwtDecoder = workingJwtDecoder(jwt);
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
+        properties(),
+        jwtDecoder,
+        null,
+        tokenRetriever());
+    PasswordFlowAuthenticationCache cache = new PasswordFlowAuthenticationCache(10, null);
+    manager.setAuthenticationCache(cache);
+
+    Authentication loginAuthentication = mock(Authentication.class);
+    when(loginAuthentication.getName()).thenReturn(UUID.randomUUID().toString());
+    when(loginAuthentication.getCredentials()).thenReturn("a_password");
+
+    Authentication first = manager.authenticate(loginAuthentication);
+    Authentication second = manager.authenticate(loginAuthentication);
+    assertNotSame(first, second);
+    assertEquals(first.getName(), second.getName());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+    assertTrue(second.isAuthenticated());
+    verify(jwtDecoder, times(1)).decode(anyString());
+    assertEquals(1L, cache.getHits());
+    assertEquals(1L, cache.getMisses());
+    assertEquals(1, cache.size());
+  }
+
+  /**
+   * Tests that cache hits return distinct authentications with independent details.
+   */
+  @Test
+  void authenticateWithCacheReturnsDistinctAuthentications() {
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("test-key", "test-value");
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("sub", "an_username");
+    Jwt jwt = jwt(headers, claims);
+
+    PasswordFlowAuthenticationManager manager = new PasswordFlowAuthenticationManager(
+        properties(),
+        workingJwtDecoder(jwt),
+        null,
+        tokenRetriever());
+    manager.setAuthenticationCache(new PasswordFlowAuthenticationCache(10, null));
+
+    Authentication loginAuthentication = mock(Authentication.class);
+    when(loginAuthentication.getName()).thenReturn(UUID.randomUUID().toString());
+    when(loginAuthentication.getCredentials()).thenReturn("a_password");
+
+    AbstractAuthenticationToken first = (AbstractAuthenticationToken) manager
+        .authenticate(loginAuthentication);
+    first.setDetails("first request");
+    AbstractAuthenticationToken second = (AbstractAuthenticationToken) manager
+        .authenticate(loginAuthentication);
+    second.setDetails("second request");
+    AbstractAuthenticationToken third = (AbstractAuthenticationToken) manager
+        .authenticate(loginAuthentication);
+
+    assertNotSame(second, third);
+    assertEquals("first request", first.getDetails());
+    assertEquals("second request", second.getDetails());
+    assertNull(third.getDetails());
+  }
+
   /**
    * Tests authenticate fails.
    */
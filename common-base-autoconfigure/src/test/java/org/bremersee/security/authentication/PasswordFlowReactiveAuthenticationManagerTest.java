@@ -18,10 +18,13 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -108,6 +111,49 @@ class PasswordFlowReactiveAuthenticationManagerTest {
         .verifyComplete();
   }
 
+  /**
+   * Tests authenticate with cache.
+   */
+  @Test
+  void authenticateWithCache() {
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("test-key", "test-value");
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("sub", "an_username");
+    Jwt jwt = jwt(headers, claims);
+
+    ReactiveJwtDecoder jwtDecoder = workingJwtDecoder(jwt);
+    AccessTokenRetriever<Mono<String>> retriever = retriever();
+    PasswordFlowReactiveAuthenticationManager manager
+        = new PasswordFlowReactiveAuthenticationManager(
+        properties(),
+        jwtDecoder,
+        null,
+        retriever);
+    PasswordFlowAuthenticationCache cache = new PasswordFlowAuthenticationCache(10, null);
+    manager.setAuthenticationCache(cache);
+
+    Authentication loginAuthentication = mock(Authentication.class);
+    when(loginAuthentication.getName()).thenReturn("an_username");
+    when(loginAuthentication.getCredentials()).thenReturn("a_password");
+
+    Authentication first = manager.authenticate(loginAuthentication).block();
+    assertNotNull(first);
+    StepVerifier.create(manager.authenticate(loginAuthentication))
+        .assertNext(authentication -> {
+          assertNotSame(first, authentication);
+          assertEquals(first.getName(), authentication.getName());
+          assertEquals(first.getAuthorities(), authentication.getAuthorities());
+        })
+        .verifyComplete();
+    verify(retriever, times(1)).retrieveAccessToken(any(PasswordFlowProperties.class));
+    verify(jwtDecoder, times(1)).decode(anyString());
+    assertEquals(1L, cache.getHits());
+    assertEquals(1L, cache.getMisses());
+    assertEquals(0.5, cache.getHitRate());
+    assertEquals(1, cache.size());
+  }
+
   /**
    * Tests authenticate fails.
    */
@@ -49,7 +49,11 @@ class ReactiveJwtSupportAutoConfigurationTest {
    */
   @Test
   void jsonPathReactiveJwtConverter() {
-    assertNotNull(configuration.jsonPathReactiveJwtConverter());
+    @SuppressWarnings("unchecked")
+    ObjectProvider<JwtAuthenticationTokenCache> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable())
+        .thenReturn(configuration.jwtAuthenticationTokenCache());
+    assertNotNull(configuration.jsonPathReactiveJwtConverter(provider));
   }
 
   /**
@@ -60,7 +64,10 @@ class ReactiveJwtSupportAutoConfigurationTest {
     @SuppressWarnings("unchecked")
     ObjectProvider<ReactiveAccessTokenCache> provider = mock(ObjectProvider.class);
     when(provider.getIfAvailable()).thenReturn(null);
-    assertNotNull(configuration.webClientAccessTokenRetriever(provider));
+    @SuppressWarnings("unchecked")
+    ObjectProvider<AccessTokenRefreshAhead> refreshAhead = mock(ObjectProvider.class);
+    when(refreshAhead.getIfAvailable()).thenReturn(null);
+    assertNotNull(configuration.webClientAccessTokenRetriever(provider, refreshAhead));
   }
 
   /**
@@ -68,10 +75,15 @@ class ReactiveJwtSupportAutoConfigurationTest {
    */
   @Test
   void passwordFlowReactiveAuthenticationManager() {
+    @SuppressWarnings("unchecked")
+    ObjectProvider<PasswordFlowAuthenticationCache> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable())
+        .thenReturn(configuration.passwordFlowAuthenticationCache());
     assertNotNull(configuration.passwordFlowReactiveAuthenticationManager(
         jwtDecoder(),
         new JsonPathReactiveJwtConverter(),
-        new WebClientAccessTokenRetriever()));
+        new WebClientAccessTokenRetriever(),
+        provider));
   }
 
   private static ObjectProvider<ReactiveJwtDecoder> jwtDecoder() {
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.mongodb;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import javax.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * The builder of mongo criteria, that check the permissions of an access control list. It
+ * expects the layout, that is produced by an
+ * {@link org.bremersee.security.access.AclFactory}: an owner and a map of entries, whose keys are
+ * the (lower case) permissions and whose values have a guest flag and arrays of users, roles and
+ * groups, e. g. {@code acl.owner} and {@code acl.entries.read.users}.
+ *
+ * <p>So the access control checks of the {@link org.bremersee.security.access.AccessController}
+ * are done by the database and can use indexes, instead of loading every document.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class AclCriteriaBuilder {
+
+  private final String ownerPath;
+
+  private final String entriesPath;
+
+  /**
+   * Instantiates a new acl criteria builder for an access control list at the root of the
+   * document.
+   */
+  public AclCriteriaBuilder() {
+    this(null);
+  }
+
+  /**
+   * Instantiates a new acl criteria builder.
+   *
+   * @param aclPath the path of the access control list in the document (can be {@code null}, if
+   *     the access control list is the root of the document)
+   */
+  public AclCriteriaBuilder(@Nullable String aclPath) {
+    this(path(aclPath, "owner"), path(aclPath, "entries"));
+  }
+
+  /**
+   * Instantiates a new acl criteria builder.
+   *
+   * @param ownerPath the path of the owner
+   * @param entriesPath the path of the entries map
+   */
+  public AclCriteriaBuilder(@NotNull String ownerPath, @NotNull String entriesPath) {
+    this.ownerPath = Objects.requireNonNull(ownerPath, "Owner path must be present.");
+    this.entriesPath = Objects.requireNonNull(entriesPath, "Entries path must be present.");
+  }
+
+  private static String path(@Nullable String parent, String field) {
+    return StringUtils.hasText(parent) ? parent + "." + field : field;
+  }
+
+  /**
+   * Builds the criteria, that match all documents, that the given user with the given roles and
+   * groups can access with the specified permission. If the permission is {@code null} or blank,
+   * the criteria match nothing.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   * @return the criteria
+   * @throws IllegalArgumentException if the permission contains a dot or starts with a dollar
+   *     sign, so that it is not a valid field name
+   */
+  public Criteria hasPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+    if (!StringUtils.hasText(permission)) {
+      return nothing();
+    }
+    return new Criteria()
+        .orOperator(permissionCriteria(user, roles, groups, permission, true)
+            .toArray(new Criteria[0]));
+  }
+
+  /**
+   * Builds the criteria, that match all documents, that the given user with the given roles and
+   * groups can access with at least one of the specified permissions. Permissions, that are
+   * {@code null} or blank, are ignored; if there is no other permission, the criteria match
+   * nothing.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permissions the permissions
+   * @return the criteria
+   * @throws IllegalArgumentException if a permission contains a dot or starts with a dollar
+   *     sign, so that it is not a valid field name
+   */
+  public Criteria hasAnyPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+    final Set<String> permissionSet = names(permissions);
+    if (permissionSet.isEmpty()) {
+      return nothing();
+    }
+    final List<Criteria> criteria = new ArrayList<>();
+    if (user != null) {
+      criteria.add(Criteria.where(ownerPath).is(user));
+    }
+    for (String permission : permissionSet) {
+      criteria.addAll(permissionCriteria(user, roles, groups, permission, false));
+    }
+    return new Criteria().orOperator(criteria.toArray(new Criteria[0]));
+  }
+
+  /**
+   * Builds the criteria, that match all documents, that the given user with the given roles and
+   * groups can access with all of the specified permissions. If there is no permission or if one
+   * of them is {@code null} or blank, the criteria match nothing.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permissions the permissions
+   * @return the criteria
+   * @throws IllegalArgumentException if a permission contains a dot or starts with a dollar
+   *     sign, so that it is not a valid field name
+   */
+  public Criteria hasAllPermissions(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+    if (permissions == null || permissions.isEmpty()
+        || permissions.stream().anyMatch(permission -> !StringUtils.hasText(permission))) {
+      return nothing();
+    }
+    final Criteria[] criteria = new LinkedHashSet<>(permissions).stream()
+        .map(permission -> hasPermission(user, roles, groups, permission))
+        .toArray(Criteria[]::new);
+    return criteria.length == 1 ? criteria[0] : new Criteria().andOperator(criteria);
+  }
+
+  /**
+   * Builds a query, that finds all documents, that the given user with the given roles and groups
+   * can access with the specified permission.
+   *
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   * @return the query
+   * @throws IllegalArgumentException if the permission contains a dot or starts with a dollar
+   *     sign, so that it is not a valid field name
+   */
+  public Query query(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+    return Query.query(hasPermission(user, roles, groups, permission));
+  }
+
+  private List<Criteria> permissionCriteria(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      String permission,
+      boolean includeOwner) {
+    final String entryPath = entriesPath + "." + fieldName(permission);
+    final List<Criteria> criteria = new ArrayList<>(5);
+    if (includeOwner && user != null) {
+      criteria.add(Criteria.where(ownerPath).is(user));
+    }
+    criteria.add(Criteria.where(entryPath + ".guest").is(true));
+    if (user != null) {
+      criteria.add(Criteria.where(entryPath + ".users").is(user));
+    }
+    final Set<String> roleSet = names(roles);
+    if (!roleSet.isEmpty()) {
+      criteria.add(Criteria.where(entryPath + ".roles").in(roleSet));
+    }
+    final Set<String> groupSet = names(groups);
+    if (!groupSet.isEmpty()) {
+      criteria.add(Criteria.where(entryPath + ".groups").in(groupSet));
+    }
+    return criteria;
+  }
+
+  private static String fieldName(String permission) {
+    if (permission.indexOf('.') >= 0 || permission.startsWith("$")) {
+      throw new IllegalArgumentException("Illegal permission: " + permission);
+    }
+    return permission.toLowerCase();
+  }
+
+  private static Set<String> names(@Nullable Collection<String> names) {
+    final Set<String> result = new LinkedHashSet<>();
+    if (names != null) {
+      for (String name : names) {
+        if (StringUtils.hasText(name)) {
+          result.add(name);
+        }
+      }
+    }
+    return result;
+  }
+
+  private Criteria nothing() {
+    return Criteria.where(ownerPath).in();
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.data.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.access.AccessController;
+import org.bremersee.security.access.AclBuilder;
+import org.bremersee.security.access.AclFactory;
+import org.bremersee.security.access.PermissionConstants;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * The acl criteria builder test. The criteria are evaluated by a small in-memory stand-in of the
+ * mongo query engine, that supports the operators of the criteria.
+ *
+ * @author Christian Bremer
+ */
+class AclCriteriaBuilderTest {
+
+  private static final AclFactory<Document> documentFactory = (owner, entries) -> {
+    Document documentEntries = new Document();
+    entries.forEach((permission, ace) -> documentEntries.append(permission, new Document()
+        .append("guest", ace.isGuest())
+        .append("users", new ArrayList<>(ace.getUsers()))
+        .append("roles", new ArrayList<>(ace.getRoles()))
+        .append("groups", new ArrayList<>(ace.getGroups()))));
+    return new Document()
+        .append("owner", owner)
+        .append("entries", documentEntries);
+  };
+
+  private static final List<Document> documents = List.of(
+      document("1", AclBuilder.builder()
+          .owner("anna")
+          .addUser("livia", PermissionConstants.READ)
+          .addRole("ROLE_ADMIN", PermissionConstants.ALL)
+          .build(documentFactory)),
+      document("2", AclBuilder.builder()
+          .owner("livia")
+          .guest(true, PermissionConstants.READ)
+          .addGroup("developers", PermissionConstants.WRITE)
+          .build(documentFactory)),
+      document("3", AclBuilder.builder()
+          .owner("plurabelle")
+          .defaults(PermissionConstants.ALL)
+          .build(documentFactory)));
+
+  /**
+   * Has permission.
+   */
+  @Test
+  void hasPermission() {
+    AclCriteriaBuilder builder = new AclCriteriaBuilder("acl");
+    assertEquals(List.of("1", "2"), find(builder.hasPermission(
+        "livia", null, null, PermissionConstants.READ)));
+    assertEquals(List.of("2"), find(builder.hasPermission(
+        null, null, null, "READ")));
+    assertEquals(List.of("2"), find(builder.hasPermission(
+        "someone", List.of("ROLE_USER"), List.of("developers"), PermissionConstants.WRITE)));
+    assertEquals(List.of("1", "2"), find(builder.hasPermission(
+        "someone", List.of("ROLE_ADMIN"), List.of("developers"), PermissionConstants.WRITE)));
+    assertEquals(List.of("3"), find(builder.hasPermission(
+        "plurabelle", null, null, PermissionConstants.DELETE)));
+  }
+
+  /**
+   * Has any and all permissions.
+   */
+  @Test
+  void hasAnyAndAllPermissions() {
+    AclCriteriaBuilder builder = new AclCriteriaBuilder("acl");
+    assertEquals(List.of("1", "2"), find(builder.hasAnyPermission(
+        "livia", null, null, List.of(PermissionConstants.DELETE, PermissionConstants.READ))));
+    assertEquals(List.of("1", "2"), find(builder.hasAllPermissions(
+        "livia", List.of("ROLE_ADMIN"), null, List.of(PermissionConstants.ALL))));
+    assertEquals(List.of(), find(builder.hasAnyPermission(null, null, null, List.of())));
+    assertEquals(List.of(), find(builder.hasAllPermissions("anna", null, null, List.of())));
+  }
+
+  /**
+   * Has permission without permission.
+   */
+  @Test
+  void hasPermissionWithoutPermission() {
+    AclCriteriaBuilder builder = new AclCriteriaBuilder("acl");
+    assertEquals(List.of(), find(builder.hasPermission("anna", null, null, null)));
+    assertEquals(List.of(), find(builder.hasPermission("anna", null, null, " ")));
+    assertEquals(List.of("1", "2"), find(builder.hasAnyPermission(
+        "livia", null, null, Arrays.asList(null, PermissionConstants.READ, ""))));
+    assertEquals(List.of(), find(builder.hasAnyPermission(
+        "anna", null, null, Arrays.asList(null, " "))));
+    assertEquals(List.of(), find(builder.hasAnyPermission("anna", null, null, null)));
+    assertEquals(List.of(), find(builder.hasAllPermissions(
+        "anna", null, null, Arrays.asList(PermissionConstants.READ, null))));
+    assertEquals(List.of(), find(builder.hasAllPermissions("anna", null, null, null)));
+  }
+
+  /**
+   * Has permission with illegal permission.
+   */
+  @Test
+  void hasPermissionWithIllegalPermission() {
+    AclCriteriaBuilder builder = new AclCriteriaBuilder("acl");
+    assertThrows(IllegalArgumentException.class, () -> builder.hasPermission(
+        "anna", null, null, "read.users"));
+    assertThrows(IllegalArgumentException.class, () -> builder.hasPermission(
+        "anna", null, null, "$where"));
+    assertThrows(IllegalArgumentException.class, () -> builder.hasAnyPermission(
+        "anna", null, null, List.of(PermissionConstants.READ, "$ne")));
+    assertThrows(IllegalArgumentException.class, () -> builder.hasAllPermissions(
+        "anna", null, null, List.of("read.guest")));
+  }
+
+  /**
+   * Compare with access controller.
+   */
+  @Test
+  void compareWithAccessController() {
+    AclCriteriaBuilder builder = new AclCriteriaBuilder("acl");
+    List<String> users = List.of("anna", "livia", "plurabelle", "someone");
+    List<List<String>> roles = List.of(List.of(), List.of("ROLE_ADMIN"), List.of("ROLE_USER"));
+    List<List<String>> groups = List.of(List.of(), List.of("developers"));
+    for (String user : users) {
+      for (List<String> roleList : roles) {
+        for (List<String> groupList : groups) {
+          for (String permission : PermissionConstants.ALL) {
+            List<String> expected = documents.stream()
+                .filter(document -> AccessController
+                    .from(toAcl(document.get("acl", Document.class)))
+                    .hasPermission(user, roleList, groupList, permission))
+                .map(document -> document.getString("_id"))
+                .collect(Collectors.toList());
+            assertEquals(expected, find(builder.hasPermission(
+                user, roleList, groupList, permission)));
+          }
+        }
+      }
+    }
+  }
+
+  private static Document document(String id, Document acl) {
+    return new Document("_id", id).append("acl", acl);
+  }
+
+  private static AccessControlList toAcl(Document document) {
+    AclBuilder builder = AclBuilder.builder().owner(document.getString("owner"));
+    document.get("entries", Document.class).forEach((permission, value) -> {
+      Document ace = (Document) value;
+      builder.guest(ace.getBoolean("guest"), permission);
+      ace.getList("users", String.class).forEach(user -> builder.addUser(user, permission));
+      ace.getList("roles", String.class).forEach(role -> builder.addRole(role, permission));
+      ace.getList("groups", String.class).forEach(group -> builder.addGroup(group, permission));
+    });
+    return builder.buildAccessControlList();
+  }
+
+  private static List<String> find(Criteria criteria) {
+    Document query = criteria.getCriteriaObject();
+    return documents.stream()
+        .filter(document -> matches(document, query))
+        .map(document -> document.getString("_id"))
+        .collect(Collectors.toList());
+  }
+
+  private static boolean matches(Document document, Map<String, Object> query) {
+    for (Map.Entry<String, Object> entry : query.entrySet()) {
+      String key = entry.getKey();
+      Object condition = entry.getValue();
+      boolean matches;
+      if ("$or".equals(key)) {
+        matches = ((Collection<?>) condition).stream()
+            .anyMatch(sub -> matches(document, asMap(sub)));
+      } else if ("$and".equals(key)) {
+        matches = ((Collection<?>) condition).stream()
+            .allMatch(sub -> matches(document, asMap(sub)));
+      } else {
+        matches = matchesField(value(document, key), condition);
+      }
+      if (!matches) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matchesField(Object value, Object condition) {
+    if (condition instanceof Map && asMap(condition).containsKey("$in")) {
+      return ((Collection<?>) asMap(condition).get("$in")).stream()
+          .anyMatch(candidate -> matchesField(value, candidate));
+    }
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).contains(condition);
+    }
+    return value != null && value.equals(condition);
+  }
+
+  private static Object value(Document document, String path) {
+    Object value = document;
+    for (String field : path.split("\\.")) {
+      if (!(value instanceof Map)) {
+        return null;
+      }
+      value = asMap(value).get(field);
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asMap(Object value) {
+    return (Map<String, Object>) value;
+  }
+
+}
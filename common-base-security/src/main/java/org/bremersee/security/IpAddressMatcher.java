@@ -17,9 +17,16 @@
 package org.bremersee.security;
 
 import java.net.InetAddress;
-import java.net.UnknownHostException;
-import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
 
 /**
  * Matches a request based on IP Address or subnet mask matching against the remote address.
@@ -32,12 +39,21 @@ import org.springframework.util.StringUtils;
  * environment. Here is the method {@code boolean matches(HttpServletRequest request)} skipped and
  * ths class does not implements {@code org.springframework.security.web.util.matcher.RequestMatcher},
  *
+ * <p>The addresses are compiled once into an {@link IpAddressTrie}, so a matcher of many
+ * addresses and ranges doesn't need more time than a matcher of one. The addresses, that are
+ * matched, are never resolved (see {@link IpAddressParser}). Configured hostnames are resolved
+ * when the matcher is created or, if that should not block, in the background (see {@link
+ * #IpAddressMatcher(Collection, boolean)} and {@link #scheduleRefresh(ScheduledExecutorService,
+ * Duration)}).
+ *
  * @author Luke Taylor
  */
+@Slf4j
 public class IpAddressMatcher {
 
-  private final int numMaskBits;
-  private final InetAddress requiredAddress;
+  private final List<String> ipAddresses;
+
+  private volatile IpAddressTrie trie;
 
   /**
    * Takes a specific IP address or a range specified using the IP/Netmask (e.g. 192.168.1.0/24 or
@@ -46,65 +62,107 @@ public class IpAddressMatcher {
    * @param ipAddress the address or range of addresses from which the request must come.
    */
   public IpAddressMatcher(String ipAddress) {
+    this(Collections.singletonList(ipAddress));
+  }
 
-    if (ipAddress.indexOf('/') > 0) {
-      String[] addressAndMask = StringUtils.split(ipAddress, "/");
-      //noinspection ConstantConditions
-      ipAddress = addressAndMask[0];
-      numMaskBits = Integer.parseInt(addressAndMask[1]);
-    } else {
-      numMaskBits = -1;
-    }
-    requiredAddress = parseAddress(ipAddress);
-    Assert.isTrue(requiredAddress.getAddress().length * 8 >= numMaskBits,
-        String.format("IP address %s is too short for bitmask of length %d",
-            ipAddress, numMaskBits));
+  /**
+   * Takes specific IP addresses or ranges specified using the IP/Netmask (e.g. 192.168.1.0/24 or
+   * 202.24.0.0/14). The matcher matches, if one of them matches.
+   *
+   * @param ipAddresses the addresses or ranges of addresses from which the request must come.
+   */
+  public IpAddressMatcher(Collection<String> ipAddresses) {
+    this(ipAddresses, true);
   }
 
   /**
-   * Matches an IPv6 and IPv4 address.
+   * Takes specific IP addresses or ranges specified using the IP/Netmask (e.g. 192.168.1.0/24 or
+   * 202.24.0.0/14). The matcher matches, if one of them matches.
    *
-   * @param address the address
-   * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
-   *     {@code false}
+   * @param ipAddresses the addresses or ranges of addresses from which the request must come.
+   * @param resolveHostnames specifies whether hostnames should be resolved now (this may block);
+   *     otherwise they don't match until they are resolved by {@link #refresh()}
    */
-  public boolean matches(String address) {
-    InetAddress remoteAddress = parseAddress(address);
+  public IpAddressMatcher(Collection<String> ipAddresses, boolean resolveHostnames) {
+    this.ipAddresses = ipAddresses == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(ipAddresses));
+    this.trie = IpAddressTrie.of(this.ipAddresses, resolveHostnames);
+  }
 
-    if (!requiredAddress.getClass().equals(remoteAddress.getClass())) {
-      return false;
-    }
+  /**
+   * Determines whether hostnames were configured.
+   *
+   * @return {@code true} if hostnames were configured, otherwise {@code false}
+   */
+  public boolean hasHostnames() {
+    return trie.hasHostnames();
+  }
 
-    if (numMaskBits < 0) {
-      return remoteAddress.equals(requiredAddress);
+  /**
+   * Resolves the configured hostnames again. This may block, so it should not be called on a
+   * request thread. If a hostname cannot be resolved, the previous addresses are kept.
+   */
+  public void refresh() {
+    if (!trie.hasHostnames()) {
+      return;
     }
-
-    byte[] remAddr = remoteAddress.getAddress();
-    byte[] reqAddr = requiredAddress.getAddress();
-
-    int numMaskFullBytes = numMaskBits / 8;
-    byte finalByte = (byte) (0xFF00 >> (numMaskBits & 0x07));
-
-    // System.out.println("Mask is " + new sun.misc.HexDumpEncoder().encode(mask));
-
-    for (int i = 0; i < numMaskFullBytes; i++) {
-      if (remAddr[i] != reqAddr[i]) {
-        return false;
-      }
+    try {
+      trie = IpAddressTrie.of(ipAddresses, true);
+    } catch (IllegalArgumentException e) {
+      log.warn("Resolving hostnames of ip addresses {} failed.", ipAddresses, e);
     }
+  }
 
-    if (finalByte != 0) {
-      return (remAddr[numMaskFullBytes] & finalByte) == (reqAddr[numMaskFullBytes] & finalByte);
+  /**
+   * Resolves the configured hostnames in the background now and then periodically. Nothing is
+   * scheduled, if there are no hostnames.
+   *
+   * @param executor the executor
+   * @param interval the interval
+   * @return the scheduled refresh, that should be cancelled, when the matcher is not used any
+   *     more, or {@code null}, if nothing is scheduled
+   */
+  @Nullable
+  public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService executor, Duration interval) {
+    if (!trie.hasHostnames()) {
+      return null;
     }
+    return executor.scheduleWithFixedDelay(
+        this::refresh, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
 
-    return true;
+  /**
+   * Matches an IPv6 and IPv4 address literal. The address is never resolved.
+   *
+   * @param address the address literal
+   * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
+   *     {@code false}
+   */
+  public boolean matches(String address) {
+    return trie.matches(address);
   }
 
-  private InetAddress parseAddress(String address) {
-    try {
-      return InetAddress.getByName(address);
-    } catch (UnknownHostException e) {
-      throw new IllegalArgumentException("Failed to parse address" + address, e);
-    }
+  /**
+   * Matches an IPv6 and IPv4 address.
+   *
+   * @param address the address
+   * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
+   *     {@code false}
+   */
+  public boolean matches(@Nullable InetAddress address) {
+    return trie.matches(address);
   }
+
+  /**
+   * Matches the raw bytes of an IPv6 and IPv4 address.
+   *
+   * @param address the raw address in network byte order
+   * @return the {@code true} id the given address matches an IPv6 and IPv4 address, otherwise
+   *     {@code false}
+   */
+  public boolean matches(@Nullable byte[] address) {
+    return trie.matches(address);
+  }
+
 }
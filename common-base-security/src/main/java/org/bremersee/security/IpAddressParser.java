@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security;
+
+import java.util.Arrays;
+import org.springframework.lang.Nullable;
+
+/**
+ * A strict parser of IPv4 and IPv6 address literals. Other than {@link
+ * java.net.InetAddress#getByName(String)} it never asks a name service, so it can be called on any
+ * thread (e.g. an event loop) without blocking: a value, that is not a literal, is rejected.
+ *
+ * <p>Supported are dotted decimal IPv4 addresses with four parts (e.g. {@code 192.168.1.23}) and
+ * IPv6 addresses in full and compressed form, optionally with an embedded IPv4 address, a zone id
+ * or in brackets (e.g. {@code 2001:db8::1}, {@code ::ffff:192.168.1.23}, {@code fe80::1%eth0} or
+ * {@code [::1]}). Like the {@code InetAddress} an IPv4-mapped IPv6 address is returned as IPv4
+ * address.
+ *
+ * @author Christian Bremer
+ */
+public abstract class IpAddressParser {
+
+  private IpAddressParser() {
+  }
+
+  /**
+   * Determines whether the given value is an IPv4 or IPv6 address literal.
+   *
+   * @param address the value
+   * @return {@code true} if the value is an address literal, otherwise {@code false}
+   */
+  public static boolean isLiteral(@Nullable CharSequence address) {
+    return parseLiteral(address) != null;
+  }
+
+  /**
+   * Parses the given IPv4 or IPv6 address literal.
+   *
+   * @param address the address literal
+   * @return the raw address in network byte order (4 bytes of an IPv4 or 16 bytes of an IPv6
+   *     address) or {@code null}, if the value is not an address literal
+   */
+  @Nullable
+  public static byte[] parseLiteral(@Nullable CharSequence address) {
+    if (address == null) {
+      return null;
+    }
+    int start = 0;
+    int end = address.length();
+    while (start < end && Character.isWhitespace(address.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(address.charAt(end - 1))) {
+      end--;
+    }
+    if (end - start >= 2 && address.charAt(start) == '[' && address.charAt(end - 1) == ']') {
+      start++;
+      end--;
+    }
+    if (start == end) {
+      return null;
+    }
+    boolean ipv6 = false;
+    for (int i = start; i < end; i++) {
+      final char c = address.charAt(i);
+      if (c == ':') {
+        ipv6 = true;
+      } else if (c == '%' && ipv6) {
+        end = i;
+        break;
+      }
+    }
+    if (!ipv6) {
+      final byte[] bytes = new byte[4];
+      return parseIpv4(address, start, end, bytes, 0) ? bytes : null;
+    }
+    return toIpv4IfMapped(parseIpv6(address, start, end));
+  }
+
+  private static boolean parseIpv4(
+      CharSequence address, int start, int end, byte[] bytes, int offset) {
+
+    int index = offset;
+    int i = start;
+    while (index < offset + 4) {
+      int value = 0;
+      final int partStart = i;
+      while (i < end && i - partStart < 3) {
+        final char c = address.charAt(i);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        value = value * 10 + (c - '0');
+        i++;
+      }
+      if (i == partStart || value > 255) {
+        return false;
+      }
+      bytes[index++] = (byte) value;
+      if (index < offset + 4) {
+        if (i >= end || address.charAt(i) != '.') {
+          return false;
+        }
+        i++;
+      }
+    }
+    return i == end;
+  }
+
+  @Nullable
+  private static byte[] parseIpv6(CharSequence address, int start, int end) {
+    final byte[] bytes = new byte[16];
+    int index = 0;
+    int compressAt = -1;
+    int i = start;
+    if (address.charAt(i) == ':') {
+      if (i + 1 >= end || address.charAt(i + 1) != ':') {
+        return null;
+      }
+      compressAt = 0;
+      i += 2;
+    }
+    while (i < end) {
+      if (index == 16) {
+        return null;
+      }
+      final int groupStart = i;
+      int value = 0;
+      while (i < end && i - groupStart < 4) {
+        final int digit = Character.digit(address.charAt(i), 16);
+        if (digit < 0) {
+          break;
+        }
+        value = (value << 4) | digit;
+        i++;
+      }
+      if (i < end && address.charAt(i) == '.') {
+        // embedded IPv4 address, that must be the last part
+        if (index > 12 || !parseIpv4(address, groupStart, end, bytes, index)) {
+          return null;
+        }
+        index += 4;
+        break;
+      }
+      if (i == groupStart) {
+        return null;
+      }
+      bytes[index++] = (byte) (value >>> 8);
+      bytes[index++] = (byte) value;
+      if (i == end) {
+        break;
+      }
+      if (address.charAt(i) != ':') {
+        return null;
+      }
+      i++;
+      if (i < end && address.charAt(i) == ':') {
+        if (compressAt >= 0) {
+          return null;
+        }
+        compressAt = index;
+        i++;
+      } else if (i == end) {
+        return null;
+      }
+    }
+    if (compressAt >= 0) {
+      if (index == 16) {
+        return null;
+      }
+      final int shift = 16 - index;
+      System.arraycopy(bytes, compressAt, bytes, compressAt + shift, index - compressAt);
+      Arrays.fill(bytes, compressAt, compressAt + shift, (byte) 0);
+    } else if (index != 16) {
+      return null;
+    }
+    return bytes;
+  }
+
+  @Nullable
+  private static byte[] toIpv4IfMapped(@Nullable byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    for (int i = 0; i < 10; i++) {
+      if (bytes[i] != 0) {
+        return bytes;
+      }
+    }
+    if (bytes[10] != (byte) 0xff || bytes[11] != (byte) 0xff) {
+      return bytes;
+    }
+    return Arrays.copyOfRange(bytes, 12, 16);
+  }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A set of IPv4 and IPv6 addresses and ranges (e.g. 192.168.1.0/24 or 2001:db8::/32), that is
+ * compiled once into a binary prefix trie. Looking up an address walks at most 32 (IPv4) or 128
+ * (IPv6) bits of the raw address bytes, no matter how many ranges are configured, and it stops at
+ * the first range, that contains the address.
+ *
+ * <p>Like the {@link IpAddressMatcher} an IPv4 range never matches an IPv6 address and vice
+ * versa. The addresses, that are looked up, must be address literals (see {@link IpAddressParser});
+ * they are never resolved. Configured hostnames are resolved only when the trie is built, if at
+ * all.
+ *
+ * @author Christian Bremer
+ */
+public final class IpAddressTrie {
+
+  private static final IpAddressTrie EMPTY = new IpAddressTrie(
+      Collections.emptyList(), false, null);
+
+  private final Node ipv4 = new Node();
+
+  private final Node ipv6 = new Node();
+
+  private final boolean empty;
+
+  private final boolean hostnames;
+
+  private IpAddressTrie(
+      Collection<String> ipAddresses,
+      boolean resolveHostnames,
+      @Nullable Consumer<String> unresolvableHostnameHandler) {
+    boolean isEmpty = true;
+    boolean hasHostnames = false;
+    for (String ipAddress : ipAddresses) {
+      if (ipAddress != null && ipAddress.trim().length() > 0) {
+        final String value = ipAddress.trim();
+        final int index = value.indexOf('/');
+        final boolean hostname = !IpAddressParser
+            .isLiteral(index > 0 ? value.substring(0, index) : value);
+        hasHostnames = hasHostnames || hostname;
+        if ((!hostname || resolveHostnames) && add(value, unresolvableHostnameHandler)) {
+          isEmpty = false;
+        }
+      }
+    }
+    this.empty = isEmpty;
+    this.hostnames = hasHostnames;
+  }
+
+  /**
+   * Returns an empty trie, that matches nothing.
+   *
+   * @return the empty trie
+   */
+  public static IpAddressTrie empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a trie of the given addresses and ranges. Hostnames are resolved (this may block).
+   *
+   * @param ipAddresses the addresses and ranges (e.g. 192.168.1.23 or 192.168.1.0/24)
+   * @return the trie
+   * @throws IllegalArgumentException if an address or a range is illegal
+   */
+  public static IpAddressTrie of(@Nullable Collection<String> ipAddresses) {
+    return of(ipAddresses, true);
+  }
+
+  /**
+   * Creates a trie of the given addresses and ranges.
+   *
+   * @param ipAddresses the addresses and ranges (e.g. 192.168.1.23 or 192.168.1.0/24)
+   * @param resolveHostnames specifies whether hostnames should be resolved (this may block) or
+   *     whether they should be skipped
+   * @return the trie
+   * @throws IllegalArgumentException if an address or a range is illegal
+   */
+  public static IpAddressTrie of(
+      @Nullable Collection<String> ipAddresses,
+      boolean resolveHostnames) {
+    return of(ipAddresses, resolveHostnames, null);
+  }
+
+  /**
+   * Creates a trie of the given addresses and ranges. Hostnames are resolved (this may block);
+   * hostnames, that can't be resolved, are skipped and passed to the given handler.
+   *
+   * @param ipAddresses the addresses and ranges (e.g. 192.168.1.23 or 192.168.1.0/24)
+   * @param unresolvableHostnameHandler the handler of the hostnames, that can't be resolved; if
+   *     it is {@code null}, such a hostname is illegal
+   * @return the trie
+   * @throws IllegalArgumentException if an address or a range is illegal
+   */
+  public static IpAddressTrie of(
+      @Nullable Collection<String> ipAddresses,
+      @Nullable Consumer<String> unresolvableHostnameHandler) {
+    return of(ipAddresses, true, unresolvableHostnameHandler);
+  }
+
+  private static IpAddressTrie of(
+      @Nullable Collection<String> ipAddresses,
+      boolean resolveHostnames,
+      @Nullable Consumer<String> unresolvableHostnameHandler) {
+    return ipAddresses == null || ipAddresses.isEmpty()
+        ? EMPTY
+        : new IpAddressTrie(ipAddresses, resolveHostnames, unresolvableHostnameHandler);
+  }
+
+  /**
+   * Creates a trie of the given addresses and ranges.
+   *
+   * @param ipAddresses the addresses and ranges (e.g. 192.168.1.23 or 192.168.1.0/24)
+   * @return the trie
+   * @throws IllegalArgumentException if an address or a range is illegal
+   */
+  public static IpAddressTrie of(String... ipAddresses) {
+    return ipAddresses == null ? EMPTY : of(Arrays.asList(ipAddresses));
+  }
+
+  private boolean add(
+      String ipAddress,
+      @Nullable Consumer<String> unresolvableHostnameHandler) {
+    final String address;
+    final int numMaskBits;
+    final int index = ipAddress.indexOf('/');
+    if (index > 0) {
+      address = ipAddress.substring(0, index);
+      try {
+        numMaskBits = Integer.parseInt(ipAddress.substring(index + 1));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Illegal bitmask of " + ipAddress, e);
+      }
+    } else {
+      address = ipAddress;
+      numMaskBits = -1;
+    }
+    Assert.isTrue(numMaskBits >= -1,
+        String.format("Illegal bitmask of length %d", numMaskBits));
+    final byte[] bytes = IpAddressParser.parseLiteral(address);
+    if (bytes != null) {
+      add(address, bytes, numMaskBits);
+      return true;
+    }
+    final InetAddress[] resolvedAddresses;
+    try {
+      resolvedAddresses = InetAddress.getAllByName(address);
+    } catch (UnknownHostException e) {
+      if (unresolvableHostnameHandler != null) {
+        unresolvableHostnameHandler.accept(ipAddress);
+        return false;
+      }
+      throw new IllegalArgumentException("Failed to resolve address " + address, e);
+    }
+    for (InetAddress resolvedAddress : resolvedAddresses) {
+      add(address, resolvedAddress.getAddress(), numMaskBits);
+    }
+    return true;
+  }
+
+  private void add(String address, byte[] bytes, int numMaskBits) {
+    final int length = bytes.length * 8;
+    Assert.isTrue(numMaskBits <= length,
+        String.format("IP address %s is too short for bitmask of length %d",
+            address, numMaskBits));
+    Node node = bytes.length == 4 ? ipv4 : ipv6;
+    final int prefixLength = numMaskBits < 0 ? length : numMaskBits;
+    for (int i = 0; i < prefixLength && !node.terminal; i++) {
+      final int bit = bit(bytes, i);
+      if (node.children[bit] == null) {
+        node.children[bit] = new Node();
+      }
+      node = node.children[bit];
+    }
+    // a shorter prefix contains all longer ones, so their nodes are not needed any more
+    node.terminal = true;
+    node.children[0] = null;
+    node.children[1] = null;
+  }
+
+  /**
+   * Determines whether this trie matches nothing.
+   *
+   * @return {@code true} if there are no addresses, otherwise {@code false}
+   */
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  /**
+   * Determines whether hostnames were configured. The addresses of them are only contained, if
+   * they were resolved when this trie was built.
+   *
+   * @return {@code true} if hostnames were configured, otherwise {@code false}
+   */
+  public boolean hasHostnames() {
+    return hostnames;
+  }
+
+  /**
+   * Checks whether the given raw address (4 bytes of an IPv4 or 16 bytes of an IPv6 address) is
+   * contained in this trie.
+   *
+   * @param address the raw address in network byte order
+   * @return {@code true} if the address is contained, otherwise {@code false}
+   */
+  public boolean matches(@Nullable byte[] address) {
+    if (empty || address == null) {
+      return false;
+    }
+    Node node;
+    if (address.length == 4) {
+      node = ipv4;
+    } else if (address.length == 16) {
+      node = ipv6;
+    } else {
+      return false;
+    }
+    final int length = address.length * 8;
+    for (int i = 0; i < length; i++) {
+      if (node.terminal) {
+        return true;
+      }
+      node = node.children[bit(address, i)];
+      if (node == null) {
+        return false;
+      }
+    }
+    return node.terminal;
+  }
+
+  /**
+   * Checks whether the given address is contained in this trie.
+   *
+   * @param address the address
+   * @return {@code true} if the address is contained, otherwise {@code false}
+   */
+  public boolean matches(@Nullable InetAddress address) {
+    if (empty || address == null) {
+      return false;
+    }
+    final byte[] bytes = address.getAddress();
+    if (bytes != null) {
+      return matches(bytes);
+    }
+    final String hostAddress = address.getHostAddress();
+    return hostAddress != null && matches(hostAddress);
+  }
+
+  /**
+   * Checks whether the given address literal is contained in this trie. The address is never
+   * resolved; if it is not a literal, it is not contained.
+   *
+   * @param address the address literal
+   * @return {@code true} if the address is contained, otherwise {@code false}
+   */
+  public boolean matches(@Nullable String address) {
+    return !empty && address != null && matches(IpAddressParser.parseLiteral(address));
+  }
+
+  private static int bit(byte[] address, int index) {
+    return (address[index >>> 3] >>> (7 - (index & 0x07))) & 1;
+  }
+
+  @Override
+  public String toString() {
+    return "IpAddressTrie {empty = " + empty + ", hostnames = " + hostnames + '}';
+  }
+
+  private static class Node {
+
+    private final Node[] children = new Node[2];
+
+    private boolean terminal;
+  }
+
+}
@@ -22,7 +22,10 @@ import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
 import java.text.ParseException;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.constraints.NotNull;
@@ -59,6 +62,40 @@ public interface AccessTokenCache {
    */
   void putAccessToken(@NotNull String key, @NotNull String accessToken);
 
+  /**
+   * Put new access token with a known expiration time into the cache. Implementations should use
+   * the expiration time of the entry instead of parsing the access token, so that opaque access
+   * tokens can be cached, too.
+   *
+   * @param key the key
+   * @param entry the access token with its expiration time
+   */
+  default void putAccessToken(@NotNull String key, @NotNull AccessTokenCacheEntry entry) {
+    putAccessToken(key, entry.getAccessToken());
+  }
+
+  /**
+   * Find not expired access tokens from cache.
+   *
+   * @param keys the keys
+   * @return the found access tokens by key
+   */
+  default Map<String, String> findAccessTokens(@NotNull Collection<String> keys) {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    keys.forEach(key -> findAccessToken(key)
+        .ifPresent(accessToken -> accessTokens.put(key, accessToken)));
+    return accessTokens;
+  }
+
+  /**
+   * Put new access tokens into the cache.
+   *
+   * @param accessTokens the access tokens by key
+   */
+  default void putAccessTokens(@NotNull Map<String, String> accessTokens) {
+    accessTokens.forEach(this::putAccessToken);
+  }
+
   /**
    * Checks whether the access token is expired. If no expiration claim is present, the result will
    * always be {@code true}.
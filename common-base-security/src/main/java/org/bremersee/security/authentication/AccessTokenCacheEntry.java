@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import javax.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * An access token together with its expiration time. The expiration time is determined once, when
+ * the entry is created, so that checking whether a cached token is expired is just a comparison.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+@Getter
+@ToString(exclude = {"accessToken"})
+@EqualsAndHashCode
+public class AccessTokenCacheEntry implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The value of {@link #getExpiresAt()}, if the access token has no expiration time.
+   */
+  public static final long NO_EXPIRATION_TIME = Long.MIN_VALUE;
+
+  private final String accessToken;
+
+  /**
+   * The expiration time in milliseconds since the epoch or {@link #NO_EXPIRATION_TIME}.
+   */
+  private final long expiresAt;
+
+  /**
+   * Instantiates a new access token cache entry.
+   *
+   * @param accessToken the access token
+   * @param expiresAt the expiration time in milliseconds since the epoch or {@link
+   *     #NO_EXPIRATION_TIME}
+   */
+  public AccessTokenCacheEntry(@NotNull String accessToken, long expiresAt) {
+    Assert.notNull(accessToken, "Access token must be present.");
+    this.accessToken = accessToken;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Creates a new access token cache entry. The access token will be parsed to get the expiration
+   * time. If the access token cannot be parsed or has no expiration claim, the entry has no
+   * expiration time and will be treated as expired.
+   *
+   * @param accessToken the access token
+   * @return the access token cache entry
+   */
+  public static AccessTokenCacheEntry of(@NotNull String accessToken) {
+    Date expirationTime;
+    try {
+      expirationTime = AccessTokenCache.getExpirationTime(accessToken);
+
+    } catch (RuntimeException e) {
+      log.debug("Getting expiration time of access token failed: {}", e.getMessage());
+      expirationTime = null;
+    }
+    return of(accessToken, expirationTime);
+  }
+
+  /**
+   * Creates a new access token cache entry.
+   *
+   * @param accessToken the access token
+   * @param expirationTime the expiration time (can be {@code null})
+   * @return the access token cache entry
+   */
+  public static AccessTokenCacheEntry of(
+      @NotNull String accessToken,
+      @Nullable Date expirationTime) {
+    return new AccessTokenCacheEntry(
+        accessToken,
+        expirationTime != null ? expirationTime.getTime() : NO_EXPIRATION_TIME);
+  }
+
+  /**
+   * Creates a new access token cache entry from the response of a token endpoint. If the response
+   * contains the lifetime of the access token ({@code expires_in}), the expiration time is
+   * calculated from it, so the access token doesn't have to be parsed and may be opaque. Otherwise
+   * the access token will be parsed like in {@link #of(String)}.
+   *
+   * @param response the response of the token endpoint
+   * @return the access token cache entry
+   */
+  public static AccessTokenCacheEntry of(@NotNull AccessTokenResponse response) {
+    Assert.notNull(response, "Access token response must be present.");
+    final Long expiresIn = response.getExpiresIn();
+    if (expiresIn != null && expiresIn > 0L) {
+      return new AccessTokenCacheEntry(
+          response.getAccessToken(),
+          System.currentTimeMillis() + Duration.ofSeconds(expiresIn).toMillis());
+    }
+    return of(response.getAccessToken());
+  }
+
+  /**
+   * Determines whether the access token has an expiration time.
+   *
+   * @return {@code true} if the access token has an expiration time, otherwise {@code false}
+   */
+  public boolean hasExpirationTime() {
+    return expiresAt != NO_EXPIRATION_TIME;
+  }
+
+  /**
+   * Gets the expiration time.
+   *
+   * @return the expiration time or {@link Optional#empty()}, if there is no expiration time
+   */
+  public Optional<Instant> getExpirationTime() {
+    return hasExpirationTime() ? Optional.of(Instant.ofEpochMilli(expiresAt)) : Optional.empty();
+  }
+
+  /**
+   * Checks whether the access token is expired. If there is no expiration time, the result will
+   * always be {@code true}.
+   *
+   * @param threshold the threshold (can be {@code null})
+   * @return {@code true} if the access token is expired, otherwise {@code false}
+   */
+  public boolean isExpired(@Nullable Duration threshold) {
+    return isExpired(System.currentTimeMillis() + (threshold != null ? threshold.toMillis() : 0L));
+  }
+
+  /**
+   * Checks whether the access token is expired at the given time. If there is no expiration time,
+   * the result will always be {@code true}.
+   *
+   * @param millis the time in milliseconds since the epoch
+   * @return {@code true} if the access token is expired, otherwise {@code false}
+   */
+  public boolean isExpired(long millis) {
+    return !hasExpirationTime() || expiresAt < millis;
+  }
+
+}
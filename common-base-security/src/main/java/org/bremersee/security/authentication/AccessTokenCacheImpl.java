@@ -19,27 +19,41 @@ package org.bremersee.security.authentication;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
-import javax.validation.constraints.NotNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
 /**
  * The access token cache implementation.
  *
+ * <p>Without an external cache the access tokens are stored in memory as {@link
+ * AccessTokenCacheEntry}s, so the token is only parsed once, when it is put into the cache. With an
+ * external cache the parsed entries are kept in memory, too, as long as the external cache returns
+ * the same token value.
+ *
  * @author Christian Bremer
  */
 @Slf4j
 public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
 
-  private Timer internalCacheTimer;
+  private static final long EVICTION_PERIOD_SECONDS = 60L;
+
+  private final ScheduledExecutorService evictionExecutor;
+
+  private final ConcurrentMap<String, AccessTokenCacheEntry> entries = new ConcurrentHashMap<>();
+
+  private final Queue<ExpiringKey> expirationQueue = new PriorityBlockingQueue<>();
 
   private final Cache cache;
 
@@ -47,9 +61,15 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
 
   private final String keyPrefix;
 
+  /**
+   * Overrides the expiration check of the cache entries. If it is not set, the expiration time,
+   * that was determined when the token was put into the cache, is used. The removal of obsolete
+   * entries in the background always uses the stored expiration time; entries without an
+   * expiration time are removed by the next run.
+   */
   @Setter
-  @NotNull
-  private BiFunction<String, Duration, Boolean> expiredBiFn = AccessTokenCache::isExpired;
+  @Nullable
+  private BiFunction<String, Duration, Boolean> expiredBiFn;
 
   /**
    * Instantiates a new access token cache.
@@ -92,31 +112,42 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
       String keyPrefix) {
     if (cache != null) {
       log.info("Creating access token cache with given cache.");
-      this.cache = cache;
     } else {
       log.info("Creating access token cache with internal in memory cache.");
-      this.cache = createInternalCache();
     }
+    this.cache = cache;
     this.expirationTimeThreshold = Objects
         .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
     this.keyPrefix = keyPrefix;
+    this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "access-token-cache-eviction");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.evictionExecutor.scheduleWithFixedDelay(
+        this::evictExpiredEntries,
+        EVICTION_PERIOD_SECONDS,
+        EVICTION_PERIOD_SECONDS,
+        TimeUnit.SECONDS);
   }
 
-  private ConcurrentMapCache createInternalCache() {
-    final long period = 1000L * 60L * 30L;
-    ConcurrentMapCache internalCache = new ConcurrentMapCache(CACHE_NAME);
-    internalCacheTimer = new Timer();
-    internalCacheTimer.schedule(new TimerTask() {
-      @Override
-      public void run() {
-        Set<Object> keys = internalCache.getNativeCache().keySet();
-        log.trace("Removing obsolete jwt entries from internal cache (sze = {}).", keys.size());
-        keys.forEach(key -> findAccessToken(String.valueOf(key))
-            .filter(token -> expiredBiFn.apply(token, expirationTimeThreshold))
-            .ifPresent(token -> internalCache.evict(key)));
+  private void evictExpiredEntries() {
+    try {
+      final long millis = System.currentTimeMillis() + expirationTimeThreshold.toMillis();
+      int size = 0;
+      ExpiringKey head = expirationQueue.peek();
+      while (head != null && head.entry.isExpired(millis)) {
+        ExpiringKey expiringKey = expirationQueue.poll();
+        if (expiringKey != null && entries.remove(expiringKey.key, expiringKey.entry)) {
+          size++;
+        }
+        head = expirationQueue.peek();
       }
-    }, period, period);
-    return internalCache;
+      log.trace("Removed {} obsolete jwt entries from cache (size = {}).", size, entries.size());
+
+    } catch (RuntimeException e) {
+      log.error("Removing obsolete jwt entries from cache failed.", e);
+    }
   }
 
   private String addKeyPrefix(String givenKey) {
@@ -126,11 +157,41 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
     return givenKey;
   }
 
+  private boolean isExpired(AccessTokenCacheEntry entry) {
+    return expiredBiFn != null
+        ? expiredBiFn.apply(entry.getAccessToken(), expirationTimeThreshold)
+        : entry.isExpired(expirationTimeThreshold);
+  }
+
+  private void register(String cacheKey, AccessTokenCacheEntry entry) {
+    entries.put(cacheKey, entry);
+    expirationQueue.add(new ExpiringKey(cacheKey, entry));
+  }
+
+  private AccessTokenCacheEntry findEntry(String cacheKey) {
+    if (cache == null) {
+      return entries.get(cacheKey);
+    }
+    String accessToken = cache.get(cacheKey, String.class);
+    if (accessToken == null) {
+      return null;
+    }
+    AccessTokenCacheEntry entry = entries.get(cacheKey);
+    if (entry == null || !entry.getAccessToken().equals(accessToken)) {
+      entry = AccessTokenCacheEntry.of(accessToken);
+      if (entry.hasExpirationTime()) {
+        register(cacheKey, entry);
+      }
+    }
+    return entry;
+  }
+
   @Override
   public Optional<String> findAccessToken(String key) {
     try {
-      return Optional.ofNullable(cache.get(addKeyPrefix(key), String.class))
-          .filter(token -> !expiredBiFn.apply(token, expirationTimeThreshold));
+      return Optional.ofNullable(findEntry(addKeyPrefix(key)))
+          .filter(entry -> !isExpired(entry))
+          .map(AccessTokenCacheEntry::getAccessToken);
 
     } catch (RuntimeException e) {
       log.error("Getting access token from cache failed.", e);
@@ -140,8 +201,21 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
 
   @Override
   public void putAccessToken(String key, String accessToken) {
+    putAccessToken(key, AccessTokenCacheEntry.of(accessToken));
+  }
+
+  @Override
+  public void putAccessToken(String key, AccessTokenCacheEntry entry) {
     try {
-      cache.put(addKeyPrefix(key), accessToken);
+      String cacheKey = addKeyPrefix(key);
+      if (cache != null) {
+        cache.put(cacheKey, entry.getAccessToken());
+        if (entry.hasExpirationTime()) {
+          register(cacheKey, entry);
+        }
+      } else if (!isExpired(entry)) {
+        register(cacheKey, entry);
+      }
 
     } catch (RuntimeException e) {
       log.error("Putting access token into the cache failed.", e);
@@ -150,17 +224,36 @@ public class AccessTokenCacheImpl implements AccessTokenCache, DisposableBean {
 
   @Override
   public void destroy() {
-    if (internalCacheTimer != null) {
-      internalCacheTimer.cancel();
-    }
+    evictionExecutor.shutdownNow();
   }
 
   @Override
   public String toString() {
     return "AccessTokenCacheImpl {cache = "
-        + (internalCacheTimer != null ? "INTERNAL" : "EXTERNAL")
+        + (cache == null ? "INTERNAL" : "EXTERNAL")
         + ", keyPrefix = " + keyPrefix
         + ", expirationTimeThreshold (in secs) = " + expirationTimeThreshold.toSeconds()
         + '}';
   }
+
+  /**
+   * A cache key ordered by the expiration time of its entry.
+   */
+  private static class ExpiringKey implements Comparable<ExpiringKey> {
+
+    private final String key;
+
+    private final AccessTokenCacheEntry entry;
+
+    private ExpiringKey(String key, AccessTokenCacheEntry entry) {
+      this.key = key;
+      this.entry = entry;
+    }
+
+    @Override
+    public int compareTo(ExpiringKey other) {
+      return Long.compare(entry.getExpiresAt(), other.entry.getExpiresAt());
+    }
+  }
+
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Refreshes cached access tokens in the background, before they expire. The refresh is scheduled
+ * at a configurable fraction of the remaining lifetime of the token (less the expiration time
+ * threshold of the cache), so callers keep getting the still valid token from the cache while the
+ * new one is retrieved.
+ *
+ * <p>A token is only refreshed, if it was read from the cache since it was retrieved (see {@link
+ * #touch(String)}). Otherwise the refresh is dropped and the next caller retrieves a new token on
+ * demand, so tokens, that are not used any more, are not refreshed forever.
+ *
+ * <p>Only tokens of the client credentials flow are refreshed. Tokens of the password flow belong
+ * to users, that may not come back, so they are retrieved on demand as before.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class AccessTokenRefreshAhead implements DisposableBean {
+
+  /**
+   * The default refresh factor.
+   */
+  public static final double DEFAULT_FACTOR = 0.8;
+
+  /**
+   * The default number of threads, that run the refreshes.
+   */
+  public static final int DEFAULT_POOL_SIZE = 2;
+
+  @Getter
+  private final double factor;
+
+  @Getter
+  private final Duration expirationTimeThreshold;
+
+  private final ScheduledExecutorService scheduler;
+
+  private final ConcurrentMap<String, RefreshTask> refreshTasks = new ConcurrentHashMap<>();
+
+  /**
+   * Instantiates a new access token refresh ahead with the default factor.
+   */
+  public AccessTokenRefreshAhead() {
+    this(DEFAULT_FACTOR);
+  }
+
+  /**
+   * Instantiates a new access token refresh ahead.
+   *
+   * @param factor the fraction of the token lifetime, after that the token will be refreshed
+   *     (must be greater than 0 and less than 1)
+   */
+  public AccessTokenRefreshAhead(double factor) {
+    this(factor, null, DEFAULT_POOL_SIZE);
+  }
+
+  /**
+   * Instantiates a new access token refresh ahead.
+   *
+   * @param factor the fraction of the token lifetime, after that the token will be refreshed
+   *     (must be greater than 0 and less than 1)
+   * @param expirationTimeThreshold the expiration time threshold of the access token cache
+   *     (default is 20 seconds)
+   * @param poolSize the number of threads, that run the refreshes (must be greater than 0)
+   */
+  public AccessTokenRefreshAhead(
+      double factor,
+      @Nullable Duration expirationTimeThreshold,
+      int poolSize) {
+    Assert.isTrue(factor > 0. && factor < 1., "Factor must be greater than 0 and less than 1.");
+    Assert.isTrue(poolSize > 0, "Pool size must be greater than 0.");
+    this.factor = factor;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+    final AtomicInteger threadNumber = new AtomicInteger();
+    this.scheduler = Executors.newScheduledThreadPool(poolSize, runnable -> {
+      Thread thread = new Thread(
+          runnable,
+          "access-token-refresh-ahead-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Determines whether access tokens, that are retrieved with the given properties, are refreshed
+   * ahead.
+   *
+   * @param properties the access token retriever properties
+   * @return {@code true} if the tokens are refreshed ahead, otherwise {@code false}
+   */
+  public boolean isApplicable(AccessTokenRetrieverProperties properties) {
+    return properties instanceof ClientCredentialsFlowProperties
+        && !(properties instanceof PasswordFlowProperties);
+  }
+
+  /**
+   * Schedules the refresh of the given access token. A refresh, that is already scheduled for the
+   * same key, will be cancelled.
+   *
+   * @param key the (hashed) cache key
+   * @param entry the access token with its expiration time
+   * @param refresh the refresh task, that retrieves and caches a new access token
+   */
+  public void schedule(
+      @NotNull String key,
+      @NotNull AccessTokenCacheEntry entry,
+      @NotNull Runnable refresh) {
+
+    if (!entry.hasExpirationTime() || scheduler.isShutdown()) {
+      return;
+    }
+    final long delay = (long) ((entry.getExpiresAt()
+        - expirationTimeThreshold.toMillis()
+        - System.currentTimeMillis()) * factor);
+    if (delay <= 0L) {
+      return;
+    }
+    final RefreshTask task = new RefreshTask();
+    final RefreshTask previous = refreshTasks.put(key, task);
+    if (previous != null) {
+      previous.cancel();
+    }
+    try {
+      task.future = scheduler.schedule(() -> run(key, task, refresh), delay, TimeUnit.MILLISECONDS);
+
+    } catch (RejectedExecutionException e) {
+      refreshTasks.remove(key, task);
+    }
+  }
+
+  private void run(String key, RefreshTask task, Runnable refresh) {
+    refreshTasks.remove(key, task);
+    if (task.cancelled) {
+      return;
+    }
+    if (!task.read) {
+      log.debug("Access token was not used since it was retrieved; "
+          + "it will not be refreshed ahead (key = {}).", key);
+      return;
+    }
+    try {
+      log.debug("Refreshing access token ahead (key = {}).", key);
+      refresh.run();
+
+    } catch (RuntimeException e) {
+      log.warn("Refreshing access token ahead failed (key = " + key + ").", e);
+    }
+  }
+
+  /**
+   * Marks the access token with the given key as read from the cache, so that its scheduled
+   * refresh will be done.
+   *
+   * @param key the (hashed) cache key
+   */
+  public void touch(@Nullable String key) {
+    if (key != null) {
+      final RefreshTask task = refreshTasks.get(key);
+      if (task != null && !task.read) {
+        task.read = true;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of scheduled refreshes.
+   *
+   * @return the number of scheduled refreshes
+   */
+  public int size() {
+    return refreshTasks.size();
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+    refreshTasks.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "AccessTokenRefreshAhead {factor = " + factor
+        + ", expirationTimeThreshold (in secs) = " + expirationTimeThreshold.toSeconds()
+        + '}';
+  }
+
+  /**
+   * A scheduled refresh.
+   */
+  private static class RefreshTask {
+
+    private volatile ScheduledFuture<?> future;
+
+    private volatile boolean read;
+
+    private volatile boolean cancelled;
+
+    private void cancel() {
+      cancelled = true;
+      final ScheduledFuture<?> f = future;
+      if (f != null) {
+        f.cancel(false);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * The successful response of a token endpoint. Only the fields, that are needed by the access
+ * token retrievers, are mapped; all other fields of the response are skipped by the json parser,
+ * so the response body can be decoded as a stream without holding it as a string.
+ *
+ * @author Christian Bremer
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"accessToken"})
+@EqualsAndHashCode
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AccessTokenResponse implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @JsonProperty("access_token")
+  private String accessToken;
+
+  /**
+   * The lifetime in seconds of the access token (can be {@code null}).
+   */
+  @JsonProperty("expires_in")
+  private Long expiresIn;
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import org.bremersee.exception.ServiceException;
+
+/**
+ * Creates the hashed cache keys of the access token retriever properties. The message digest is
+ * created once per thread and reused.
+ *
+ * @author Christian Bremer
+ */
+final class CacheKeyHasher {
+
+  private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal
+      .withInitial(() -> {
+        try {
+          return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+          throw ServiceException.internalServerError("Creating hash failed.", e);
+        }
+      });
+
+  private CacheKeyHasher() {
+  }
+
+  /**
+   * Hash the given cache key with SHA-256 and encode it with Base64.
+   *
+   * @param cacheKey the cache key
+   * @return the hashed cache key or {@code null}, if the cache key is {@code null}
+   */
+  static String hash(String cacheKey) {
+    if (cacheKey == null) {
+      return null;
+    }
+    MessageDigest md = MESSAGE_DIGEST.get();
+    md.reset();
+    byte[] hashBytes = md.digest(cacheKey.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(hashBytes);
+  }
+
+}
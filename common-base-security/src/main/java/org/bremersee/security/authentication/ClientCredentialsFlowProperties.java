@@ -18,6 +18,7 @@ package org.bremersee.security.authentication;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -184,8 +185,8 @@ public interface ClientCredentialsFlowProperties extends AccessTokenRetrieverPro
 
     @Getter
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
-    @ToString(exclude = {"clientSecret"})
-    @EqualsAndHashCode
+    @ToString(exclude = {"clientSecret", "cacheKeyHashed"})
+    @EqualsAndHashCode(exclude = {"cacheKeyHashed"})
     private static class Impl implements ClientCredentialsFlowProperties {
 
       private final String tokenEndpoint;
@@ -195,6 +196,19 @@ public interface ClientCredentialsFlowProperties extends AccessTokenRetrieverPro
       private final String clientSecret;
 
       private final MultiValueMap<String, String> additionalProperties;
+
+      @Getter(AccessLevel.NONE)
+      private final AtomicReference<String> cacheKeyHashed = new AtomicReference<>();
+
+      @Override
+      public String createCacheKeyHashed() {
+        String hashed = cacheKeyHashed.get();
+        if (hashed == null) {
+          hashed = CacheKeyHasher.hash(createCacheKey());
+          cacheKeyHashed.set(hashed);
+        }
+        return hashed;
+      }
     }
   }
 
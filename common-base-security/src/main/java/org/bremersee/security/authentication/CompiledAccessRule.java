@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.security.IpAddressTrie;
+import org.springframework.lang.Nullable;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.StringUtils;
+
+/**
+ * An access rule, that is compiled once from authorities and ip addresses. It is the compiled
+ * counterpart of access expressions like {@code hasAnyAuthority('A','B') or
+ * hasIpAddress('10.0.0.0/8') or isAuthenticated()}: the access is granted, if the authentication
+ * has one of the authorities (a hash set lookup), or if the remote address is one of the ip
+ * addresses (see {@link IpAddressTrie}), or, if it is allowed, if the authentication is not
+ * anonymous. Nothing is parsed or resolved when the rule is evaluated. If there is a role
+ * hierarchy, the authorities of the authentication are expanded by it, like the expression
+ * handler does.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public final class CompiledAccessRule {
+
+  /**
+   * The rule, that permits all.
+   */
+  public static final CompiledAccessRule PERMIT_ALL = new CompiledAccessRule(
+      true, Collections.emptySet(), IpAddressTrie.empty(), false, "permitAll");
+
+  /**
+   * The rule, that denies all.
+   */
+  public static final CompiledAccessRule DENY_ALL = new CompiledAccessRule(
+      false, Collections.emptySet(), IpAddressTrie.empty(), false, "denyAll");
+
+  /**
+   * The rule, that permits all authenticated users.
+   */
+  public static final CompiledAccessRule AUTHENTICATED = new CompiledAccessRule(
+      false, Collections.emptySet(), IpAddressTrie.empty(), true, "isAuthenticated()");
+
+  private final boolean permitAll;
+
+  private final Set<String> authorities;
+
+  private final IpAddressTrie ipAddresses;
+
+  private final boolean authenticated;
+
+  private final String expression;
+
+  private CompiledAccessRule(
+      boolean permitAll,
+      Set<String> authorities,
+      IpAddressTrie ipAddresses,
+      boolean authenticated,
+      String expression) {
+    this.permitAll = permitAll;
+    this.authorities = authorities;
+    this.ipAddresses = ipAddresses;
+    this.authenticated = authenticated;
+    this.expression = expression;
+  }
+
+  /**
+   * Creates a new builder.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the access expression, that has the same meaning as this rule. It can be used, where
+   * only expressions are supported, but then the expression is evaluated instead of this rule.
+   *
+   * @return the access expression
+   */
+  public String getExpression() {
+    return expression;
+  }
+
+  /**
+   * Determines whether the access is granted.
+   *
+   * @param authentication the authentication
+   * @param remoteAddress the remote address literal
+   * @return {@code true} if the access is granted, otherwise {@code false}
+   */
+  public boolean isGranted(
+      @Nullable Authentication authentication,
+      @Nullable String remoteAddress) {
+    return isGranted(authentication, remoteAddress, null);
+  }
+
+  /**
+   * Determines whether the access is granted. The authorities of the authentication are expanded
+   * by the given role hierarchy, if it is present.
+   *
+   * @param authentication the authentication
+   * @param remoteAddress the remote address literal
+   * @param roleHierarchy the role hierarchy
+   * @return {@code true} if the access is granted, otherwise {@code false}
+   */
+  public boolean isGranted(
+      @Nullable Authentication authentication,
+      @Nullable String remoteAddress,
+      @Nullable RoleHierarchy roleHierarchy) {
+
+    if (permitAll) {
+      return true;
+    }
+    if (authentication != null && !authorities.isEmpty()) {
+      final Collection<? extends GrantedAuthority> grantedAuthorities = roleHierarchy != null
+          ? roleHierarchy.getReachableGrantedAuthorities(authentication.getAuthorities())
+          : authentication.getAuthorities();
+      for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+        if (authorities.contains(grantedAuthority.getAuthority())) {
+          return true;
+        }
+      }
+    }
+    if (ipAddresses.matches(remoteAddress)) {
+      return true;
+    }
+    return authenticated
+        && authentication != null
+        && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken);
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  /**
+   * The builder of a compiled access rule.
+   */
+  public static class Builder {
+
+    private final Set<String> authorities = new LinkedHashSet<>();
+
+    private final Set<String> ipAddresses = new LinkedHashSet<>();
+
+    private boolean authenticated;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds the given authorities.
+     *
+     * @param authorities the authorities
+     * @param ensurePrefixFunction the ensure prefix function
+     * @return the builder
+     */
+    public Builder authorities(
+        @Nullable Collection<String> authorities,
+        @Nullable Function<String, String> ensurePrefixFunction) {
+      if (authorities != null) {
+        for (String authority : authorities) {
+          if (StringUtils.hasText(authority)) {
+            this.authorities.add(ensurePrefixFunction != null
+                ? ensurePrefixFunction.apply(authority)
+                : authority);
+          }
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Adds the given ip addresses or ranges (e.g. 192.168.1.0/24).
+     *
+     * @param ipAddresses the ip addresses
+     * @return the builder
+     */
+    public Builder ipAddresses(@Nullable Collection<String> ipAddresses) {
+      if (ipAddresses != null) {
+        for (String ipAddress : ipAddresses) {
+          if (StringUtils.hasText(ipAddress)) {
+            this.ipAddresses.add(ipAddress);
+          }
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Specifies whether the access is granted to all authenticated users.
+     *
+     * @param authenticated the authenticated flag
+     * @return the builder
+     */
+    public Builder authenticated(boolean authenticated) {
+      this.authenticated = authenticated;
+      return this;
+    }
+
+    /**
+     * Builds the compiled access rule. Hostnames of the ip addresses are resolved now; hostnames,
+     * that can't be resolved, are skipped with a warning, so they never match.
+     *
+     * @return the compiled access rule
+     * @throws IllegalArgumentException if an address or a range is illegal
+     */
+    public CompiledAccessRule build() {
+      if (authorities.isEmpty() && ipAddresses.isEmpty()) {
+        return authenticated ? AUTHENTICATED : DENY_ALL;
+      }
+      return new CompiledAccessRule(
+          false,
+          Collections.unmodifiableSet(new HashSet<>(authorities)),
+          IpAddressTrie.of(ipAddresses, hostname -> log.warn(
+              "Hostname {} of access rule can't be resolved and is ignored.", hostname)),
+          authenticated,
+          buildExpression());
+    }
+
+    private String buildExpression() {
+      final StringBuilder sb = new StringBuilder();
+      if (authorities.size() == 1) {
+        sb.append("hasAuthority('").append(authorities.iterator().next()).append("')");
+      } else if (authorities.size() > 1) {
+        sb.append(authorities.stream()
+            .collect(Collectors.joining("','", "hasAnyAuthority('", "')")));
+      }
+      for (String ipAddress : ipAddresses) {
+        sb.append(sb.length() > 0 ? " or " : "")
+            .append("hasIpAddress('").append(ipAddress).append("')");
+      }
+      if (authenticated) {
+        sb.append(" or ").append(AUTHENTICATED.expression);
+      }
+      return sb.toString();
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.validation.constraints.NotNull;
+import lombok.ToString;
+import org.bremersee.exception.ServiceException;
+import org.springframework.lang.Nullable;
+
+/**
+ * The registry of access token requests, that are currently in flight. Concurrent requests with
+ * the same cache key share one {@link CompletableFuture}, so that only one of them calls the token
+ * endpoint.
+ *
+ * @author Christian Bremer
+ */
+@ToString(exclude = {"inFlight"})
+public class InFlightAccessTokenRequests {
+
+  private final ConcurrentMap<String, CompletableFuture<String>> inFlight
+      = new ConcurrentHashMap<>();
+
+  private final LongAdder issuedRequests = new LongAdder();
+
+  private final LongAdder coalescedRequests = new LongAdder();
+
+  /**
+   * Retrieves the access token with the given supplier, if there is no request with the same key
+   * in flight. Otherwise the result of the request, that is in flight, is returned. If the key is
+   * {@code null}, the supplier is always called.
+   *
+   * @param key the (hashed) cache key
+   * @param accessTokenSupplier the access token supplier, that calls the token endpoint
+   * @return the access token
+   */
+  public String retrieve(@Nullable String key, @NotNull Supplier<String> accessTokenSupplier) {
+    if (key == null) {
+      issuedRequests.increment();
+      return accessTokenSupplier.get();
+    }
+    final CompletableFuture<String> future = new CompletableFuture<>();
+    final CompletableFuture<String> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalescedRequests.increment();
+      return join(existing);
+    }
+    issuedRequests.increment();
+    try {
+      final String accessToken = accessTokenSupplier.get();
+      future.complete(accessToken);
+      return accessToken;
+
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private static String join(CompletableFuture<String> future) {
+    try {
+      return future.join();
+
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw ServiceException.internalServerError("Retrieving access token failed.", e);
+    }
+  }
+
+  /**
+   * Gets the number of requests, that were sent to the token endpoint.
+   *
+   * @return the number of issued requests
+   */
+  public long getIssuedRequests() {
+    return issuedRequests.sum();
+  }
+
+  /**
+   * Gets the number of requests, that got the result of another request in flight.
+   *
+   * @return the number of coalesced requests
+   */
+  public long getCoalescedRequests() {
+    return coalescedRequests.sum();
+  }
+
+  /**
+   * Gets the number of requests, that are currently in flight.
+   *
+   * @return the number of requests in flight
+   */
+  public int size() {
+    return inFlight.size();
+  }
+
+}
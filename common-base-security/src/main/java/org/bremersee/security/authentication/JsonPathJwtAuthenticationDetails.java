@@ -16,28 +16,49 @@
 
 package org.bremersee.security.authentication;
 
+import com.jayway.jsonpath.JsonPath;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import org.bremersee.common.model.JavaLocale;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.util.StringUtils;
 
 /**
  * The json path jwt authentication details.
  *
+ * <p>The preferred language and the preferred time zone are read together in one pass over the
+ * claims of the jwt, when one of them is requested the first time. If the authentication is a
+ * {@link JsonPathJwtAuthenticationToken}, the result is kept in the authentication, so the second
+ * call of the same request is a lookup. The resolved locales and time zones are kept in bounded
+ * lookup tables, that are keyed by the raw claim values.
+ *
  * @author Christian Bremer
  */
 public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
 
+  /**
+   * The maximum number of entries of the locale and of the time zone lookup table.
+   */
+  static final int MAX_LOOKUP_SIZE = 1000;
+
+  private static final ConcurrentMap<String, Locale> locales = new ConcurrentHashMap<>();
+
+  private static final ConcurrentMap<String, TimeZone> timeZones = new ConcurrentHashMap<>();
+
   private final Locale defaultLocale;
 
   private final TimeZone defaultTimeZone;
 
-  private final String preferredLanguageJsonPath;
+  private final JsonPath preferredLanguageJsonPath;
 
-  private final String preferredTimeZoneJsonPath;
+  private final JsonPath preferredTimeZoneJsonPath;
 
   /**
    * Instantiates a new json path jwt authentication details.
@@ -54,8 +75,12 @@ public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
       String preferredTimeZoneJsonPath) {
     this.defaultLocale = defaultLocale != null ? defaultLocale : Locale.getDefault();
     this.defaultTimeZone = defaultTimeZone != null ? defaultTimeZone : TimeZone.getDefault();
-    this.preferredLanguageJsonPath = preferredLanguageJsonPath;
-    this.preferredTimeZoneJsonPath = preferredTimeZoneJsonPath;
+    this.preferredLanguageJsonPath = StringUtils.hasText(preferredLanguageJsonPath)
+        ? JsonPathJwtParser.compile(preferredLanguageJsonPath)
+        : null;
+    this.preferredTimeZoneJsonPath = StringUtils.hasText(preferredTimeZoneJsonPath)
+        ? JsonPathJwtParser.compile(preferredTimeZoneJsonPath)
+        : null;
   }
 
   @Override
@@ -70,27 +95,91 @@ public class JsonPathJwtAuthenticationDetails implements AuthenticationDetails {
 
   @Override
   public Optional<Locale> getPreferredLanguage(Authentication authentication) {
-    return Optional.ofNullable(authentication)
-        .filter(auth -> StringUtils.hasText(preferredLanguageJsonPath)
-            && auth instanceof JwtAuthenticationToken)
-        .map(auth -> ((JwtAuthenticationToken) auth).getToken())
-        .map(JsonPathJwtParser::new)
-        .map(parser -> parser.read(preferredLanguageJsonPath, String.class))
-        .map(language -> JavaLocale.fromValue(language).toLocale());
+    if (preferredLanguageJsonPath == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(getDetails(authentication))
+        .map(value -> value.preferredLanguage);
   }
 
   @Override
   public Optional<TimeZone> getPreferredTimeZone(Authentication authentication) {
-    if (!StringUtils.hasText(preferredTimeZoneJsonPath)) {
+    if (preferredTimeZoneJsonPath == null) {
       return Optional.empty();
     }
-    return Optional.ofNullable(authentication)
-        .filter(auth -> StringUtils.hasText(preferredTimeZoneJsonPath)
-            && auth instanceof JwtAuthenticationToken)
-        .map(auth -> ((JwtAuthenticationToken) auth).getToken())
-        .map(JsonPathJwtParser::new)
-        .map(parser -> parser.read(preferredTimeZoneJsonPath, String.class))
-        .map(TimeZone::getTimeZone);
+    return Optional.ofNullable(getDetails(authentication))
+        .map(value -> value.preferredTimeZone)
+        .map(timeZone -> (TimeZone) timeZone.clone());
+  }
+
+  @Nullable
+  private Details getDetails(Authentication authentication) {
+    if (!(authentication instanceof JwtAuthenticationToken)) {
+      return null;
+    }
+    final Jwt jwt = ((JwtAuthenticationToken) authentication).getToken();
+    if (jwt == null) {
+      return null;
+    }
+    final JsonPathJwtAuthenticationToken token
+        = authentication instanceof JsonPathJwtAuthenticationToken
+        ? (JsonPathJwtAuthenticationToken) authentication
+        : null;
+    final Object current = token != null ? token.getAuthenticationDetails() : null;
+    if (current instanceof Details && ((Details) current).owner == this) {
+      return (Details) current;
+    }
+    final JsonPathJwtParser parser = new JsonPathJwtParser(jwt);
+    final Details value = new Details(
+        this,
+        lookup(locales, read(parser, preferredLanguageJsonPath),
+            language -> JavaLocale.fromValue(language).toLocale()),
+        lookup(timeZones, read(parser, preferredTimeZoneJsonPath), TimeZone::getTimeZone));
+    if (token != null) {
+      token.setAuthenticationDetails(value);
+    }
+    return value;
+  }
+
+  @Nullable
+  private static String read(JsonPathJwtParser parser, @Nullable JsonPath jsonPath) {
+    return jsonPath != null ? parser.read(jsonPath, String.class) : null;
+  }
+
+  @Nullable
+  private static <T> T lookup(
+      ConcurrentMap<String, T> table,
+      @Nullable String key,
+      Function<String, T> resolver) {
+    if (key == null) {
+      return null;
+    }
+    final T value = table.get(key);
+    if (value != null) {
+      return value;
+    }
+    if (table.size() >= MAX_LOOKUP_SIZE) {
+      return resolver.apply(key);
+    }
+    return table.computeIfAbsent(key, resolver);
+  }
+
+  private static class Details {
+
+    private final JsonPathJwtAuthenticationDetails owner;
+
+    private final Locale preferredLanguage;
+
+    private final TimeZone preferredTimeZone;
+
+    private Details(
+        JsonPathJwtAuthenticationDetails owner,
+        Locale preferredLanguage,
+        TimeZone preferredTimeZone) {
+      this.owner = owner;
+      this.preferredLanguage = preferredLanguage;
+      this.preferredTimeZone = preferredTimeZone;
+    }
   }
 
 }
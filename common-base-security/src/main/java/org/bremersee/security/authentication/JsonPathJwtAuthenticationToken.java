@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import java.util.Collection;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The jwt authentication token, that is created by the {@link JsonPathJwtConverter}. It keeps the
+ * values, that the {@link JsonPathJwtAuthenticationDetails} read from the jwt, for the lifetime of
+ * the authentication, so they are read only once per authentication.
+ *
+ * @author Christian Bremer
+ */
+public class JsonPathJwtAuthenticationToken extends JwtAuthenticationToken {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient volatile Object authenticationDetails;
+
+  /**
+   * Instantiates a new json path jwt authentication token.
+   *
+   * @param jwt the jwt
+   * @param authorities the authorities
+   * @param name the name
+   */
+  public JsonPathJwtAuthenticationToken(
+      Jwt jwt,
+      Collection<? extends GrantedAuthority> authorities,
+      String name) {
+    super(jwt, authorities, name);
+  }
+
+  /**
+   * Gets the values, that were read from the jwt by the authentication details.
+   *
+   * @return the values or {@code null}
+   */
+  @Nullable
+  Object getAuthenticationDetails() {
+    return authenticationDetails;
+  }
+
+  /**
+   * Sets the values, that were read from the jwt by the authentication details.
+   *
+   * @param authenticationDetails the values
+   */
+  void setAuthenticationDetails(@Nullable Object authenticationDetails) {
+    this.authenticationDetails = authenticationDetails;
+  }
+
+}
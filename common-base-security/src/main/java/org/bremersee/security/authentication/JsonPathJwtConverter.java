@@ -16,6 +16,7 @@
 
 package org.bremersee.security.authentication;
 
+import com.jayway.jsonpath.JsonPath;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,26 +24,32 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.util.StringUtils;
 
 /**
- * The json path jwt converter.
+ * The json path jwt converter. The json paths are compiled, when they are set.
  *
  * @author Christian Bremer
  */
-@ToString(doNotUseGetters = true)
-@EqualsAndHashCode(doNotUseGetters = true)
+@ToString(doNotUseGetters = true,
+    exclude = {"compiledRolesJsonPath", "compiledNameJsonPath", "authenticationCache"})
+@EqualsAndHashCode(doNotUseGetters = true,
+    exclude = {"compiledRolesJsonPath", "compiledNameJsonPath", "authenticationCache"})
 public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationToken> {
 
   private String rolesJsonPath = "$.scope";
 
+  private JsonPath compiledRolesJsonPath = JsonPathJwtParser.compile(rolesJsonPath);
+
   private boolean rolesValueList = false;
 
   private String rolesValueSeparator = " ";
@@ -51,6 +58,16 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
 
   private String nameJsonPath = "$.sub";
 
+  private JsonPath compiledNameJsonPath = JsonPathJwtParser.compile(nameJsonPath);
+
+  /**
+   * The cache of the converted authentications (can be {@code null}).
+   */
+  @Getter
+  @Setter
+  @Nullable
+  private JwtAuthenticationTokenCache authenticationCache;
+
   /**
    * Sets roles json path.
    *
@@ -58,6 +75,7 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
    */
   public void setRolesJsonPath(String rolesJsonPath) {
     if (StringUtils.hasText(rolesJsonPath)) {
+      this.compiledRolesJsonPath = JsonPathJwtParser.compile(rolesJsonPath);
       this.rolesJsonPath = rolesJsonPath;
     }
   }
@@ -100,16 +118,24 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
    */
   public void setNameJsonPath(String nameJsonPath) {
     if (StringUtils.hasText(nameJsonPath)) {
+      this.compiledNameJsonPath = JsonPathJwtParser.compile(nameJsonPath);
       this.nameJsonPath = nameJsonPath;
     }
   }
 
   @Override
   public JwtAuthenticationToken convert(@NonNull final Jwt source) {
+    final JwtAuthenticationTokenCache cache = authenticationCache;
+    return cache != null
+        ? cache.get(source, this::createAuthenticationToken)
+        : createAuthenticationToken(source);
+  }
+
+  private JwtAuthenticationToken createAuthenticationToken(final Jwt source) {
     final JsonPathJwtParser parser = new JsonPathJwtParser(source);
     final List<String> roleValues;
     if (rolesValueList) {
-      final List<?> rawList = parser.read(rolesJsonPath, List.class);
+      final List<?> rawList = parser.read(compiledRolesJsonPath, List.class);
       roleValues = rawList == null
           ? Collections.emptyList()
           : rawList.stream()
@@ -117,7 +143,7 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
               .map(Object::toString)
               .collect(Collectors.toList());
     } else {
-      final String roleValue = parser.read(rolesJsonPath, String.class);
+      final String roleValue = parser.read(compiledRolesJsonPath, String.class);
       if (StringUtils.hasText(roleValue)) {
         roleValues = Arrays.asList(roleValue.split(rolesValueSeparator));
       } else {
@@ -126,11 +152,10 @@ public class JsonPathJwtConverter implements Converter<Jwt, JwtAuthenticationTok
     }
     final Set<GrantedAuthority> authorities = roleValues.stream()
         .filter(roleName -> roleName.trim().length() > 0)
-        .map(roleName -> roleName.startsWith(rolePrefix) ? roleName : rolePrefix + roleName)
-        .map(SimpleGrantedAuthority::new)
+        .map(roleName -> SimpleGrantedAuthorityPool.intern(rolePrefix, roleName))
         .collect(Collectors.toSet());
-    final String name = parser.read(nameJsonPath, String.class);
-    return new JwtAuthenticationToken(
+    final String name = parser.read(compiledNameJsonPath, String.class);
+    return new JsonPathJwtAuthenticationToken(
         source,
         authorities,
         StringUtils.hasText(name) ? name : source.getSubject());
@@ -19,11 +19,11 @@ package org.bremersee.security.authentication;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
-import net.minidev.json.JSONValue;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 /**
- * The json path jwt parser.
+ * The json path jwt parser. The json paths are evaluated directly against the claims map of the
+ * jwt, so the claims are not serialized into a json string and parsed again.
  *
  * @author Christian Bremer
  */
@@ -40,8 +40,17 @@ class JsonPathJwtParser {
    * @param jwt the jwt
    */
   JsonPathJwtParser(Jwt jwt) {
-    final String jsonStr = JSONValue.toJSONString(jwt.getClaims());
-    this.documentContext = JsonPath.parse(jsonStr, jsonPathConf);
+    this.documentContext = JsonPath.using(jsonPathConf).parse(jwt.getClaims());
+  }
+
+  /**
+   * Compiles the given json path.
+   *
+   * @param jsonPath the json path
+   * @return the compiled json path
+   */
+  static JsonPath compile(String jsonPath) {
+    return JsonPath.compile(jsonPath);
   }
 
   /**
@@ -56,4 +65,16 @@ class JsonPathJwtParser {
     return documentContext.read(jsonPath, resultClass);
   }
 
+  /**
+   * Read the value of the given compiled json path.
+   *
+   * @param <T>         the type of the result
+   * @param jsonPath    the compiled json path
+   * @param resultClass the result class
+   * @return the value of the json path
+   */
+  <T> T read(JsonPath jsonPath, Class<T> resultClass) {
+    return documentContext.read(jsonPath, resultClass);
+  }
+
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.validation.constraints.NotNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The cache of the authentications, that are converted from a jwt. The key is the token value, so
+ * a client, that sends the same token again and again, doesn't need the conversion again. The
+ * name and the authorities of the authentication are cached; a new authentication token is created
+ * from them for every request, because spring security sets the details of the authentication. An
+ * entry is only cached, if its jwt has an expiration time, and it is removed when the jwt expires.
+ * If the maximum size is reached, the least recently used entry is removed.
+ *
+ * <p>The cache only replaces the conversion; the jwt is still decoded and validated on every
+ * request before it is converted.
+ *
+ * @author Christian Bremer
+ */
+public class JwtAuthenticationTokenCache {
+
+  private final Map<String, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Instantiates a new jwt authentication token cache.
+   *
+   * @param maxSize the max size
+   */
+  public JwtAuthenticationTokenCache(int maxSize) {
+    final int capacity = Math.max(1, maxSize);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Gets the cached authentication of the given jwt or converts the jwt and caches the result.
+   *
+   * @param jwt the jwt
+   * @param converter the converter
+   * @return the authentication
+   */
+  public JwtAuthenticationToken get(
+      @NotNull Jwt jwt,
+      @NotNull Function<Jwt, JwtAuthenticationToken> converter) {
+
+    final String key = jwt.getTokenValue();
+    final long now = System.currentTimeMillis();
+    synchronized (entries) {
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.expiresAt > now) {
+          hits.increment();
+          return new JsonPathJwtAuthenticationToken(jwt, entry.authorities, entry.name);
+        }
+        entries.remove(key);
+      }
+    }
+    misses.increment();
+    final JwtAuthenticationToken authentication = converter.apply(jwt);
+    final Instant expiresAt = jwt.getExpiresAt();
+    if (authentication != null && expiresAt != null && expiresAt.toEpochMilli() > now) {
+      synchronized (entries) {
+        entries.put(key, new Entry(
+            authentication.getAuthorities(),
+            authentication.getName(),
+            expiresAt.toEpochMilli()));
+      }
+    }
+    return authentication;
+  }
+
+  /**
+   * Gets the number of cache hits.
+   *
+   * @return the hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of cache misses.
+   *
+   * @return the misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the hit rate.
+   *
+   * @return the hit rate (a value between 0 and 1)
+   */
+  public double getHitRate() {
+    final long hitCount = getHits();
+    final long total = hitCount + getMisses();
+    return total > 0L ? (double) hitCount / (double) total : 0.;
+  }
+
+  /**
+   * Gets the number of cached authentications.
+   *
+   * @return the size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JwtAuthenticationTokenCache {size = " + size()
+        + ", hits = " + getHits()
+        + ", misses = " + getMisses()
+        + '}';
+  }
+
+  private static class Entry {
+
+    private final Collection<GrantedAuthority> authorities;
+
+    private final String name;
+
+    private final long expiresAt;
+
+    private Entry(Collection<GrantedAuthority> authorities, String name, long expiresAt) {
+      this.authorities = authorities;
+      this.name = name;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+}
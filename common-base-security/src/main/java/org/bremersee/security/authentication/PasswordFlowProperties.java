@@ -18,6 +18,7 @@ package org.bremersee.security.authentication;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -224,8 +225,8 @@ public interface PasswordFlowProperties extends ClientCredentialsFlowProperties
 
     @Getter
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
-    @ToString(exclude = {"clientSecret", "password"})
-    @EqualsAndHashCode
+    @ToString(exclude = {"clientSecret", "password", "cacheKeyHashed"})
+    @EqualsAndHashCode(exclude = {"cacheKeyHashed"})
     private static class Impl implements PasswordFlowProperties {
 
       private final String tokenEndpoint;
@@ -239,6 +240,19 @@ public interface PasswordFlowProperties extends ClientCredentialsFlowProperties
       private final String password;
 
       private final MultiValueMap<String, String> additionalProperties;
+
+      @Getter(AccessLevel.NONE)
+      private final AtomicReference<String> cacheKeyHashed = new AtomicReference<>();
+
+      @Override
+      public String createCacheKeyHashed() {
+        String hashed = cacheKeyHashed.get();
+        if (hashed == null) {
+          hashed = CacheKeyHasher.hash(createCacheKey());
+          cacheKeyHashed.set(hashed);
+        }
+        return hashed;
+      }
     }
   }
 
@@ -18,8 +18,6 @@ package org.bremersee.security.authentication;
 
 import java.io.IOException;
 import java.util.Optional;
-import net.minidev.json.JSONObject;
-import net.minidev.json.JSONValue;
 import org.bremersee.exception.AccessTokenRetrieverAuthenticationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -42,6 +40,10 @@ public class RestTemplateAccessTokenRetriever implements AccessTokenRetriever<St
 
   private final AccessTokenCache accessTokenCache;
 
+  private final AccessTokenRefreshAhead refreshAhead;
+
+  private final InFlightAccessTokenRequests inFlightRequests = new InFlightAccessTokenRequests();
+
   /**
    * Instantiates a new rest template access token retriever.
    *
@@ -60,42 +62,89 @@ public class RestTemplateAccessTokenRetriever implements AccessTokenRetriever<St
   public RestTemplateAccessTokenRetriever(
       RestTemplate restTemplate,
       AccessTokenCache accessTokenCache) {
+    this(restTemplate, accessTokenCache, null);
+  }
+
+  /**
+   * Instantiates a new rest template access token retriever.
+   *
+   * @param restTemplate the rest template
+   * @param accessTokenCache the access token cache
+   * @param refreshAhead the refresh ahead of cached access tokens (can be {@code null})
+   */
+  public RestTemplateAccessTokenRetriever(
+      RestTemplate restTemplate,
+      AccessTokenCache accessTokenCache,
+      AccessTokenRefreshAhead refreshAhead) {
 
     this.restTemplate = restTemplate;
     this.restTemplate.setErrorHandler(new ErrorHandler());
     this.accessTokenCache = accessTokenCache;
+    this.refreshAhead = refreshAhead;
+  }
+
+  /**
+   * Gets the registry of the access token requests, that are currently in flight.
+   *
+   * @return the in flight access token requests
+   */
+  public InFlightAccessTokenRequests getInFlightRequests() {
+    return inFlightRequests;
   }
 
   @Override
   public String retrieveAccessToken(AccessTokenRetrieverProperties input) {
     final String cacheKey = input.createCacheKeyHashed();
-    return Optional.ofNullable(accessTokenCache)
-        .flatMap(cache -> cache.findAccessToken(cacheKey))
-        .orElseGet(() -> {
-          final HttpHeaders headers = new HttpHeaders();
-          headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-          input.getBasicAuthProperties()
-              .ifPresent(basicAuthProperties -> headers.setBasicAuth(
-                  basicAuthProperties.getUsername(),
-                  basicAuthProperties.getPassword()));
-          final HttpEntity<?> request = new HttpEntity<>(input.createBody(), headers);
-          final String response = restTemplate.exchange(
-              input.getTokenEndpoint(),
-              HttpMethod.POST,
-              request,
-              String.class)
-              .getBody();
-          final JSONObject json = (JSONObject) JSONValue.parse(response);
-          final String accessToken = json.getAsString("access_token");
-          if (StringUtils.hasText(accessToken)) {
-            if (accessTokenCache != null) {
-              accessTokenCache.putAccessToken(cacheKey, accessToken);
-            }
-            return accessToken;
-          }
-          throw new AccessTokenRetrieverAuthenticationException(HttpStatus.UNAUTHORIZED,
-              "There is no access token in the response: " + accessToken);
-        });
+    return findAccessToken(cacheKey)
+        .orElseGet(() -> inFlightRequests.retrieve(cacheKey, () -> findAccessToken(cacheKey)
+            .orElseGet(() -> requestAccessToken(input, cacheKey))));
+  }
+
+  private Optional<String> findAccessToken(String cacheKey) {
+    final Optional<String> accessToken = Optional.ofNullable(accessTokenCache)
+        .flatMap(cache -> cache.findAccessToken(cacheKey));
+    if (refreshAhead != null && accessToken.isPresent()) {
+      refreshAhead.touch(cacheKey);
+    }
+    return accessToken;
+  }
+
+  private String requestAccessToken(AccessTokenRetrieverProperties input, String cacheKey) {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+    input.getBasicAuthProperties()
+        .ifPresent(basicAuthProperties -> headers.setBasicAuth(
+            basicAuthProperties.getUsername(),
+            basicAuthProperties.getPassword()));
+    final HttpEntity<?> request = new HttpEntity<>(input.createBody(), headers);
+    final AccessTokenResponse response = restTemplate.exchange(
+        input.getTokenEndpoint(),
+        HttpMethod.POST,
+        request,
+        AccessTokenResponse.class)
+        .getBody();
+    if (response != null && StringUtils.hasText(response.getAccessToken())) {
+      if (accessTokenCache != null) {
+        final AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(response);
+        accessTokenCache.putAccessToken(cacheKey, entry);
+        scheduleRefresh(input, cacheKey, entry);
+      }
+      return response.getAccessToken();
+    }
+    throw new AccessTokenRetrieverAuthenticationException(HttpStatus.UNAUTHORIZED,
+        "There is no access token in the response.");
+  }
+
+  private void scheduleRefresh(
+      AccessTokenRetrieverProperties input,
+      String cacheKey,
+      AccessTokenCacheEntry entry) {
+    if (refreshAhead != null && cacheKey != null && refreshAhead.isApplicable(input)) {
+      refreshAhead.schedule(
+          cacheKey,
+          entry,
+          () -> inFlightRequests.retrieve(cacheKey, () -> requestAccessToken(input, cacheKey)));
+    }
   }
 
   private static class ErrorHandler extends DefaultResponseErrorHandler {
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.constraints.NotNull;
+import org.bremersee.security.core.AuthorityPool;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * The pool of granted authorities. Authentications, that are created from different tokens, share
+ * the same authority instances and the same authority names (see {@link AuthorityPool}). The pool
+ * is bounded; if it is full, new instances are returned.
+ *
+ * @author Christian Bremer
+ */
+public abstract class SimpleGrantedAuthorityPool {
+
+  /**
+   * The maximum number of pooled authorities.
+   */
+  public static final int MAX_SIZE = 10000;
+
+  private static final ConcurrentMap<String, SimpleGrantedAuthority> pool
+      = new ConcurrentHashMap<>();
+
+  private SimpleGrantedAuthorityPool() {
+  }
+
+  /**
+   * Returns the pooled authority with the given name.
+   *
+   * @param authority the name of the authority
+   * @return the granted authority
+   */
+  public static SimpleGrantedAuthority intern(@NotNull String authority) {
+    SimpleGrantedAuthority grantedAuthority = pool.get(authority);
+    if (grantedAuthority != null) {
+      return grantedAuthority;
+    }
+    if (pool.size() >= MAX_SIZE) {
+      return new SimpleGrantedAuthority(authority);
+    }
+    return pool.computeIfAbsent(authority, key -> new SimpleGrantedAuthority(
+        AuthorityPool.intern(key)));
+  }
+
+  /**
+   * Returns the pooled authority with the given prefix and name. If the name already starts with
+   * the prefix, the prefix is not added again.
+   *
+   * @param prefix the prefix, e. g. {@code SCOPE_}
+   * @param authority the name of the authority
+   * @return the granted authority
+   */
+  public static SimpleGrantedAuthority intern(@NotNull String prefix, @NotNull String authority) {
+    return intern(AuthorityPool.intern(prefix, authority));
+  }
+
+  /**
+   * Returns the number of pooled authorities.
+   *
+   * @return the size
+   */
+  public static int size() {
+    return pool.size();
+  }
+
+}
@@ -22,11 +22,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.validation.constraints.NotNull;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import org.bremersee.security.access.AccessController;
+import org.bremersee.security.access.Ace;
+import org.bremersee.security.access.Acl;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -187,6 +191,23 @@ public interface UserContext extends Principal {
         .orElse(false);
   }
 
+  /**
+   * Filters the given items by the specified permission of this user context (see
+   * {@link AccessController#filter(Stream, Function, String, Collection, Collection, String)}).
+   *
+   * @param <T> the type of the items
+   * @param items the items
+   * @param aclFn the function, that returns the access control list of an item
+   * @param permission the permission
+   * @return the items, that the user is permitted to access
+   */
+  default <T> Stream<T> filter(
+      @NotNull Stream<T> items,
+      @NotNull Function<? super T, ? extends Acl<? extends Ace>> aclFn,
+      @Nullable String permission) {
+    return AccessController.filter(items, aclFn, getUserId(), getRoles(), getGroups(), permission);
+  }
+
   /**
    * The default implementation.
    */
@@ -219,16 +240,15 @@ public interface UserContext extends Principal {
     public Impl(Authentication authentication, Collection<String> groups) {
       this(
           Optional.ofNullable(authentication).map(Principal::getName).orElse(null),
-          Optional.ofNullable(authentication)
-              .map(auth -> auth.getAuthorities().stream()
-                  .map(GrantedAuthority::getAuthority)
-                  .collect(Collectors.toSet()))
-              .orElse(null),
+          authentication != null
+              ? RoleSet.of(authentication.getAuthorities(), GrantedAuthority::getAuthority)
+              : null,
           groups);
     }
 
     /**
-     * Instantiates a new user context.
+     * Instantiates a new user context. The roles are stored as {@link RoleSet}; if they are already
+     * a role set, they are not copied.
      *
      * @param userId the user id
      * @param roles the roles
@@ -236,7 +256,7 @@ public interface UserContext extends Principal {
      */
     public Impl(String userId, Collection<String> roles, Collection<String> groups) {
       this.userId = userId;
-      this.roles = roles != null ? Set.copyOf(roles) : Collections.emptySet();
+      this.roles = RoleSet.of(roles);
       this.groups = groups != null ? Set.copyOf(groups) : Collections.emptySet();
     }
   }
@@ -28,10 +28,17 @@ import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * The user context caller.
  *
+ * <p>The user context is created once per request: if there are request attributes (see
+ * {@link RequestContextHolder}), the user context is stored there and reused by further calls of
+ * the same caller with the same authentication. The groups can additionally be cached across
+ * requests with a {@link UserGroupsCache} (see {@link #setGroupsCache(UserGroupsCache)}).
+ *
  * @author Christian Bremer
  */
 @Validated
@@ -47,10 +54,18 @@ public class UserContextCaller {
    */
   public static final Supplier<ServiceException> FORBIDDEN_SUPPLIER = ServiceException::forbidden;
 
+  /**
+   * The name of the request attribute, that holds the user context of the current request.
+   */
+  public static final String USER_CONTEXT_ATTRIBUTE_NAME = UserContextCaller.class.getName()
+      + ".USER_CONTEXT";
+
   private final Function<Authentication, Set<String>> groupsFn;
 
   private final Supplier<ServiceException> unauthenticatedExceptionSupplier;
 
+  private UserGroupsCache groupsCache;
+
   /**
    * Instantiates a new user context caller.
    */
@@ -109,6 +124,26 @@ public class UserContextCaller {
         : FORBIDDEN_SUPPLIER;
   }
 
+  /**
+   * Sets the cache of the groups. If it is present, the groups function is only called, if the
+   * groups of the user are not in the cache.
+   *
+   * @param groupsCache the groups cache
+   */
+  public void setGroupsCache(@Nullable UserGroupsCache groupsCache) {
+    this.groupsCache = groupsCache;
+  }
+
+  /**
+   * Gets the cache of the groups.
+   *
+   * @return the groups cache
+   */
+  @Nullable
+  public UserGroupsCache getGroupsCache() {
+    return groupsCache;
+  }
+
   /**
    * Call with required user context.
    *
@@ -121,7 +156,7 @@ public class UserContextCaller {
     if (authentication == null || !authentication.isAuthenticated()) {
       throw unauthenticatedExceptionSupplier.get();
     }
-    return function.apply(UserContext.newInstance(authentication, groupsFn.apply(authentication)));
+    return function.apply(getUserContext(authentication));
   }
 
   /**
@@ -136,7 +171,37 @@ public class UserContextCaller {
     if (authentication == null || !authentication.isAuthenticated()) {
       return function.apply(UserContext.newInstance());
     }
-    return function.apply(UserContext.newInstance(authentication, groupsFn.apply(authentication)));
+    return function.apply(getUserContext(authentication));
+  }
+
+  private UserContext getUserContext(Authentication authentication) {
+    final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return UserContext.newInstance(authentication, getGroups(authentication));
+    }
+    final Object value = requestAttributes
+        .getAttribute(USER_CONTEXT_ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+    if (value instanceof RequestUserContext
+        && ((RequestUserContext) value).caller == this
+        && ((RequestUserContext) value).authentication == authentication) {
+      return ((RequestUserContext) value).userContext;
+    }
+    final UserContext userContext = UserContext
+        .newInstance(authentication, getGroups(authentication));
+    requestAttributes.setAttribute(
+        USER_CONTEXT_ATTRIBUTE_NAME,
+        new RequestUserContext(this, authentication, userContext),
+        RequestAttributes.SCOPE_REQUEST);
+    return userContext;
+  }
+
+  private Set<String> getGroups(Authentication authentication) {
+    final UserGroupsCache cache = groupsCache;
+    final String userName = authentication.getName();
+    if (cache == null || userName == null) {
+      return groupsFn.apply(authentication);
+    }
+    return cache.getGroups(userName, () -> groupsFn.apply(authentication));
   }
 
   /**
@@ -184,4 +249,22 @@ public class UserContextCaller {
     }
   }
 
+  private static class RequestUserContext {
+
+    private final UserContextCaller caller;
+
+    private final Authentication authentication;
+
+    private final UserContext userContext;
+
+    private RequestUserContext(
+        UserContextCaller caller,
+        Authentication authentication,
+        UserContext userContext) {
+      this.caller = caller;
+      this.authentication = authentication;
+      this.userContext = userContext;
+    }
+  }
+
 }
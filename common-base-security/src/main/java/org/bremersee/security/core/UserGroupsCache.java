@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.validation.constraints.NotNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * The cache of the groups of the users. The key is the name of the user, so the groups, that are
+ * usually loaded from a directory or a database, are only loaded once per time to live and not on
+ * every request. If the maximum size is reached, the least recently used entry is removed.
+ *
+ * @author Christian Bremer
+ */
+public class UserGroupsCache {
+
+  /**
+   * The default time to live of the cached groups.
+   */
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5L);
+
+  /**
+   * The default maximum number of cached users.
+   */
+  public static final int DEFAULT_MAX_SIZE = 10000;
+
+  private final Map<String, Entry> entries;
+
+  private final long timeToLiveMillis;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Instantiates a new user groups cache with default time to live and default maximum size.
+   */
+  public UserGroupsCache() {
+    this(DEFAULT_TIME_TO_LIVE, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Instantiates a new user groups cache.
+   *
+   * @param timeToLive the time to live of the cached groups
+   * @param maxSize the maximum number of cached users
+   */
+  public UserGroupsCache(@Nullable Duration timeToLive, int maxSize) {
+    this.timeToLiveMillis = (timeToLive != null ? timeToLive : DEFAULT_TIME_TO_LIVE).toMillis();
+    final int capacity = Math.max(1, maxSize);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Find the cached groups of the given user.
+   *
+   * @param userName the user name
+   * @return the groups or {@code null}, if there are no (valid) groups in the cache
+   */
+  @Nullable
+  public Set<String> findGroups(@Nullable String userName) {
+    if (userName == null) {
+      return null;
+    }
+    synchronized (entries) {
+      final Entry entry = entries.get(userName);
+      if (entry != null) {
+        if (entry.expiresAt > System.currentTimeMillis()) {
+          hits.increment();
+          return entry.groups;
+        }
+        entries.remove(userName);
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Put the groups of the given user into the cache.
+   *
+   * @param userName the user name
+   * @param groups the groups
+   * @return the groups as immutable set
+   */
+  public Set<String> putGroups(@NotNull String userName, @Nullable Collection<String> groups) {
+    Assert.notNull(userName, "User name must be present.");
+    final Set<String> value = RoleSet.of(groups);
+    synchronized (entries) {
+      entries.put(userName, new Entry(value, System.currentTimeMillis() + timeToLiveMillis));
+    }
+    return value;
+  }
+
+  /**
+   * Gets the cached groups of the given user or loads and caches them.
+   *
+   * @param userName the user name
+   * @param groupsLoader the groups loader
+   * @return the groups
+   */
+  public Set<String> getGroups(
+      @NotNull String userName,
+      @NotNull Supplier<? extends Collection<String>> groupsLoader) {
+    final Set<String> groups = findGroups(userName);
+    return groups != null ? groups : putGroups(userName, groupsLoader.get());
+  }
+
+  /**
+   * Removes the groups of the given user from the cache.
+   *
+   * @param userName the user name
+   */
+  public void evict(@Nullable String userName) {
+    if (userName != null) {
+      synchronized (entries) {
+        entries.remove(userName);
+      }
+    }
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Gets the number of cache hits.
+   *
+   * @return the hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of cache misses.
+   *
+   * @return the misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of cached users.
+   *
+   * @return the size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "UserGroupsCache {timeToLiveMillis = " + timeToLiveMillis
+        + ", size = " + size()
+        + ", hits = " + getHits()
+        + ", misses = " + getMisses()
+        + '}';
+  }
+
+  private static class Entry {
+
+    private final Set<String> groups;
+
+    private final long expiresAt;
+
+    private Entry(Set<String> groups, long expiresAt) {
+      this.groups = groups;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+}
@@ -19,6 +19,7 @@ package org.bremersee.security;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -53,4 +54,32 @@ class IpAddressMatcherTest {
     assertFalse(matcher.matches("192.169.2.24"));
   }
 
-}
\ No newline at end of file
+  /**
+   * Matches ip addresses.
+   */
+  @Test
+  void matchesIpAddresses() {
+    IpAddressMatcher matcher = new IpAddressMatcher(
+        Arrays.asList("192.168.1.0/24", "10.0.0.0/8"));
+    assertTrue(matcher.matches("192.168.1.23"));
+    assertTrue(matcher.matches("10.1.2.3"));
+    assertFalse(matcher.matches("192.168.2.24"));
+    assertFalse(matcher.matches("localhost"));
+  }
+
+  /**
+   * Refresh.
+   */
+  @Test
+  void refresh() {
+    IpAddressMatcher matcher = new IpAddressMatcher(
+        Arrays.asList("localhost", "192.168.1.0/24"), false);
+    assertTrue(matcher.hasHostnames());
+    assertTrue(matcher.matches("192.168.1.23"));
+    assertFalse(matcher.matches("127.0.0.1"));
+    matcher.refresh();
+    assertTrue(matcher.matches("127.0.0.1"));
+    assertTrue(matcher.matches("192.168.1.23"));
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ip address parser test.
+ *
+ * @author Christian Bremer
+ */
+class IpAddressParserTest {
+
+  /**
+   * Parse literal.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void parseLiteral() throws Exception {
+    String[] literals = {
+        "192.168.1.23",
+        "0.0.0.0",
+        "255.255.255.255",
+        " 10.0.0.1 ",
+        "::",
+        "::1",
+        "1::",
+        "2001:db8::1",
+        "2001:DB8:0:0:8:800:200C:417A",
+        "fe80::1:2:3:4:5:6",
+        "1:2:3:4:5:6:7::",
+        "::ffff:192.168.1.23",
+        "::192.168.1.23",
+        "64:ff9b::192.0.2.33",
+        "[2001:db8::1]",
+        "fe80::1%eth0"
+    };
+    for (String literal : literals) {
+      String expected = literal.trim();
+      int zone = expected.indexOf('%');
+      expected = zone > 0 ? expected.substring(0, zone) : expected;
+      assertArrayEquals(
+          InetAddress.getByName(expected).getAddress(),
+          IpAddressParser.parseLiteral(literal),
+          literal);
+      assertTrue(IpAddressParser.isLiteral(literal), literal);
+    }
+  }
+
+  /**
+   * Parse no literal.
+   */
+  @Test
+  void parseNoLiteral() {
+    String[] values = {
+        null,
+        "",
+        "localhost",
+        "example.org",
+        "192.168.1",
+        "192.168.1.256",
+        "192.168.1.23.1",
+        "1922.168.1.23",
+        "192.168..23",
+        "10.1",
+        ":1",
+        "1:",
+        ":::",
+        "1::2::3",
+        "12345::1",
+        "1:2:3:4:5:6:7:8:9",
+        "1:2:3:4:5:6:7",
+        "1:2:3:4:5:6:7:8::",
+        "g::1",
+        "::ffff:192.168.1",
+        "::192.168.1.23:1",
+        "[::1"
+    };
+    for (String value : values) {
+      assertNull(IpAddressParser.parseLiteral(value), value);
+      assertFalse(IpAddressParser.isLiteral(value), value);
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ip address trie test.
+ *
+ * @author Christian Bremer
+ */
+class IpAddressTrieTest {
+
+  /**
+   * Matches.
+   */
+  @Test
+  void matches() {
+    IpAddressTrie trie = IpAddressTrie.of(
+        "192.168.1.0/24", "10.0.0.0/8", "172.16.1.5", "2001:db8::/32");
+    assertFalse(trie.isEmpty());
+    assertTrue(trie.matches("192.168.1.23"));
+    assertTrue(trie.matches("10.11.12.13"));
+    assertTrue(trie.matches("172.16.1.5"));
+    assertTrue(trie.matches("2001:db8:0:0:0:0:0:1"));
+    assertFalse(trie.matches("192.168.2.23"));
+    assertFalse(trie.matches("11.0.0.1"));
+    assertFalse(trie.matches("172.16.1.6"));
+    assertFalse(trie.matches("2001:db9:0:0:0:0:0:1"));
+    assertTrue(trie.matches(new byte[]{10, 0, 0, 1}));
+    assertFalse(trie.matches(new byte[]{10, 0, 0}));
+    assertFalse(trie.matches((byte[]) null));
+  }
+
+  /**
+   * Matches inet address.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void matchesInetAddress() throws Exception {
+    IpAddressTrie trie = IpAddressTrie.of(Arrays.asList("192.168.1.0/24", "::1"));
+    assertTrue(trie.matches(InetAddress.getByName("192.168.1.23")));
+    assertTrue(trie.matches(InetAddress.getByName("0:0:0:0:0:0:0:1")));
+    assertFalse(trie.matches(InetAddress.getByName("127.0.0.1")));
+  }
+
+  /**
+   * Matches with overlapping ranges.
+   */
+  @Test
+  void matchesWithOverlappingRanges() {
+    IpAddressTrie trie = IpAddressTrie.of("192.168.1.23", "192.168.0.0/16", "192.168.1.0/24");
+    assertTrue(trie.matches("192.168.1.23"));
+    assertTrue(trie.matches("192.168.200.1"));
+    assertFalse(trie.matches("192.169.0.1"));
+
+    trie = IpAddressTrie.of("0.0.0.0/0");
+    assertTrue(trie.matches("8.8.8.8"));
+    assertFalse(trie.matches("2001:db8:0:0:0:0:0:1"));
+  }
+
+  /**
+   * Matches same as mask.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void matchesSameAsMask() throws Exception {
+    String[] ranges = {"192.168.1.0/24", "192.168.1.128/25", "10.1.0.0/15", "10.2.3.4"};
+    IpAddressTrie trie = IpAddressTrie.of(ranges);
+    for (int i = 0; i < 1000; i++) {
+      String address = (i % 2 == 0 ? "192.168." : "10.")
+          + (i % 4) + '.' + (i % 256) + (i % 2 == 0 ? "" : "." + (i % 7));
+      byte[] bytes = InetAddress.getByName(address).getAddress();
+      boolean expected = Arrays.stream(ranges)
+          .anyMatch(range -> matchesMask(range, bytes));
+      assertTrue(expected == trie.matches(address), address);
+    }
+  }
+
+  private static boolean matchesMask(String range, byte[] address) {
+    String[] parts = range.split("/");
+    byte[] required;
+    try {
+      required = InetAddress.getByName(parts[0]).getAddress();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    int bits = parts.length > 1 ? Integer.parseInt(parts[1]) : required.length * 8;
+    for (int i = 0; i < bits; i++) {
+      int mask = 0x80 >>> (i % 8);
+      if ((required[i / 8] & mask) != (address[i / 8] & mask)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Matches with hostnames.
+   */
+  @Test
+  void matchesWithHostnames() {
+    IpAddressTrie trie = IpAddressTrie.of(Arrays.asList("localhost", "10.0.0.0/8"), false);
+    assertTrue(trie.hasHostnames());
+    assertTrue(trie.matches("10.1.2.3"));
+    assertFalse(trie.matches("localhost"));
+    assertFalse(trie.matches("127.0.0.1"));
+
+    trie = IpAddressTrie.of(Collections.singletonList("localhost"), false);
+    assertTrue(trie.isEmpty());
+    assertTrue(trie.hasHostnames());
+
+    trie = IpAddressTrie.of("10.0.0.0/8");
+    assertFalse(trie.hasHostnames());
+  }
+
+  /**
+   * Unresolvable hostnames.
+   */
+  @Test
+  void unresolvableHostnames() {
+    List<String> unresolved = new ArrayList<>();
+    IpAddressTrie trie = IpAddressTrie.of(
+        Arrays.asList("unresolvable.host.invalid", "10.0.0.0/8"), unresolved::add);
+    assertEquals(Collections.singletonList("unresolvable.host.invalid"), unresolved);
+    assertTrue(trie.matches("10.1.2.3"));
+    assertFalse(trie.isEmpty());
+
+    trie = IpAddressTrie.of(
+        Collections.singletonList("unresolvable.host.invalid/24"), unresolved::add);
+    assertTrue(trie.isEmpty());
+    assertEquals(2, unresolved.size());
+
+    assertThrows(IllegalArgumentException.class, () -> IpAddressTrie
+        .of(Collections.singletonList("unresolvable.host.invalid"), (Consumer<String>) null));
+    assertThrows(IllegalArgumentException.class, () -> IpAddressTrie
+        .of(Collections.singletonList("192.168.1.0/x"), unresolved::add));
+  }
+
+  /**
+   * Empty.
+   */
+  @Test
+  void empty() {
+    assertTrue(IpAddressTrie.of(Collections.emptyList()).isEmpty());
+    assertTrue(IpAddressTrie.empty().isEmpty());
+    assertFalse(IpAddressTrie.empty().matches("127.0.0.1"));
+  }
+
+  /**
+   * Illegal bitmask.
+   */
+  @Test
+  void illegalBitmask() {
+    assertThrows(IllegalArgumentException.class, () -> IpAddressTrie.of("192.168.1.0/33"));
+    assertThrows(IllegalArgumentException.class, () -> IpAddressTrie.of("192.168.1.0/x"));
+  }
+
+}
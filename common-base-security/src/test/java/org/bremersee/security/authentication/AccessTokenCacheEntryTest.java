@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The access token cache entry test.
+ *
+ * @author Christian Bremer
+ */
+class AccessTokenCacheEntryTest {
+
+  private static final Date exp = new Date(
+      System.currentTimeMillis() + Duration.ofDays(300).toMillis());
+
+  private static final String plainAccessTokenWithExp = new PlainJWT(new JWTClaimsSet.Builder()
+      .subject("subject")
+      .expirationTime(exp)
+      .jwtID(UUID.randomUUID().toString())
+      .build())
+      .serialize();
+
+  /**
+   * Of access token with expiration time.
+   */
+  @Test
+  void ofAccessTokenWithExpirationTime() {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(plainAccessTokenWithExp);
+    assertEquals(plainAccessTokenWithExp, entry.getAccessToken());
+    assertTrue(entry.hasExpirationTime());
+    assertEquals(exp.getTime() / 1000L, entry.getExpiresAt() / 1000L);
+    assertTrue(entry.getExpirationTime().isPresent());
+    assertFalse(entry.isExpired(Duration.ofSeconds(20L)));
+    assertFalse(entry.isExpired(null));
+    assertTrue(entry.isExpired(Duration.ofDays(301L)));
+  }
+
+  /**
+   * Of invalid access token.
+   */
+  @Test
+  void ofInvalidAccessToken() {
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(UUID.randomUUID().toString());
+    assertFalse(entry.hasExpirationTime());
+    assertEquals(AccessTokenCacheEntry.NO_EXPIRATION_TIME, entry.getExpiresAt());
+    assertTrue(entry.getExpirationTime().isEmpty());
+    assertTrue(entry.isExpired(null));
+  }
+
+  /**
+   * Of access token response.
+   */
+  @Test
+  void ofAccessTokenResponse() {
+    String opaque = UUID.randomUUID().toString();
+    AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(new AccessTokenResponse(opaque, 300L));
+    assertEquals(opaque, entry.getAccessToken());
+    assertTrue(entry.hasExpirationTime());
+    assertFalse(entry.isExpired(Duration.ofSeconds(20L)));
+    assertTrue(entry.isExpired(Duration.ofSeconds(301L)));
+
+    entry = AccessTokenCacheEntry.of(new AccessTokenResponse(plainAccessTokenWithExp, null));
+    assertEquals(exp.getTime() / 1000L, entry.getExpiresAt() / 1000L);
+
+    entry = AccessTokenCacheEntry.of(new AccessTokenResponse(opaque, null));
+    assertFalse(entry.hasExpirationTime());
+  }
+
+}
@@ -19,7 +19,14 @@ package org.bremersee.security.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterAll;
@@ -60,6 +67,82 @@ class AccessTokenCacheImplTest {
     assertEquals(value, result.get());
   }
 
+  /**
+   * Put and find access tokens.
+   */
+  @Test
+  void putAndFindAccessTokens() {
+    Map<String, String> accessTokens = new LinkedHashMap<>();
+    accessTokens.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    accessTokens.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    cache.putAccessTokens(accessTokens);
+    List<String> keys = new ArrayList<>(accessTokens.keySet());
+    keys.add(UUID.randomUUID().toString());
+    Map<String, String> result = cache.findAccessTokens(keys);
+    assertEquals(accessTokens, result);
+  }
+
+  /**
+   * Put and find access token with expiration time.
+   */
+  @Test
+  void putAndFindAccessTokenWithExpirationTime() {
+    AccessTokenCacheImpl defaultCache = new AccessTokenCacheImpl(Duration.ofSeconds(10L), "jwt_");
+    try {
+      String key = UUID.randomUUID().toString();
+      String notExpired = createAccessToken(Duration.ofHours(1L));
+      defaultCache.putAccessToken(key, notExpired);
+      Optional<String> result = defaultCache.findAccessToken(key);
+      assertTrue(result.isPresent());
+      assertEquals(notExpired, result.get());
+
+      String expiredKey = UUID.randomUUID().toString();
+      defaultCache.putAccessToken(expiredKey, createAccessToken(Duration.ofSeconds(5L)));
+      assertTrue(defaultCache.findAccessToken(expiredKey).isEmpty());
+
+      String invalidKey = UUID.randomUUID().toString();
+      defaultCache.putAccessToken(invalidKey, UUID.randomUUID().toString());
+      assertTrue(defaultCache.findAccessToken(invalidKey).isEmpty());
+
+    } finally {
+      defaultCache.destroy();
+    }
+  }
+
+  /**
+   * Put and find opaque access token.
+   */
+  @Test
+  void putAndFindOpaqueAccessToken() {
+    AccessTokenCacheImpl defaultCache = new AccessTokenCacheImpl(Duration.ofSeconds(10L), "jwt_");
+    try {
+      String key = UUID.randomUUID().toString();
+      String opaque = UUID.randomUUID().toString();
+      defaultCache.putAccessToken(key, AccessTokenCacheEntry.of(
+          new AccessTokenResponse(opaque, 300L)));
+      Optional<String> result = defaultCache.findAccessToken(key);
+      assertTrue(result.isPresent());
+      assertEquals(opaque, result.get());
+
+      String expiredKey = UUID.randomUUID().toString();
+      defaultCache.putAccessToken(expiredKey, AccessTokenCacheEntry.of(
+          new AccessTokenResponse(UUID.randomUUID().toString(), 5L)));
+      assertTrue(defaultCache.findAccessToken(expiredKey).isEmpty());
+
+    } finally {
+      defaultCache.destroy();
+    }
+  }
+
+  private static String createAccessToken(Duration expiresIn) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .subject("subject")
+        .expirationTime(new Date(System.currentTimeMillis() + expiresIn.toMillis()))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
   /**
    * Destroy.
    */
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The access token refresh ahead test.
+ *
+ * @author Christian Bremer
+ */
+class AccessTokenRefreshAheadTest {
+
+  /**
+   * Is applicable.
+   */
+  @Test
+  void isApplicable() {
+    AccessTokenRefreshAhead refreshAhead = new AccessTokenRefreshAhead();
+    try {
+      assertTrue(refreshAhead.isApplicable(ClientCredentialsFlowProperties.builder().build()));
+      assertFalse(refreshAhead.isApplicable(PasswordFlowProperties.builder().build()));
+    } finally {
+      refreshAhead.destroy();
+    }
+  }
+
+  /**
+   * Schedule.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void schedule() throws Exception {
+    AccessTokenRefreshAhead refreshAhead = new AccessTokenRefreshAhead(0.5, Duration.ZERO, 1);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      AccessTokenCacheEntry entry = new AccessTokenCacheEntry(
+          UUID.randomUUID().toString(),
+          System.currentTimeMillis() + 200L);
+      refreshAhead.schedule("key", entry, latch::countDown);
+      assertEquals(1, refreshAhead.size());
+      refreshAhead.touch("key");
+      assertTrue(latch.await(5L, TimeUnit.SECONDS));
+
+      refreshAhead.schedule("expired", new AccessTokenCacheEntry("token", 0L), () -> {
+      });
+      refreshAhead.schedule("none", AccessTokenCacheEntry.of("token", null), () -> {
+      });
+      assertEquals(0, refreshAhead.size());
+
+    } finally {
+      refreshAhead.destroy();
+    }
+  }
+
+  /**
+   * Schedule without read.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void scheduleWithoutRead() throws Exception {
+    AccessTokenRefreshAhead refreshAhead = new AccessTokenRefreshAhead(0.5, Duration.ZERO, 1);
+    try {
+      AtomicInteger refreshes = new AtomicInteger();
+      refreshAhead.schedule(
+          "key",
+          new AccessTokenCacheEntry("token", System.currentTimeMillis() + 100L),
+          refreshes::incrementAndGet);
+      assertEquals(1, refreshAhead.size());
+      Thread.sleep(500L);
+      assertEquals(0, refreshes.get());
+      assertEquals(0, refreshAhead.size());
+
+    } finally {
+      refreshAhead.destroy();
+    }
+  }
+
+  /**
+   * Schedule within expiration time threshold.
+   */
+  @Test
+  void scheduleWithinExpirationTimeThreshold() {
+    AccessTokenRefreshAhead refreshAhead = new AccessTokenRefreshAhead(
+        0.5, Duration.ofSeconds(20L), 1);
+    try {
+      refreshAhead.schedule(
+          "key",
+          new AccessTokenCacheEntry("token", System.currentTimeMillis() + 15000L),
+          () -> {
+          });
+      assertEquals(0, refreshAhead.size());
+
+    } finally {
+      refreshAhead.destroy();
+    }
+  }
+
+  /**
+   * Illegal factor.
+   */
+  @Test
+  void illegalFactor() {
+    assertThrows(IllegalArgumentException.class, () -> new AccessTokenRefreshAhead(1.5));
+  }
+
+}
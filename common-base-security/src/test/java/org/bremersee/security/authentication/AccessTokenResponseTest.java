@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The access token response test.
+ *
+ * @author Christian Bremer
+ */
+class AccessTokenResponseTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Read value.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void readValue() throws Exception {
+    String json = "{\"access_token\":\"token-value\",\"expires_in\":300,"
+        + "\"refresh_expires_in\":1800,\"not-before-policy\":0,"
+        + "\"scope\":\"profile email\",\"extra\":{\"a\":[1,2,3]}}";
+    AccessTokenResponse response = objectMapper.readValue(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+        AccessTokenResponse.class);
+    assertEquals("token-value", response.getAccessToken());
+    assertEquals(300L, response.getExpiresIn());
+    assertFalse(response.toString().contains("token-value"));
+  }
+
+  /**
+   * Read value without access token.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void readValueWithoutAccessToken() throws Exception {
+    AccessTokenResponse response = objectMapper.readValue(
+        "{\"illegal_token\":\"token-value\"}",
+        AccessTokenResponse.class);
+    assertNull(response.getAccessToken());
+    assertNull(response.getExpiresIn());
+  }
+
+}
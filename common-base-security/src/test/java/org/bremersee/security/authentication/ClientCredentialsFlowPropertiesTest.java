@@ -19,8 +19,12 @@ package org.bremersee.security.authentication;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.Optional;
 import org.bremersee.security.authentication.ClientCredentialsFlowProperties.Builder;
 import org.junit.jupiter.api.Test;
@@ -138,4 +142,23 @@ class ClientCredentialsFlowPropertiesTest {
     assertFalse(actual.containsKey("client_id"));
     assertFalse(actual.containsKey("client_secret"));
   }
-}
\ No newline at end of file
+
+  /**
+   * Create cache key hashed.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void createCacheKeyHashed() throws Exception {
+    ClientCredentialsFlowProperties properties = ClientCredentialsFlowProperties.builder()
+        .clientId("foo")
+        .clientSecret("bar")
+        .tokenEndpoint("http://localhost/token")
+        .build();
+    String expected = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256")
+        .digest(properties.createCacheKey().getBytes(StandardCharsets.UTF_8)));
+    assertEquals(expected, properties.createCacheKeyHashed());
+    assertSame(properties.createCacheKeyHashed(), properties.createCacheKeyHashed());
+    assertEquals(properties, ClientCredentialsFlowProperties.builder().from(properties).build());
+  }
+}
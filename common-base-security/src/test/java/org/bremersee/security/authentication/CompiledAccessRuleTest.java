@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * The compiled access rule test.
+ *
+ * @author Christian Bremer
+ */
+class CompiledAccessRuleTest {
+
+  private final Authentication admin = new TestingAuthenticationToken(
+      "admin", "pass", "ROLE_USER", "ROLE_ADMIN");
+
+  private final Authentication user = new TestingAuthenticationToken(
+      "user", "pass", "ROLE_USER");
+
+  private final Authentication anonymous = new AnonymousAuthenticationToken(
+      "key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+  /**
+   * Is granted.
+   */
+  @Test
+  void isGranted() {
+    CompiledAccessRule rule = CompiledAccessRule.builder()
+        .authorities(Arrays.asList("ADMIN", "ROLE_ACTUATOR"),
+            role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+        .ipAddresses(Arrays.asList("192.168.1.0/24", "::1"))
+        .build();
+    assertEquals(
+        "hasAnyAuthority('ROLE_ADMIN','ROLE_ACTUATOR') "
+            + "or hasIpAddress('192.168.1.0/24') or hasIpAddress('::1')",
+        rule.getExpression());
+    assertTrue(rule.isGranted(admin, null));
+    assertFalse(rule.isGranted(user, null));
+    assertFalse(rule.isGranted(user, "192.168.2.1"));
+    assertTrue(rule.isGranted(user, "192.168.1.1"));
+    assertTrue(rule.isGranted(anonymous, "0:0:0:0:0:0:0:1"));
+    assertFalse(rule.isGranted(anonymous, "localhost"));
+    assertFalse(rule.isGranted(null, null));
+  }
+
+  /**
+   * Is granted with authenticated fallback.
+   */
+  @Test
+  void isGrantedWithAuthenticatedFallback() {
+    CompiledAccessRule rule = CompiledAccessRule.builder()
+        .ipAddresses(Collections.singletonList("10.0.0.0/8"))
+        .authenticated(true)
+        .build();
+    assertEquals("hasIpAddress('10.0.0.0/8') or isAuthenticated()", rule.getExpression());
+    assertTrue(rule.isGranted(user, null));
+    assertTrue(rule.isGranted(anonymous, "10.1.2.3"));
+    assertFalse(rule.isGranted(anonymous, "11.1.2.3"));
+
+    assertSame(CompiledAccessRule.AUTHENTICATED,
+        CompiledAccessRule.builder().authenticated(true).build());
+    assertTrue(CompiledAccessRule.AUTHENTICATED.isGranted(user, null));
+    assertFalse(CompiledAccessRule.AUTHENTICATED.isGranted(anonymous, null));
+  }
+
+  /**
+   * Is granted with role hierarchy.
+   */
+  @Test
+  void isGrantedWithRoleHierarchy() {
+    CompiledAccessRule rule = CompiledAccessRule.builder()
+        .authorities(Collections.singletonList("ROLE_ADMIN"), null)
+        .build();
+    RoleHierarchyImpl roleHierarchy = new RoleHierarchyImpl();
+    roleHierarchy.setHierarchy("ROLE_SUPER > ROLE_ADMIN");
+    Authentication superUser = new TestingAuthenticationToken("super", "pass", "ROLE_SUPER");
+    assertFalse(rule.isGranted(superUser, null));
+    assertFalse(rule.isGranted(superUser, null, null));
+    assertTrue(rule.isGranted(superUser, null, roleHierarchy));
+    assertTrue(rule.isGranted(admin, null, roleHierarchy));
+    assertFalse(rule.isGranted(user, null, roleHierarchy));
+  }
+
+  /**
+   * Build with unresolvable hostname.
+   */
+  @Test
+  void buildWithUnresolvableHostname() {
+    CompiledAccessRule rule = CompiledAccessRule.builder()
+        .ipAddresses(Arrays.asList("unresolvable.host.invalid", "10.0.0.0/8"))
+        .build();
+    assertEquals(
+        "hasIpAddress('unresolvable.host.invalid') or hasIpAddress('10.0.0.0/8')",
+        rule.getExpression());
+    assertTrue(rule.isGranted(null, "10.1.2.3"));
+    assertFalse(rule.isGranted(null, "11.1.2.3"));
+    assertThrows(IllegalArgumentException.class, () -> CompiledAccessRule.builder()
+        .ipAddresses(Collections.singletonList("10.0.0.0/x"))
+        .build());
+  }
+
+  /**
+   * Permit and deny all.
+   */
+  @Test
+  void permitAndDenyAll() {
+    assertTrue(CompiledAccessRule.PERMIT_ALL.isGranted(null, null));
+    assertFalse(CompiledAccessRule.DENY_ALL.isGranted(admin, "127.0.0.1"));
+    assertSame(CompiledAccessRule.DENY_ALL, CompiledAccessRule.builder().build());
+    assertEquals("permitAll", CompiledAccessRule.PERMIT_ALL.toString());
+  }
+
+}
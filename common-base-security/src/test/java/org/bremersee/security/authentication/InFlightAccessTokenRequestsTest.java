@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bremersee.exception.ServiceException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The in flight access token requests test.
+ *
+ * @author Christian Bremer
+ */
+class InFlightAccessTokenRequestsTest {
+
+  /**
+   * Concurrent requests are coalesced.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void retrieve() throws Exception {
+    InFlightAccessTokenRequests requests = new InFlightAccessTokenRequests();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      results.add(executor.submit(() -> requests.retrieve("key", () -> {
+        calls.incrementAndGet();
+        try {
+          release.await(5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "token";
+      })));
+      while (requests.size() == 0) {
+        Thread.sleep(5L);
+      }
+      for (int i = 0; i < 3; i++) {
+        results.add(executor.submit(() -> requests.retrieve("key", () -> {
+          calls.incrementAndGet();
+          return "other";
+        })));
+      }
+      while (requests.getCoalescedRequests() < 3L) {
+        Thread.sleep(5L);
+      }
+      release.countDown();
+      for (Future<String> result : results) {
+        assertEquals("token", result.get(5L, TimeUnit.SECONDS));
+      }
+      assertEquals(1, calls.get());
+      assertEquals(1L, requests.getIssuedRequests());
+      assertEquals(3L, requests.getCoalescedRequests());
+      assertEquals(0, requests.size());
+
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Retrieve fails.
+   */
+  @Test
+  void retrieveFails() {
+    InFlightAccessTokenRequests requests = new InFlightAccessTokenRequests();
+    assertThrows(ServiceException.class, () -> requests.retrieve("key", () -> {
+      throw ServiceException.badRequest();
+    }));
+    assertEquals("token", requests.retrieve("key", () -> "token"));
+    assertEquals("token", requests.retrieve(null, () -> "token"));
+    assertEquals(3L, requests.getIssuedRequests());
+    assertEquals(0, requests.size());
+  }
+
+}
@@ -18,6 +18,10 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -112,6 +116,44 @@ class JsonPathJwtAuthenticationDetailsTest {
     assertFalse(actual.isPresent());
   }
 
+  /**
+   * Gets preferred language and time zone of the same authentication.
+   */
+  @Test
+  void getPreferredLanguageAndTimeZoneOfSameAuthentication() {
+    JwtAuthenticationToken authentication = createJwtAuthenticationToken(
+        Locale.GERMANY.toString(), "Europe/Berlin");
+    Locale locale = details.getPreferredLanguage(authentication).orElse(null);
+    assertEquals(Locale.GERMANY, locale);
+    assertSame(locale, details.getPreferredLanguage(authentication).orElse(null));
+    assertSame(locale, details.getPreferredLanguage(createJwtAuthenticationToken(
+        Locale.GERMANY.toString(), null)).orElse(null));
+
+    TimeZone timeZone = details.getPreferredTimeZone(authentication).orElse(null);
+    assertEquals(TimeZone.getTimeZone("Europe/Berlin"), timeZone);
+    assertEquals(timeZone, details.getPreferredTimeZone(authentication).orElse(null));
+    assertNotSame(timeZone, details.getPreferredTimeZone(authentication).orElse(null));
+  }
+
+  /**
+   * Gets preferred language and time zone of json path jwt authentication token.
+   */
+  @Test
+  void getPreferredLanguageAndTimeZoneOfJsonPathJwtAuthenticationToken() {
+    JsonPathJwtAuthenticationToken authentication = new JsonPathJwtAuthenticationToken(
+        createJwt(Locale.GERMANY.toString(), "Europe/Berlin"),
+        Collections.emptySet(),
+        "anna");
+    assertNull(authentication.getAuthenticationDetails());
+    assertEquals(Locale.GERMANY, details.getPreferredLanguage(authentication).orElse(null));
+    Object values = authentication.getAuthenticationDetails();
+    assertNotNull(values);
+    assertEquals(
+        TimeZone.getTimeZone("Europe/Berlin"),
+        details.getPreferredTimeZone(authentication).orElse(null));
+    assertSame(values, authentication.getAuthenticationDetails());
+  }
+
   private JwtAuthenticationToken createJwtAuthenticationToken(String locale, String timeZone) {
     return new JwtAuthenticationToken(createJwt(locale, timeZone));
   }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * The jwt authentication token cache test.
+ *
+ * @author Christian Bremer
+ */
+class JwtAuthenticationTokenCacheTest {
+
+  /**
+   * Get.
+   */
+  @Test
+  void get() {
+    JsonPathJwtConverter converter = new JsonPathJwtConverter();
+    AtomicInteger conversions = new AtomicInteger();
+    JwtAuthenticationTokenCache cache = new JwtAuthenticationTokenCache(1);
+
+    Jwt jwt = createJwt(Duration.ofMinutes(5L));
+    JwtAuthenticationToken first = cache.get(jwt, source -> {
+      conversions.incrementAndGet();
+      return converter.convert(source);
+    });
+    JwtAuthenticationToken second = cache.get(jwt, source -> {
+      conversions.incrementAndGet();
+      return converter.convert(source);
+    });
+    assertEquals(1, conversions.get());
+    assertNotSame(first, second);
+    assertEquals(first.getName(), second.getName());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+    assertSame(
+        first.getAuthorities().iterator().next(),
+        second.getAuthorities().iterator().next());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(0.5, cache.getHitRate());
+    assertEquals(1, cache.size());
+
+    cache.get(createJwt(Duration.ofMinutes(5L)), converter::convert);
+    assertEquals(1, cache.size());
+  }
+
+  /**
+   * Get expired.
+   */
+  @Test
+  void getExpired() {
+    JsonPathJwtConverter converter = new JsonPathJwtConverter();
+    JwtAuthenticationTokenCache cache = new JwtAuthenticationTokenCache(10);
+    Jwt jwt = createJwt(Duration.ofSeconds(-5L));
+    cache.get(jwt, converter::convert);
+    cache.get(jwt, converter::convert);
+    assertEquals(0, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Convert with cache.
+   */
+  @Test
+  void convertWithCache() {
+    JsonPathJwtConverter converter = new JsonPathJwtConverter();
+    JwtAuthenticationTokenCache cache = new JwtAuthenticationTokenCache(10);
+    converter.setAuthenticationCache(cache);
+    Jwt jwt = createJwt(Duration.ofMinutes(5L));
+    JwtAuthenticationToken first = converter.convert(jwt);
+    JwtAuthenticationToken second = converter.convert(jwt);
+    assertEquals(first.getName(), second.getName());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+    assertEquals(1, cache.getHits());
+  }
+
+  private static Jwt createJwt(Duration expiresIn) {
+    Instant issuedAt = Instant.now().minus(Duration.ofMinutes(1L));
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("sub", UUID.randomUUID().toString());
+    claims.put("scope", "email profile");
+    return new Jwt(
+        UUID.randomUUID().toString(),
+        issuedAt,
+        Instant.now().plus(expiresIn),
+        Collections.singletonMap("alg", "none"),
+        claims);
+  }
+
+}
@@ -47,7 +47,8 @@ class RestTemplateAccessTokenRetrieverTest {
     //noinspection unchecked
     when(restTemplate.exchange(
         anyString(), any(HttpMethod.class), any(HttpEntity.class), any(Class.class)))
-        .thenReturn(ResponseEntity.ok("{\"access_token\":\"junit_access_token_value\"}"));
+        .thenReturn(ResponseEntity.ok(
+            new AccessTokenResponse("junit_access_token_value", 300L)));
     RestTemplateAccessTokenRetriever tokenRetriever = new RestTemplateAccessTokenRetriever(
         restTemplate);
 
@@ -72,7 +73,7 @@ class RestTemplateAccessTokenRetrieverTest {
     //noinspection unchecked
     when(restTemplate.exchange(
         anyString(), any(HttpMethod.class), any(HttpEntity.class), any(Class.class)))
-        .thenReturn(ResponseEntity.ok("{\"illegal_token\":\"junit_access_token_value\"}"));
+        .thenReturn(ResponseEntity.ok(new AccessTokenResponse()));
     RestTemplateAccessTokenRetriever tokenRetriever = new RestTemplateAccessTokenRetriever(
         restTemplate);
 
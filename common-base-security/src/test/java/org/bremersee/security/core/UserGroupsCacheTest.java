@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The user groups cache test.
+ *
+ * @author Christian Bremer
+ */
+class UserGroupsCacheTest {
+
+  /**
+   * Gets groups.
+   */
+  @Test
+  void getGroups() {
+    UserGroupsCache cache = new UserGroupsCache(Duration.ofMinutes(1L), 1);
+    assertNull(cache.findGroups("anna"));
+    Set<String> groups = cache.getGroups("anna", () -> Set.of("a", "b"));
+    assertEquals(Set.of("a", "b"), groups);
+    assertSame(groups, cache.getGroups("anna", () -> Set.of("c")));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+
+    cache.putGroups("livia", Set.of("c"));
+    assertEquals(1, cache.size());
+    assertNull(cache.findGroups("anna"));
+
+    cache.evict("livia");
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Find expired groups.
+   */
+  @Test
+  void findExpiredGroups() {
+    UserGroupsCache cache = new UserGroupsCache(Duration.ofMillis(-1L), 10);
+    cache.putGroups("anna", Set.of("a"));
+    assertNull(cache.findGroups("anna"));
+    assertEquals(0, cache.size());
+  }
+
+}
@@ -16,13 +16,16 @@
 
 package org.bremersee.security;
 
-import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.util.Optional;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * The type Reactive ip address matcher.
@@ -41,6 +44,45 @@ public class ReactiveIpAddressMatcher extends IpAddressMatcher implements Server
     super(ipAddress);
   }
 
+  /**
+   * Takes specific IP addresses or ranges specified using the IP/Netmask (e.g. 192.168.1.0/24 or
+   * 202.24.0.0/14). The matcher matches, if one of them matches.
+   *
+   * @param ipAddresses the addresses or ranges of addresses from which the request must come.
+   */
+  public ReactiveIpAddressMatcher(Collection<String> ipAddresses) {
+    super(ipAddresses);
+  }
+
+  /**
+   * Takes specific IP addresses or ranges specified using the IP/Netmask (e.g. 192.168.1.0/24 or
+   * 202.24.0.0/14). The matcher matches, if one of them matches.
+   *
+   * @param ipAddresses the addresses or ranges of addresses from which the request must come.
+   * @param resolveHostnames specifies whether hostnames should be resolved now (this may block);
+   *     otherwise they don't match until they are resolved by {@link #refresh()}
+   */
+  public ReactiveIpAddressMatcher(Collection<String> ipAddresses, boolean resolveHostnames) {
+    super(ipAddresses, resolveHostnames);
+  }
+
+  /**
+   * Resolves the configured hostnames in the background now and then periodically. Resolving may
+   * block, so the scheduler should be one for blocking tasks (e.g. bounded elastic). Nothing is
+   * scheduled, if there are no hostnames.
+   *
+   * @param scheduler the scheduler
+   * @param interval the interval
+   * @return the scheduled refresh, that should be disposed, when the matcher is not used any more
+   */
+  public Disposable scheduleRefresh(Scheduler scheduler, Duration interval) {
+    if (!hasHostnames()) {
+      return Disposables.disposed();
+    }
+    return scheduler.schedulePeriodically(
+        this::refresh, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
   /**
    * Checks whether the remote address of the request matches the ip of this matcher.
    *
@@ -48,13 +90,11 @@ public class ReactiveIpAddressMatcher extends IpAddressMatcher implements Server
    * @return {@code true} if the remote adaress matches, otherwise {@code false}
    */
   public boolean matchesRemoteAddress(ServerWebExchange exchange) {
-    return Optional.ofNullable(exchange)
-        .map(ServerWebExchange::getRequest)
-        .map(ServerHttpRequest::getRemoteAddress)
-        .map(InetSocketAddress::getAddress)
-        .map(InetAddress::getHostAddress)
-        .map(this::matches)
-        .orElse(false);
+    if (exchange == null || exchange.getRequest() == null) {
+      return false;
+    }
+    final InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+    return remoteAddress != null && matches(remoteAddress.getAddress());
   }
 
   @Override
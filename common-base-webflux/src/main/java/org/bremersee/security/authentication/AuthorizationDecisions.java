@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.bremersee.security.authentication;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * The shared authorization decisions of the authorization managers. An authorization decision
+ * is immutable, so the managers don't need to create new ones on every request.
+ *
+ * @author Christian Bremer
+ */
+abstract class AuthorizationDecisions {
+
+  /**
+   * The granted decision.
+   */
+  static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+  /**
+   * The denied decision.
+   */
+  static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+  /**
+   * The publisher of the granted decision.
+   */
+  static final Mono<AuthorizationDecision> GRANTED_MONO = Mono.just(GRANTED);
+
+  /**
+   * The publisher of the denied decision.
+   */
+  static final Mono<AuthorizationDecision> DENIED_MONO = Mono.just(DENIED);
+
+  private AuthorizationDecisions() {
+  }
+
+  /**
+   * Returns the decision of the given value.
+   *
+   * @param granted the granted flag
+   * @return the decision
+   */
+  static AuthorizationDecision of(boolean granted) {
+    return granted ? GRANTED : DENIED;
+  }
+
+  /**
+   * Decides whether the authentication is authenticated and not anonymous (like {@link
+   * org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager}).
+   *
+   * @param authentication the authentication
+   * @return the decision
+   */
+  static Mono<AuthorizationDecision> authenticated(Mono<Authentication> authentication) {
+    return authentication
+        .map(auth -> of(auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)))
+        .defaultIfEmpty(DENIED);
+  }
+
+}
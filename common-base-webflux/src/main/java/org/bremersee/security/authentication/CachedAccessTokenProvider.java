@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * An access token provider, that holds the current access token of another provider. The current
+ * access token can be read without subscribing to anything (see {@link #getCurrentAccessToken()}).
+ * It is refreshed in the background, when a fraction of its remaining lifetime has passed, and on
+ * demand, when it is missing or expired. The background refresh is only done, if the access token
+ * was read since it was retrieved; otherwise the provider stops refreshing and the next caller
+ * gets a new access token on demand. So an unused provider doesn't refresh its token forever.
+ *
+ * <p>This provider is only useful for access tokens, that don't depend on the caller, for example
+ * tokens of a client credentials flow or of a technical user. Access tokens without an expiration
+ * time are never held, so every call is passed to the other provider.
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class CachedAccessTokenProvider implements AccessTokenProvider<Mono<String>>,
+    DisposableBean {
+
+  private final AccessTokenProvider<Mono<String>> accessTokenProvider;
+
+  private final Duration expirationTimeThreshold;
+
+  private final double refreshFactor;
+
+  private final Scheduler scheduler;
+
+  private final ReactiveInFlightAccessTokenRequests inFlightRequests
+      = new ReactiveInFlightAccessTokenRequests();
+
+  private final AtomicReference<Disposable> refreshTask = new AtomicReference<>();
+
+  private volatile AccessTokenCacheEntry current;
+
+  private volatile boolean read;
+
+  private volatile boolean destroyed;
+
+  /**
+   * Instantiates a new cached access token provider.
+   *
+   * @param accessTokenProvider the provider of the access tokens
+   */
+  public CachedAccessTokenProvider(AccessTokenProvider<Mono<String>> accessTokenProvider) {
+    this(accessTokenProvider, null, AccessTokenRefreshAhead.DEFAULT_FACTOR, null);
+  }
+
+  /**
+   * Instantiates a new cached access token provider.
+   *
+   * @param accessTokenProvider the provider of the access tokens
+   * @param expirationTimeThreshold the expiration time threshold (default is 20 seconds)
+   * @param refreshFactor the fraction of the remaining lifetime, after that the access token will
+   *     be refreshed in the background (must be greater than 0 and less than 1)
+   * @param scheduler the scheduler of the background refresh (default is the parallel scheduler)
+   */
+  public CachedAccessTokenProvider(
+      AccessTokenProvider<Mono<String>> accessTokenProvider,
+      @Nullable Duration expirationTimeThreshold,
+      double refreshFactor,
+      @Nullable Scheduler scheduler) {
+    Assert.notNull(accessTokenProvider, "Access token provider must be present.");
+    Assert.isTrue(refreshFactor > 0. && refreshFactor < 1.,
+        "Refresh factor must be greater than 0 and less than 1.");
+    this.accessTokenProvider = accessTokenProvider;
+    this.expirationTimeThreshold = Objects
+        .requireNonNullElseGet(expirationTimeThreshold, () -> Duration.ofSeconds(20L));
+    this.refreshFactor = refreshFactor;
+    this.scheduler = Objects.requireNonNullElseGet(scheduler, Schedulers::parallel);
+  }
+
+  /**
+   * Gets the current access token.
+   *
+   * @return the current access token or {@code null}, if there is no access token or if it is
+   *     expired
+   */
+  @Nullable
+  public String getCurrentAccessToken() {
+    final AccessTokenCacheEntry entry = current;
+    if (entry == null || entry.isExpired(expirationTimeThreshold)) {
+      return null;
+    }
+    if (!read) {
+      read = true;
+    }
+    return entry.getAccessToken();
+  }
+
+  @Override
+  public Mono<String> getAccessToken() {
+    final String accessToken = getCurrentAccessToken();
+    return accessToken != null ? Mono.just(accessToken) : refresh();
+  }
+
+  private Mono<String> refresh() {
+    return inFlightRequests.retrieve(
+        CachedAccessTokenProvider.class.getName(),
+        () -> accessTokenProvider.getAccessToken().doOnNext(this::update));
+  }
+
+  private void update(String accessToken) {
+    final AccessTokenCacheEntry entry = AccessTokenCacheEntry.of(accessToken);
+    if (!entry.hasExpirationTime() || entry.isExpired(expirationTimeThreshold)) {
+      current = null;
+      return;
+    }
+    current = entry;
+    read = false;
+    final long delay = (long) ((entry.getExpiresAt()
+        - expirationTimeThreshold.toMillis()
+        - System.currentTimeMillis()) * refreshFactor);
+    if (destroyed || delay <= 0L) {
+      return;
+    }
+    final Disposable previous = refreshTask.getAndSet(scheduler.schedule(
+        this::refreshInBackground,
+        delay,
+        TimeUnit.MILLISECONDS));
+    if (previous != null) {
+      previous.dispose();
+    }
+  }
+
+  private void refreshInBackground() {
+    if (destroyed) {
+      return;
+    }
+    if (!read) {
+      log.debug("Access token was not used since it was retrieved; "
+          + "it will be retrieved on demand.");
+      return;
+    }
+    refresh().subscribe(
+        token -> log.debug("Access token was refreshed in the background."),
+        throwable -> log.warn("Refreshing access token in the background failed.", throwable));
+  }
+
+  @Override
+  public void destroy() {
+    destroyed = true;
+    final Disposable task = refreshTask.getAndSet(null);
+    if (task != null) {
+      task.dispose();
+    }
+  }
+
+}
@@ -17,13 +17,7 @@
 package org.bremersee.security.authentication;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 import org.bremersee.security.ReactiveIpAddressMatcher;
-import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.core.Authentication;
@@ -38,7 +32,7 @@ import reactor.core.publisher.Mono;
 public class IpBasedAuthorizationManager
     implements ReactiveAuthorizationManager<AuthorizationContext> {
 
-  private final Set<String> ipAddresses;
+  private final ReactiveIpAddressMatcher ipAddressMatcher;
 
   private final boolean withAuthenticatedFallback;
 
@@ -61,11 +55,7 @@ public class IpBasedAuthorizationManager
   public IpBasedAuthorizationManager(
       Collection<String> ipAddresses,
       boolean withAuthenticatedFallback) {
-    this.ipAddresses = Optional.ofNullable(ipAddresses)
-        .map(col -> col.stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet()))
-        .orElseGet(Collections::emptySet);
+    this.ipAddressMatcher = new ReactiveIpAddressMatcher(ipAddresses);
     this.withAuthenticatedFallback = withAuthenticatedFallback;
   }
 
@@ -74,23 +64,23 @@ public class IpBasedAuthorizationManager
       Mono<Authentication> authentication,
       AuthorizationContext authorizationContext) {
 
-    return Mono.just(new AuthorizationDecision(isWhiteListedIp(authorizationContext)))
-        .flatMap(decision -> {
-          if (decision.isGranted()) {
-            return Mono.just(decision);
-          }
-          if (withAuthenticatedFallback) {
-            return AuthenticatedReactiveAuthorizationManager.authenticated()
-                .check(authentication, authorizationContext);
-          }
-          return Mono.just(new AuthorizationDecision(false));
-        });
+    if (isWhiteListedIp(authorizationContext)) {
+      return AuthorizationDecisions.GRANTED_MONO;
+    }
+    if (withAuthenticatedFallback) {
+      return AuthorizationDecisions.authenticated(authentication);
+    }
+    return AuthorizationDecisions.DENIED_MONO;
   }
 
-  private boolean isWhiteListedIp(AuthorizationContext context) {
-    return ipAddresses.stream()
-        .anyMatch(ip -> new ReactiveIpAddressMatcher(ip)
-            .matchesRemoteAddress(context.getExchange()));
+  /**
+   * Checks whether the remote address of the request is one of the ip addresses of this manager.
+   *
+   * @param context the authorization context
+   * @return {@code true} if the remote address is white listed, otherwise {@code false}
+   */
+  boolean isWhiteListedIp(AuthorizationContext context) {
+    return context != null && ipAddressMatcher.matchesRemoteAddress(context.getExchange());
   }
 
 }
@@ -16,9 +16,15 @@
 
 package org.bremersee.security.authentication;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.validation.constraints.NotNull;
 import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * The reactive access token cache interface.
@@ -51,6 +57,43 @@ public interface ReactiveAccessTokenCache {
    */
   Mono<String> putAccessToken(@NotNull String key, @NotNull String accessToken);
 
+  /**
+   * Put new access token with a known expiration time into the cache. Implementations should use
+   * the expiration time of the entry instead of parsing the access token, so that opaque access
+   * tokens can be cached, too.
+   *
+   * @param key the key
+   * @param entry the access token with its expiration time
+   * @return the access token
+   */
+  default Mono<String> putAccessToken(@NotNull String key, @NotNull AccessTokenCacheEntry entry) {
+    return putAccessToken(key, entry.getAccessToken());
+  }
+
+  /**
+   * Find not expired access tokens from cache.
+   *
+   * @param keys the keys
+   * @return the found access tokens by key
+   */
+  default Mono<Map<String, String>> findAccessTokens(@NotNull Collection<String> keys) {
+    return Flux.fromIterable(keys)
+        .concatMap(key -> findAccessToken(key).map(accessToken -> Tuples.of(key, accessToken)))
+        .collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new);
+  }
+
+  /**
+   * Put new access tokens into the cache.
+   *
+   * @param accessTokens the access tokens by key
+   * @return the access tokens by key
+   */
+  default Mono<Map<String, String>> putAccessTokens(@NotNull Map<String, String> accessTokens) {
+    return Flux.fromIterable(accessTokens.entrySet())
+        .flatMap(entry -> putAccessToken(entry.getKey(), entry.getValue()))
+        .then(Mono.just(accessTokens));
+  }
+
   /**
    * Creates a reactive cache from the given access token cache.
    *
@@ -70,6 +113,26 @@ public interface ReactiveAccessTokenCache {
         return Mono.just(accessToken);
       }
 
+      @Override
+      public Mono<String> putAccessToken(
+          @NotNull String key,
+          @NotNull AccessTokenCacheEntry entry) {
+        accessTokenCache.putAccessToken(key, entry);
+        return Mono.just(entry.getAccessToken());
+      }
+
+      @Override
+      public Mono<Map<String, String>> findAccessTokens(@NotNull Collection<String> keys) {
+        return Mono.just(accessTokenCache.findAccessTokens(keys));
+      }
+
+      @Override
+      public Mono<Map<String, String>> putAccessTokens(
+          @NotNull Map<String, String> accessTokens) {
+        accessTokenCache.putAccessTokens(accessTokens);
+        return Mono.just(accessTokens);
+      }
+
       @Override
       public String toString() {
         return "Reactive wrapper of " + accessTokenCache;
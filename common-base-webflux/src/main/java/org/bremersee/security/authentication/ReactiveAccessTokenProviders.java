@@ -44,14 +44,17 @@ public interface ReactiveAccessTokenProviders {
   }
 
   /**
-   * Provider that retrieves the access token from an OpenId server.
+   * Provider that retrieves the access token from an OpenId server. It uses the shared access token
+   * retriever of the {@link TokenEndpointClientFactory}, so retrieved access tokens are cached.
    *
    * @param properties the properties
    * @return the access token provider
    */
   static AccessTokenProvider<Mono<String>> withAccessTokenRetriever(
       final AccessTokenRetrieverProperties properties) {
-    return withAccessTokenRetriever(new WebClientAccessTokenRetriever(), properties);
+    return withAccessTokenRetriever(
+        TokenEndpointClientFactory.getAccessTokenRetriever(),
+        properties);
   }
 
   /**
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.validation.constraints.NotNull;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+/**
+ * The registry of reactive access token requests, that are currently in flight. Concurrent
+ * requests with the same cache key share one cached {@link Mono}, so that only one of them calls
+ * the token endpoint.
+ *
+ * @author Christian Bremer
+ */
+@ToString(exclude = {"inFlight"})
+public class ReactiveInFlightAccessTokenRequests {
+
+  private final ConcurrentMap<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder issuedRequests = new LongAdder();
+
+  private final LongAdder coalescedRequests = new LongAdder();
+
+  /**
+   * Retrieves the access token with the given supplier, if there is no request with the same key
+   * in flight. Otherwise the result of the request, that is in flight, is returned. If the key is
+   * {@code null}, the supplier is always called.
+   *
+   * @param key the (hashed) cache key
+   * @param accessTokenSupplier the access token supplier, that calls the token endpoint
+   * @return the access token
+   */
+  public Mono<String> retrieve(
+      @Nullable String key,
+      @NotNull Supplier<Mono<String>> accessTokenSupplier) {
+
+    if (key == null) {
+      return Mono.defer(() -> {
+        issuedRequests.increment();
+        return accessTokenSupplier.get();
+      });
+    }
+    return Mono.defer(() -> {
+      final boolean[] created = {false};
+      final Mono<String> request = inFlight.computeIfAbsent(key, k -> {
+        created[0] = true;
+        final AtomicReference<Mono<String>> self = new AtomicReference<>();
+        final Mono<String> mono = Mono.defer(accessTokenSupplier)
+            .doFinally(signalType -> inFlight.remove(k, self.get()))
+            .cache();
+        self.set(mono);
+        return mono;
+      });
+      if (created[0]) {
+        issuedRequests.increment();
+      } else {
+        coalescedRequests.increment();
+      }
+      return request;
+    });
+  }
+
+  /**
+   * Gets the number of requests, that were sent to the token endpoint.
+   *
+   * @return the number of issued requests
+   */
+  public long getIssuedRequests() {
+    return issuedRequests.sum();
+  }
+
+  /**
+   * Gets the number of requests, that got the result of another request in flight.
+   *
+   * @return the number of coalesced requests
+   */
+  public long getCoalescedRequests() {
+    return coalescedRequests.sum();
+  }
+
+  /**
+   * Gets the number of requests, that are currently in flight.
+   *
+   * @return the number of requests in flight
+   */
+  public int size() {
+    return inFlight.size();
+  }
+
+}
@@ -17,24 +17,24 @@
 package org.bremersee.security.authentication;
 
 import java.util.Collection;
-import java.util.Optional;
-import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
-import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.bremersee.security.core.RoleSet;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.server.authorization.AuthorizationContext;
 import reactor.core.publisher.Mono;
 
 /**
- * The role based authorization manager.
+ * The role based authorization manager. The roles are held in an immutable set, so a decision is
+ * a set lookup per authority of the authentication, that stops at the first granted one.
  *
  * @author Christian Bremer
  */
 public class RoleBasedAuthorizationManager
     implements ReactiveAuthorizationManager<AuthorizationContext> {
 
-  private final String[] roles;
+  private final RoleSet roles;
 
   private final boolean withAuthenticatedFallback;
 
@@ -57,9 +57,7 @@ public class RoleBasedAuthorizationManager
       Collection<String> roles,
       boolean withAuthenticatedFallback) {
 
-    this.roles = Optional.ofNullable(roles)
-        .map(col -> col.toArray(new String[0]))
-        .orElseGet(() -> new String[0]);
+    this.roles = RoleSet.of(roles);
     this.withAuthenticatedFallback = withAuthenticatedFallback;
   }
 
@@ -68,15 +66,26 @@ public class RoleBasedAuthorizationManager
       Mono<Authentication> authentication,
       AuthorizationContext authorizationContext) {
 
-    if (roles.length == 0 && withAuthenticatedFallback) {
-      return AuthenticatedReactiveAuthorizationManager
-          .authenticated().check(authentication, authorizationContext);
-    } else if (roles.length == 0) {
-      return Mono.just(new AuthorizationDecision(false));
+    if (roles.isEmpty() && withAuthenticatedFallback) {
+      return AuthorizationDecisions.authenticated(authentication);
+    } else if (roles.isEmpty()) {
+      return AuthorizationDecisions.DENIED_MONO;
     } else {
-      return AuthorityReactiveAuthorizationManager.hasAnyAuthority(roles)
-          .check(authentication, authorizationContext);
+      return authentication
+          .map(this::hasAnyRole)
+          .defaultIfEmpty(AuthorizationDecisions.DENIED);
     }
   }
 
+  private AuthorizationDecision hasAnyRole(Authentication authentication) {
+    if (authentication.isAuthenticated()) {
+      for (GrantedAuthority authority : authentication.getAuthorities()) {
+        if (roles.contains(authority.getAuthority())) {
+          return AuthorizationDecisions.GRANTED;
+        }
+      }
+    }
+    return AuthorizationDecisions.DENIED;
+  }
+
 }
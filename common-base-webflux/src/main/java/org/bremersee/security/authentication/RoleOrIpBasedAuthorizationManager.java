@@ -29,7 +29,7 @@ import reactor.core.publisher.Mono;
  */
 public class RoleOrIpBasedAuthorizationManager extends RoleBasedAuthorizationManager {
 
-  private IpBasedAuthorizationManager ipBasedAuthorizationManager;
+  private final IpBasedAuthorizationManager ipBasedAuthorizationManager;
 
   /**
    * Instantiates a new role or ip based authorization manager.
@@ -63,9 +63,10 @@ public class RoleOrIpBasedAuthorizationManager extends RoleBasedAuthorizationMan
       Mono<Authentication> authentication,
       AuthorizationContext authorizationContext) {
 
-    return ipBasedAuthorizationManager.check(authentication, authorizationContext)
-        .filter(AuthorizationDecision::isGranted)
-        .switchIfEmpty(super.check(authentication, authorizationContext));
+    if (ipBasedAuthorizationManager.isWhiteListedIp(authorizationContext)) {
+      return AuthorizationDecisions.GRANTED_MONO;
+    }
+    return super.check(authentication, authorizationContext);
   }
 
 }
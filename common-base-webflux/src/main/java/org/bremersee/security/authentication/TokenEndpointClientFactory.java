@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The factory of the shared clients, that are used to call token endpoints, if nothing else is
+ * configured.
+ *
+ * <p>The web client is created only once, so all retrievers share its codecs and the connection
+ * pool of the underlying http connector. The access token retriever is created only once, too,
+ * and uses an internal access token cache.
+ *
+ * @author Christian Bremer
+ */
+public abstract class TokenEndpointClientFactory {
+
+  private TokenEndpointClientFactory() {
+  }
+
+  /**
+   * Gets the shared web client.
+   *
+   * @return the shared web client
+   */
+  public static WebClient getWebClient() {
+    return WebClientHolder.WEB_CLIENT;
+  }
+
+  /**
+   * Gets the shared access token retriever. It uses the shared web client and an internal access
+   * token cache.
+   *
+   * @return the shared access token retriever
+   */
+  public static WebClientAccessTokenRetriever getAccessTokenRetriever() {
+    return RetrieverHolder.RETRIEVER;
+  }
+
+  private static class WebClientHolder {
+
+    private static final WebClient WEB_CLIENT = WebClient.builder().build();
+  }
+
+  private static class RetrieverHolder {
+
+    private static final WebClientAccessTokenRetriever RETRIEVER
+        = new WebClientAccessTokenRetriever(
+        getWebClient(),
+        ReactiveAccessTokenCache.from(AccessTokenCache.builder().build()));
+  }
+
+}
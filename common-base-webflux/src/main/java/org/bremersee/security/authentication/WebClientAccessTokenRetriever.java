@@ -17,14 +17,14 @@
 package org.bremersee.security.authentication;
 
 import lombok.extern.slf4j.Slf4j;
-import net.minidev.json.JSONObject;
-import net.minidev.json.JSONValue;
 import org.bremersee.exception.AccessTokenRetrieverAuthenticationException;
 import org.bremersee.web.ErrorDetectors;
 import org.bremersee.web.reactive.function.client.AbstractWebClientErrorDecoder;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -44,8 +44,14 @@ public class WebClientAccessTokenRetriever
 
   private final ReactiveAccessTokenCache accessTokenCache;
 
+  private final AccessTokenRefreshAhead refreshAhead;
+
+  private final ReactiveInFlightAccessTokenRequests inFlightRequests
+      = new ReactiveInFlightAccessTokenRequests();
+
   /**
-   * Instantiates a new access token retriever that uses spring's web client.
+   * Instantiates a new access token retriever that uses the shared web client of the {@link
+   * TokenEndpointClientFactory}.
    */
   public WebClientAccessTokenRetriever() {
     this(null, null);
@@ -80,8 +86,33 @@ public class WebClientAccessTokenRetriever
   public WebClientAccessTokenRetriever(
       WebClient webClient,
       ReactiveAccessTokenCache accessTokenCache) {
-    this.webClient = webClient != null ? webClient : WebClient.builder().build();
+    this(webClient, accessTokenCache, null);
+  }
+
+  /**
+   * Instantiates a new access token retriever that uses spring's web client.
+   *
+   * @param webClient the web client (if it is {@code null}, the shared web client of the {@link
+   *     TokenEndpointClientFactory} will be used)
+   * @param accessTokenCache the access token cache
+   * @param refreshAhead the refresh ahead of cached access tokens (can be {@code null})
+   */
+  public WebClientAccessTokenRetriever(
+      WebClient webClient,
+      ReactiveAccessTokenCache accessTokenCache,
+      AccessTokenRefreshAhead refreshAhead) {
+    this.webClient = webClient != null ? webClient : TokenEndpointClientFactory.getWebClient();
     this.accessTokenCache = accessTokenCache;
+    this.refreshAhead = refreshAhead;
+  }
+
+  /**
+   * Gets the registry of the access token requests, that are currently in flight.
+   *
+   * @return the in flight access token requests
+   */
+  public ReactiveInFlightAccessTokenRequests getInFlightRequests() {
+    return inFlightRequests;
   }
 
   @Override
@@ -90,24 +121,59 @@ public class WebClientAccessTokenRetriever
       log.debug("Retrieving access token with password flow, properties = {}", properties);
     }
     final String cacheKey = properties.createCacheKeyHashed();
+    return findAccessToken(cacheKey)
+        .switchIfEmpty(inFlightRequests.retrieve(cacheKey, () -> findAccessToken(cacheKey)
+            .switchIfEmpty(requestAccessToken(properties, cacheKey))));
+  }
+
+  private Mono<String> findAccessToken(String cacheKey) {
     return Mono.justOrEmpty(accessTokenCache)
         .flatMap(cache -> cache.findAccessToken(cacheKey))
-        .switchIfEmpty(webClient
-            .method(HttpMethod.POST)
-            .uri(properties.getTokenEndpoint())
-            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-            .headers(headers -> properties.getBasicAuthProperties()
-                .ifPresent(basicAuthProperties -> headers.setBasicAuth(
-                    basicAuthProperties.getUsername(),
-                    basicAuthProperties.getPassword())))
-            .body(BodyInserters.fromFormData(properties.createBody()))
-            .retrieve()
-            .onStatus(ErrorDetectors.DEFAULT, this)
-            .bodyToMono(String.class)
-            .map(response -> ((JSONObject) JSONValue.parse(response)).getAsString("access_token"))
-            .flatMap(accessToken -> accessTokenCache != null
-                ? accessTokenCache.putAccessToken(cacheKey, accessToken)
-                : Mono.just(accessToken)));
+        .doOnNext(token -> {
+          if (refreshAhead != null) {
+            refreshAhead.touch(cacheKey);
+          }
+        });
+  }
+
+  private Mono<String> requestAccessToken(
+      AccessTokenRetrieverProperties properties,
+      String cacheKey) {
+    return webClient
+        .method(HttpMethod.POST)
+        .uri(properties.getTokenEndpoint())
+        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+        .headers(headers -> properties.getBasicAuthProperties()
+            .ifPresent(basicAuthProperties -> headers.setBasicAuth(
+                basicAuthProperties.getUsername(),
+                basicAuthProperties.getPassword())))
+        .body(BodyInserters.fromFormData(properties.createBody()))
+        .retrieve()
+        .onStatus(ErrorDetectors.DEFAULT, this)
+        .bodyToMono(AccessTokenResponse.class)
+        .flatMap(response -> StringUtils.hasText(response.getAccessToken())
+            ? Mono.just(AccessTokenCacheEntry.of(response))
+            : Mono.error(new AccessTokenRetrieverAuthenticationException(HttpStatus.UNAUTHORIZED,
+                "There is no access token in the response.")))
+        .flatMap(entry -> accessTokenCache != null
+            ? accessTokenCache.putAccessToken(cacheKey, entry)
+            .doOnNext(token -> scheduleRefresh(properties, cacheKey, entry))
+            : Mono.just(entry.getAccessToken()));
+  }
+
+  private void scheduleRefresh(
+      AccessTokenRetrieverProperties properties,
+      String cacheKey,
+      AccessTokenCacheEntry entry) {
+    if (refreshAhead != null && cacheKey != null && refreshAhead.isApplicable(properties)) {
+      refreshAhead.schedule(
+          cacheKey,
+          entry,
+          () -> inFlightRequests.retrieve(cacheKey, () -> requestAccessToken(properties, cacheKey))
+              .subscribe(
+                  token -> log.debug("Access token was refreshed ahead (key = {}).", cacheKey),
+                  throwable -> log.warn("Refreshing access token ahead failed.", throwable)));
+    }
   }
 
   @Override
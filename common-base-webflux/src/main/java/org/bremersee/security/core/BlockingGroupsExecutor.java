@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.bremersee.exception.ServiceException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The executor of blocking group lookups, e. g. of directory or database calls. It adapts a
+ * blocking groups function, so that it can be used by the {@link ReactiveUserContextCaller}
+ * without blocking the event loop.
+ *
+ * <p>The lookups run on virtual threads, if they are enabled and the jdk has them, otherwise on a
+ * bounded elastic scheduler. The number of concurrent lookups is limited (bulkhead); lookups, that
+ * exceed the limit, are rejected immediately. Lookups, that don't complete within the timeout,
+ * fail. In both cases the error is a service exception with status 503 (service unavailable).
+ *
+ * @author Christian Bremer
+ */
+@Slf4j
+public class BlockingGroupsExecutor implements DisposableBean {
+
+  /**
+   * The default timeout of a lookup.
+   */
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10L);
+
+  /**
+   * The default maximum number of concurrent lookups.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_CALLS = 50;
+
+  private static final String NAME = "user-groups";
+
+  private final Scheduler scheduler;
+
+  private final Duration timeout;
+
+  private final Semaphore permits;
+
+  /**
+   * Instantiates a new blocking groups executor with default values and without virtual threads.
+   */
+  public BlockingGroupsExecutor() {
+    this(false, DEFAULT_TIMEOUT, DEFAULT_MAX_CONCURRENT_CALLS);
+  }
+
+  /**
+   * Instantiates a new blocking groups executor.
+   *
+   * @param virtualThreads specifies whether virtual threads should be used, if the jdk has them
+   * @param timeout the timeout of a lookup (default is 10 seconds)
+   * @param maxConcurrentCalls the maximum number of concurrent lookups
+   */
+  public BlockingGroupsExecutor(
+      boolean virtualThreads,
+      @Nullable Duration timeout,
+      int maxConcurrentCalls) {
+    this(createScheduler(virtualThreads, maxConcurrentCalls), timeout, maxConcurrentCalls);
+  }
+
+  /**
+   * Instantiates a new blocking groups executor.
+   *
+   * @param scheduler the scheduler, that runs the lookups
+   * @param timeout the timeout of a lookup (default is 10 seconds)
+   * @param maxConcurrentCalls the maximum number of concurrent lookups
+   */
+  public BlockingGroupsExecutor(
+      @NotNull Scheduler scheduler,
+      @Nullable Duration timeout,
+      int maxConcurrentCalls) {
+    Assert.notNull(scheduler, "Scheduler must be present.");
+    Assert.isTrue(maxConcurrentCalls > 0, "Max concurrent calls must be greater than 0.");
+    this.scheduler = scheduler;
+    this.timeout = Objects.requireNonNullElse(timeout, DEFAULT_TIMEOUT);
+    this.permits = new Semaphore(maxConcurrentCalls);
+  }
+
+  /**
+   * Creates the scheduler of the lookups.
+   *
+   * @param virtualThreads specifies whether virtual threads should be used, if the jdk has them
+   * @param threadCap the maximum number of threads of the bounded elastic scheduler
+   * @return the scheduler
+   */
+  static Scheduler createScheduler(boolean virtualThreads, int threadCap) {
+    if (virtualThreads) {
+      final ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+      if (executorService != null) {
+        log.info("Group lookups are running on virtual threads.");
+        return Schedulers.fromExecutorService(executorService, NAME);
+      }
+      log.info("Virtual threads are not available, group lookups are running on a bounded "
+          + "elastic scheduler.");
+    }
+    return Schedulers.newBoundedElastic(
+        Math.max(1, threadCap),
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+        NAME);
+  }
+
+  @Nullable
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Executes the given blocking lookup. The permit of the lookup is held until the blocking call
+   * has returned, even if the lookup has timed out or was cancelled before, so that hanging calls
+   * still count against the limit. If the lookup is cancelled before the blocking call has been
+   * started, the call is skipped and the permit is released immediately.
+   *
+   * @param groupsSupplier the blocking lookup
+   * @return the groups
+   */
+  public Mono<Set<String>> execute(@NotNull Supplier<? extends Set<String>> groupsSupplier) {
+    return Mono.defer(() -> {
+      if (!permits.tryAcquire()) {
+        return Mono.error(unavailable("Too many concurrent group lookups."));
+      }
+      final AtomicBoolean started = new AtomicBoolean();
+      return Mono.<Set<String>>fromCallable(() -> {
+        if (!started.compareAndSet(false, true)) {
+          return null;
+        }
+        try {
+          return Objects.requireNonNullElseGet(groupsSupplier.get(), Collections::emptySet);
+        } finally {
+          permits.release();
+        }
+      })
+          .subscribeOn(scheduler)
+          .timeout(timeout)
+          .onErrorMap(TimeoutException.class, e -> unavailable("Group lookup timed out."))
+          .doFinally(signalType -> {
+            if (started.compareAndSet(false, true)) {
+              permits.release();
+            }
+          });
+    });
+  }
+
+  /**
+   * Adapts the given blocking groups function.
+   *
+   * @param groupsFn the blocking groups function
+   * @return the reactive groups function
+   */
+  public Function<Authentication, Mono<Set<String>>> adapt(
+      @NotNull Function<Authentication, Set<String>> groupsFn) {
+    Assert.notNull(groupsFn, "Groups function must be present.");
+    return authentication -> execute(() -> groupsFn.apply(authentication));
+  }
+
+  /**
+   * Gets the number of lookups, that can be started now.
+   *
+   * @return the available permits
+   */
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  private static ServiceException unavailable(String reason) {
+    return ServiceException.builder()
+        .httpStatus(503)
+        .reason(reason)
+        .errorCode("USER_GROUPS_UNAVAILABLE")
+        .build();
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.dispose();
+  }
+
+}
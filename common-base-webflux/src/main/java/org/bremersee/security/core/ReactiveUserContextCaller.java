@@ -17,10 +17,11 @@
 package org.bremersee.security.core;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
 import org.bremersee.exception.ServiceException;
 import org.reactivestreams.Publisher;
@@ -29,13 +30,27 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 /**
  * The reactive user context caller.
  *
+ * <p>The user context can be created once per request: if the subscriber context contains a user
+ * context cache (see {@link #withUserContextCache(Context)} and
+ * {@link ReactiveUserContextCacheWebFilter}), the user context is stored there and reused by
+ * further calls of the same caller with the same authentication. The groups can additionally be
+ * cached across requests with a {@link UserGroupsCache} (see
+ * {@link #setGroupsCache(UserGroupsCache)}). Blocking groups functions can be adapted with
+ * {@link #blockingGroupsFn(Function)}, so that they don't block the event loop, or they can be
+ * passed to {@link #withBlockingGroupsFn(Function, Supplier)}; then they are executed by the
+ * {@link BlockingGroupsExecutor} (see {@link #setBlockingGroupsExecutor(BlockingGroupsExecutor)}),
+ * if it is present.
+ *
  * @author Christian Bremer
  */
 @Validated
@@ -59,10 +74,22 @@ public class ReactiveUserContextCaller {
   public static final Supplier<Mono<UserContext>> FORBIDDEN_SUPPLIER = () -> Mono
       .error(ServiceException::forbidden);
 
+  /**
+   * The key of the user context cache in the subscriber context.
+   */
+  public static final String USER_CONTEXT_CACHE_KEY = ReactiveUserContextCaller.class.getName()
+      + ".USER_CONTEXT_CACHE";
+
   private final Function<Authentication, Mono<Set<String>>> groupsFn;
 
+  private final Function<Authentication, Set<String>> blockingGroupsFn;
+
   private final Supplier<Mono<UserContext>> unauthenticatedSupplier;
 
+  private UserGroupsCache groupsCache;
+
+  private BlockingGroupsExecutor blockingGroupsExecutor;
+
   /**
    * Instantiates a new reactive user context caller.
    */
@@ -95,17 +122,159 @@ public class ReactiveUserContextCaller {
   public ReactiveUserContextCaller(
       @Nullable Function<Authentication, Mono<Set<String>>> groupsFn,
       @Nullable Supplier<Mono<UserContext>> unauthenticatedSupplier) {
+    this(groupsFn, null, unauthenticatedSupplier);
+  }
+
+  private ReactiveUserContextCaller(
+      @Nullable Function<Authentication, Mono<Set<String>>> groupsFn,
+      @Nullable Function<Authentication, Set<String>> blockingGroupsFn,
+      @Nullable Supplier<Mono<UserContext>> unauthenticatedSupplier) {
     this.groupsFn = groupsFn != null ? groupsFn : authentication -> EMPTY_GROUPS_SUPPLIER.get();
+    this.blockingGroupsFn = blockingGroupsFn;
     this.unauthenticatedSupplier = unauthenticatedSupplier != null
         ? unauthenticatedSupplier
         : FORBIDDEN_SUPPLIER;
   }
 
+  /**
+   * Creates a reactive user context caller with a blocking groups function, e. g. a directory or
+   * database lookup. The lookup is executed by the blocking groups executor, if one is set,
+   * otherwise on the bounded elastic scheduler.
+   *
+   * @param blockingGroupsFn the blocking groups function
+   * @param unauthenticatedSupplier the unauthenticated supplier
+   * @return the reactive user context caller
+   */
+  public static ReactiveUserContextCaller withBlockingGroupsFn(
+      @NotNull Function<Authentication, Set<String>> blockingGroupsFn,
+      @Nullable Supplier<Mono<UserContext>> unauthenticatedSupplier) {
+    Assert.notNull(blockingGroupsFn, "Blocking groups function must be present.");
+    return new ReactiveUserContextCaller(null, blockingGroupsFn, unauthenticatedSupplier);
+  }
+
+  /**
+   * Sets the cache of the groups. If it is present, the groups function is only called, if the
+   * groups of the user are not in the cache.
+   *
+   * @param groupsCache the groups cache
+   */
+  public void setGroupsCache(@Nullable UserGroupsCache groupsCache) {
+    this.groupsCache = groupsCache;
+  }
+
+  /**
+   * Gets the cache of the groups.
+   *
+   * @return the groups cache
+   */
+  @Nullable
+  public UserGroupsCache getGroupsCache() {
+    return groupsCache;
+  }
+
+  /**
+   * Sets the executor of the blocking groups function (see
+   * {@link #withBlockingGroupsFn(Function, Supplier)}).
+   *
+   * @param blockingGroupsExecutor the blocking groups executor
+   */
+  public void setBlockingGroupsExecutor(@Nullable BlockingGroupsExecutor blockingGroupsExecutor) {
+    this.blockingGroupsExecutor = blockingGroupsExecutor;
+  }
+
+  /**
+   * Gets the executor of the blocking groups function.
+   *
+   * @return the blocking groups executor
+   */
+  @Nullable
+  public BlockingGroupsExecutor getBlockingGroupsExecutor() {
+    return blockingGroupsExecutor;
+  }
+
+  /**
+   * Adapts a blocking groups function, e. g. a directory or database lookup, so that it runs on
+   * the bounded elastic scheduler and not on the event loop.
+   *
+   * @param groupsFn the blocking groups function
+   * @return the reactive groups function
+   */
+  public static Function<Authentication, Mono<Set<String>>> blockingGroupsFn(
+      @NotNull Function<Authentication, Set<String>> groupsFn) {
+    return authentication -> Mono.fromCallable(() -> groupsFn.apply(authentication))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Adds a user context cache to the given subscriber context, if it doesn't contain one yet.
+   *
+   * @param context the subscriber context
+   * @return the subscriber context with the user context cache
+   */
+  public static Context withUserContextCache(@NotNull Context context) {
+    return context.hasKey(USER_CONTEXT_CACHE_KEY)
+        ? context
+        : context.put(USER_CONTEXT_CACHE_KEY, new ConcurrentHashMap<>());
+  }
+
   private Set<String> toRoles(Authentication authentication) {
-    return authentication.getAuthorities()
-        .stream()
-        .map(GrantedAuthority::getAuthority)
-        .collect(Collectors.toSet());
+    return RoleSet.of(authentication.getAuthorities(), GrantedAuthority::getAuthority);
+  }
+
+  private Mono<UserContext> getUserContext() {
+    return ReactiveSecurityContextHolder.getContext()
+        .map(SecurityContext::getAuthentication)
+        .filter(Authentication::isAuthenticated)
+        .flatMap(authentication -> Mono.subscriberContext()
+            .flatMap(context -> getUserContext(context, authentication)));
+  }
+
+  private Mono<UserContext> getUserContext(Context context, Authentication authentication) {
+    final Map<ReactiveUserContextCaller, RequestUserContext> cache = context
+        .getOrDefault(USER_CONTEXT_CACHE_KEY, null);
+    if (cache == null) {
+      return createUserContext(authentication);
+    }
+    final RequestUserContext cached = cache.get(this);
+    if (cached != null && cached.authentication == authentication) {
+      return cached.userContext;
+    }
+    final Mono<UserContext> userContext = createUserContext(authentication).cache();
+    cache.put(this, new RequestUserContext(authentication, userContext));
+    return userContext;
+  }
+
+  private Mono<UserContext> createUserContext(Authentication authentication) {
+    return getGroups(authentication)
+        .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get())
+        .map(groups -> UserContext.newInstance(
+            authentication.getName(),
+            toRoles(authentication),
+            groups));
+  }
+
+  private Mono<Set<String>> getGroups(Authentication authentication) {
+    final UserGroupsCache cache = groupsCache;
+    final String userName = authentication.getName();
+    if (cache == null || userName == null) {
+      return loadGroups(authentication);
+    }
+    final Set<String> groups = cache.findGroups(userName);
+    if (groups != null) {
+      return Mono.just(groups);
+    }
+    return loadGroups(authentication)
+        .map(value -> cache.putGroups(userName, value));
+  }
+
+  private Mono<Set<String>> loadGroups(Authentication authentication) {
+    if (blockingGroupsFn == null) {
+      return groupsFn.apply(authentication);
+    }
+    final BlockingGroupsExecutor executor = blockingGroupsExecutor;
+    return executor != null
+        ? executor.adapt(blockingGroupsFn).apply(authentication)
+        : blockingGroupsFn(blockingGroupsFn).apply(authentication);
   }
 
   /**
@@ -117,16 +286,7 @@ public class ReactiveUserContextCaller {
    */
   public <R> Mono<R> oneWithUserContext(
       @NotNull Function<UserContext, ? extends Mono<R>> function) {
-    return ReactiveSecurityContextHolder.getContext()
-        .map(SecurityContext::getAuthentication)
-        .filter(Authentication::isAuthenticated)
-        .zipWhen(authentication -> groupsFn
-            .apply(authentication)
-            .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get()))
-        .map(tuple -> UserContext.newInstance(
-            tuple.getT1().getName(),
-            toRoles(tuple.getT1()),
-            tuple.getT2()))
+    return getUserContext()
         .switchIfEmpty(unauthenticatedSupplier.get())
         .flatMap(function);
   }
@@ -174,16 +334,7 @@ public class ReactiveUserContextCaller {
    */
   public <R> Flux<R> manyWithUserContext(
       @NotNull Function<UserContext, ? extends Publisher<R>> function) {
-    return ReactiveSecurityContextHolder.getContext()
-        .map(SecurityContext::getAuthentication)
-        .filter(Authentication::isAuthenticated)
-        .zipWhen(authentication -> groupsFn
-            .apply(authentication)
-            .switchIfEmpty(EMPTY_GROUPS_SUPPLIER.get()))
-        .map(tuple -> UserContext.newInstance(
-            tuple.getT1().getName(),
-            toRoles(tuple.getT1()),
-            tuple.getT2()))
+    return getUserContext()
         .switchIfEmpty(unauthenticatedSupplier.get())
         .flatMapMany(function);
   }
@@ -222,4 +373,16 @@ public class ReactiveUserContextCaller {
         .manyWithUserContext(function);
   }
 
+  private static class RequestUserContext {
+
+    private final Authentication authentication;
+
+    private final Mono<UserContext> userContext;
+
+    private RequestUserContext(Authentication authentication, Mono<UserContext> userContext) {
+      this.authentication = authentication;
+      this.userContext = userContext;
+    }
+  }
+
 }
@@ -16,28 +16,54 @@
 
 package org.bremersee.web.reactive.function.client;
 
+import java.util.function.Consumer;
 import org.bremersee.security.authentication.AccessTokenProvider;
 import org.bremersee.security.authentication.AccessTokenRetriever;
 import org.bremersee.security.authentication.AccessTokenRetrieverProperties;
+import org.bremersee.security.authentication.CachedAccessTokenProvider;
 import org.bremersee.security.authentication.ReactiveAccessTokenProviders;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import reactor.core.publisher.Mono;
 
 /**
  * The access token appender.
  *
+ * <p>If the access token provider is a {@link CachedAccessTokenProvider}, the current access token
+ * is used directly as long as it is valid. Together with {@link #defaultRequest()} the
+ * authorization header is then already set, when the request is built, so the filter doesn't have
+ * to copy the request:
+ * <pre>
+ * AccessTokenAppender appender = AccessTokenAppender.withCachedAccessTokenRetriever(properties);
+ * WebClient webClient = WebClient.builder()
+ *     .defaultRequest(appender.defaultRequest())
+ *     .filter(appender)
+ *     .build();
+ * </pre>
+ *
+ * <p>The appender is a {@link DisposableBean}; destroying it stops the background refresh of a
+ * {@link CachedAccessTokenProvider}. An appender, that is not a bean, should be destroyed, when it
+ * is not needed any more.
+ *
  * @author Christian Bremer
  */
-public class AccessTokenAppender implements ExchangeFilterFunction {
+public class AccessTokenAppender implements ExchangeFilterFunction, DisposableBean {
+
+  private static final String BEARER_PREFIX = "Bearer ";
 
   private final AccessTokenProvider<Mono<String>> accessTokenProvider;
 
+  private final CachedAccessTokenProvider cachedAccessTokenProvider;
+
   /**
    * Instantiates a new access token appender.
    *
@@ -46,10 +72,38 @@ public class AccessTokenAppender implements ExchangeFilterFunction {
   public AccessTokenAppender(AccessTokenProvider<Mono<String>> accessTokenProvider) {
     Assert.notNull(accessTokenProvider, "Access token provider must be present.");
     this.accessTokenProvider = accessTokenProvider;
+    this.cachedAccessTokenProvider = accessTokenProvider instanceof CachedAccessTokenProvider
+        ? (CachedAccessTokenProvider) accessTokenProvider
+        : null;
+  }
+
+  /**
+   * Returns the default request of a web client, that sets the authorization header with the
+   * current access token of a {@link CachedAccessTokenProvider}. If there is no current access
+   * token or if the provider is not cached, nothing is set and the filter adds the header.
+   *
+   * @return the default request
+   * @see WebClient.Builder#defaultRequest(Consumer)
+   */
+  public Consumer<RequestHeadersSpec<?>> defaultRequest() {
+    return spec -> {
+      final String tokenValue = cachedAccessTokenProvider != null
+          ? cachedAccessTokenProvider.getCurrentAccessToken()
+          : null;
+      if (StringUtils.hasText(tokenValue)) {
+        spec.header(HttpHeaders.AUTHORIZATION, BEARER_PREFIX + tokenValue);
+      }
+    };
   }
 
   @Override
   public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (cachedAccessTokenProvider != null) {
+      final String tokenValue = cachedAccessTokenProvider.getCurrentAccessToken();
+      if (tokenValue != null) {
+        return exchangeWithToken(request, tokenValue, next);
+      }
+    }
     return accessTokenProvider.getAccessToken()
         .switchIfEmpty(Mono.just(""))
         .flatMap(tokenValue -> exchangeWithToken(request, tokenValue, next));
@@ -60,14 +114,35 @@ public class AccessTokenAppender implements ExchangeFilterFunction {
       String tokenValue,
       ExchangeFunction next) {
 
-    if (StringUtils.hasText(tokenValue)) {
-      return next.exchange(ClientRequest
-          .from(request)
-          .headers(headers -> headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + tokenValue))
-          .build());
-    } else {
+    if (!StringUtils.hasText(tokenValue)) {
       return next.exchange(request);
     }
+    final String authorization = BEARER_PREFIX + tokenValue;
+    if (authorization.equals(request.headers().getFirst(HttpHeaders.AUTHORIZATION))) {
+      return next.exchange(request);
+    }
+    return next.exchange(ClientRequest
+        .from(request)
+        .headers(headers -> headers.set(HttpHeaders.AUTHORIZATION, authorization))
+        .build());
+  }
+
+  /**
+   * Gets the cached access token provider.
+   *
+   * @return the cached access token provider or {@code null}, if the access token provider is not
+   *     cached
+   */
+  @Nullable
+  public CachedAccessTokenProvider getCachedAccessTokenProvider() {
+    return cachedAccessTokenProvider;
+  }
+
+  @Override
+  public void destroy() {
+    if (cachedAccessTokenProvider != null) {
+      cachedAccessTokenProvider.destroy();
+    }
   }
 
   /**
@@ -106,4 +181,35 @@ public class AccessTokenAppender implements ExchangeFilterFunction {
         ReactiveAccessTokenProviders.withAccessTokenRetriever(retriever, properties));
   }
 
+  /**
+   * With access token retriever access token appender, that holds the current access token and
+   * refreshes it in the background. The appender should be destroyed, when it is not needed any
+   * more (see {@link #destroy()}).
+   *
+   * @param properties the properties
+   * @return the access token appender
+   */
+  @SuppressWarnings("unused")
+  public static AccessTokenAppender withCachedAccessTokenRetriever(
+      final AccessTokenRetrieverProperties properties) {
+    return new AccessTokenAppender(new CachedAccessTokenProvider(
+        ReactiveAccessTokenProviders.withAccessTokenRetriever(properties)));
+  }
+
+  /**
+   * With access token retriever access token appender, that holds the current access token and
+   * refreshes it in the background. The appender should be destroyed, when it is not needed any
+   * more (see {@link #destroy()}).
+   *
+   * @param retriever the retriever
+   * @param properties the properties
+   * @return the access token appender
+   */
+  public static AccessTokenAppender withCachedAccessTokenRetriever(
+      final AccessTokenRetriever<Mono<String>> retriever,
+      final AccessTokenRetrieverProperties properties) {
+    return new AccessTokenAppender(new CachedAccessTokenProvider(
+        ReactiveAccessTokenProviders.withAccessTokenRetriever(retriever, properties)));
+  }
+
 }
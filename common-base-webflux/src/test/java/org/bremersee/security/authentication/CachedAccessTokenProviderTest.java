@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The cached access token provider test.
+ *
+ * @author Christian Bremer
+ */
+class CachedAccessTokenProviderTest {
+
+  /**
+   * Gets access token.
+   */
+  @Test
+  void getAccessToken() {
+    AtomicInteger calls = new AtomicInteger();
+    String accessToken = createAccessToken(Duration.ofHours(1L));
+    CachedAccessTokenProvider provider = new CachedAccessTokenProvider(
+        () -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return accessToken;
+        }));
+    try {
+      assertNull(provider.getCurrentAccessToken());
+      StepVerifier.create(provider.getAccessToken())
+          .assertNext(token -> assertEquals(accessToken, token))
+          .verifyComplete();
+      assertEquals(accessToken, provider.getCurrentAccessToken());
+      StepVerifier.create(provider.getAccessToken())
+          .assertNext(token -> assertEquals(accessToken, token))
+          .verifyComplete();
+      assertEquals(1, calls.get());
+
+    } finally {
+      provider.destroy();
+    }
+  }
+
+  /**
+   * Gets access token without expiration time.
+   */
+  @Test
+  void getAccessTokenWithoutExpirationTime() {
+    AtomicInteger calls = new AtomicInteger();
+    String accessToken = UUID.randomUUID().toString();
+    CachedAccessTokenProvider provider = new CachedAccessTokenProvider(
+        () -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return accessToken;
+        }));
+    try {
+      StepVerifier.create(provider.getAccessToken())
+          .assertNext(token -> assertEquals(accessToken, token))
+          .verifyComplete();
+      assertNull(provider.getCurrentAccessToken());
+      StepVerifier.create(provider.getAccessToken())
+          .assertNext(token -> assertEquals(accessToken, token))
+          .verifyComplete();
+      assertEquals(2, calls.get());
+
+    } finally {
+      provider.destroy();
+    }
+  }
+
+  /**
+   * Gets access token without reading it.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void getAccessTokenWithoutReadingIt() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CachedAccessTokenProvider provider = new CachedAccessTokenProvider(
+        () -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return createAccessToken(Duration.ofSeconds(2L));
+        }),
+        Duration.ZERO,
+        0.1,
+        null);
+    try {
+      StepVerifier.create(provider.getAccessToken())
+          .expectNextCount(1)
+          .verifyComplete();
+      Thread.sleep(600L);
+      assertEquals(1, calls.get());
+
+    } finally {
+      provider.destroy();
+    }
+  }
+
+  private static String createAccessToken(Duration expiresIn) {
+    return new PlainJWT(new JWTClaimsSet.Builder()
+        .subject("subject")
+        .expirationTime(new Date(System.currentTimeMillis() + expiresIn.toMillis()))
+        .jwtID(UUID.randomUUID().toString())
+        .build())
+        .serialize();
+  }
+
+}
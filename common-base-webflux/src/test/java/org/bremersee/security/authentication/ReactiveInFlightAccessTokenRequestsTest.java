@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.authentication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * The reactive in flight access token requests test.
+ *
+ * @author Christian Bremer
+ */
+class ReactiveInFlightAccessTokenRequestsTest {
+
+  /**
+   * Concurrent requests are coalesced.
+   */
+  @Test
+  void retrieve() {
+    ReactiveInFlightAccessTokenRequests requests = new ReactiveInFlightAccessTokenRequests();
+    AtomicInteger calls = new AtomicInteger();
+    Mono<String> first = requests.retrieve("key", () -> {
+      calls.incrementAndGet();
+      return Mono.just("token").delayElement(Duration.ofMillis(100L));
+    });
+    Mono<String> second = requests.retrieve("key", () -> {
+      calls.incrementAndGet();
+      return Mono.just("other");
+    });
+
+    StepVerifier.create(Mono.zip(first, second))
+        .assertNext(tuple -> {
+          assertEquals("token", tuple.getT1());
+          assertEquals("token", tuple.getT2());
+        })
+        .verifyComplete();
+
+    assertEquals(1, calls.get());
+    assertEquals(1L, requests.getIssuedRequests());
+    assertEquals(1L, requests.getCoalescedRequests());
+    assertEquals(0, requests.size());
+
+    StepVerifier.create(requests.retrieve("key", () -> Mono.just("new")))
+        .assertNext(token -> assertEquals("new", token))
+        .verifyComplete();
+    assertEquals(2L, requests.getIssuedRequests());
+  }
+
+}
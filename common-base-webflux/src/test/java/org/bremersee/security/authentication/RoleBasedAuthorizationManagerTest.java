@@ -17,6 +17,7 @@
 package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -26,8 +27,10 @@ import java.util.Collection;
 import java.util.Collections;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.server.authorization.AuthorizationContext;
 import reactor.core.publisher.Mono;
@@ -162,4 +165,50 @@ class RoleBasedAuthorizationManagerTest {
         .verifyComplete();
   }
 
-}
\ No newline at end of file
+  /**
+   * Check returns shared decisions.
+   */
+  @Test
+  void checkReturnsSharedDecisions() {
+    Authentication authentication = mock(Authentication.class);
+    when(authentication.isAuthenticated())
+        .thenReturn(true);
+    when(authentication.getAuthorities())
+        .thenAnswer((Answer<Collection<? extends GrantedAuthority>>) invocation -> Arrays
+            .asList(new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority("ROLE_ADMIN")));
+    AuthorizationContext authorizationContext = mock(AuthorizationContext.class);
+
+    RoleBasedAuthorizationManager manager = new RoleBasedAuthorizationManager(
+        Collections.singletonList("ROLE_ADMIN"));
+    StepVerifier
+        .create(manager.check(Mono.just(authentication), authorizationContext))
+        .assertNext(decision -> assertSame(AuthorizationDecisions.GRANTED, decision))
+        .expectNextCount(0)
+        .verifyComplete();
+    StepVerifier
+        .create(manager.check(Mono.empty(), authorizationContext))
+        .assertNext(decision -> assertSame(AuthorizationDecisions.DENIED, decision))
+        .expectNextCount(0)
+        .verifyComplete();
+  }
+
+  /**
+   * Check anonymous with no roles.
+   */
+  @Test
+  void checkAnonymousWithNoRoles() {
+    Authentication authentication = new AnonymousAuthenticationToken(
+        "key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+    AuthorizationContext authorizationContext = mock(AuthorizationContext.class);
+
+    RoleBasedAuthorizationManager manager = new RoleBasedAuthorizationManager(
+        Collections.emptyList());
+    StepVerifier
+        .create(manager.check(Mono.just(authentication), authorizationContext))
+        .assertNext(decision -> assertFalse(decision.isGranted()))
+        .expectNextCount(0)
+        .verifyComplete();
+  }
+
+}
@@ -18,6 +18,7 @@ package org.bremersee.security.authentication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -53,12 +54,11 @@ class WebClientAccessTokenRetrieverTest {
    */
   @Test
   void retrieveAccessToken() {
-    final String jwt = "{\"access_token\": \"test-token\"}";
-
     ResponseSpec responseSpec = mock(ResponseSpec.class);
     when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
     //noinspection unchecked
-    when(responseSpec.bodyToMono(any(Class.class))).thenReturn(Mono.just(jwt));
+    when(responseSpec.bodyToMono(any(Class.class)))
+        .thenReturn(Mono.just(new AccessTokenResponse("test-token", 300L)));
 
     //noinspection rawtypes
     RequestHeadersSpec requestHeadersSpec = mock(RequestHeadersSpec.class);
@@ -115,4 +115,17 @@ class WebClientAccessTokenRetrieverTest {
         HttpStatus.FORBIDDEN.value(),
         ((AccessTokenRetrieverAuthenticationException) exception).status());
   }
-}
\ No newline at end of file
+
+  /**
+   * Shared clients.
+   */
+  @Test
+  void sharedClients() {
+    assertSame(
+        TokenEndpointClientFactory.getWebClient(),
+        TokenEndpointClientFactory.getWebClient());
+    assertSame(
+        TokenEndpointClientFactory.getAccessTokenRetriever(),
+        TokenEndpointClientFactory.getAccessTokenRetriever());
+  }
+}
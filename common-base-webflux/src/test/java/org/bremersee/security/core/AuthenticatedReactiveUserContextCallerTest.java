@@ -24,6 +24,8 @@ import static org.mockito.Mockito.when;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
@@ -129,6 +131,80 @@ class AuthenticatedReactiveUserContextCallerTest {
         .verifyComplete();
   }
 
+  /**
+   * One with request scoped user context.
+   */
+  @Test
+  void oneWithRequestScopedUserContext() {
+    AtomicInteger calls = new AtomicInteger();
+    ReactiveUserContextCaller caller = new ReactiveUserContextCaller(
+        ReactiveUserContextCaller.blockingGroupsFn(auth -> {
+          calls.incrementAndGet();
+          return Collections.singleton(group);
+        }),
+        null);
+    StepVerifier
+        .create(caller.oneWithUserContext(Mono::just)
+            .flatMap(first -> caller.manyWithUserContext(second -> Mono.just(first == second))
+                .single())
+            .subscriberContext(ReactiveUserContextCaller::withUserContextCache))
+        .assertNext(Assertions::assertTrue)
+        .verifyComplete();
+    assertEquals(1, calls.get());
+  }
+
+  /**
+   * One with groups cache.
+   */
+  @Test
+  void oneWithGroupsCache() {
+    AtomicInteger calls = new AtomicInteger();
+    ReactiveUserContextCaller caller = new ReactiveUserContextCaller(
+        auth -> Mono.fromCallable(() -> {
+          calls.incrementAndGet();
+          return Collections.singleton(group);
+        }),
+        null);
+    UserGroupsCache groupsCache = new UserGroupsCache();
+    caller.setGroupsCache(groupsCache);
+    StepVerifier
+        .create(caller.oneWithUserContext(Mono::just))
+        .assertNext(userContext -> assertEquals(expected, userContext))
+        .verifyComplete();
+    StepVerifier
+        .create(caller.oneWithUserContext(Mono::just))
+        .assertNext(userContext -> assertEquals(expected, userContext))
+        .verifyComplete();
+    assertEquals(1, calls.get());
+    assertEquals(1, groupsCache.getHits());
+  }
+
+  /**
+   * One with blocking groups function and executor.
+   */
+  @Test
+  void oneWithBlockingGroupsFnAndExecutor() {
+    ReactiveUserContextCaller caller = ReactiveUserContextCaller.withBlockingGroupsFn(
+        auth -> Collections.singleton(group),
+        null);
+    StepVerifier
+        .create(caller.oneWithUserContext(Mono::just))
+        .assertNext(userContext -> assertEquals(expected, userContext))
+        .verifyComplete();
+    BlockingGroupsExecutor executor = new BlockingGroupsExecutor(false, null, 1);
+    try {
+      caller.setBlockingGroupsExecutor(executor);
+      StepVerifier
+          .create(caller.oneWithUserContext(Mono::just))
+          .assertNext(userContext -> assertEquals(expected, userContext))
+          .verifyComplete();
+      assertEquals(1, executor.getAvailablePermits());
+
+    } finally {
+      executor.destroy();
+    }
+  }
+
   private Mono<UserContext> serviceMono(UserContext userContext, Object arg) {
     assertNotNull(arg);
     return Mono.just(userContext);
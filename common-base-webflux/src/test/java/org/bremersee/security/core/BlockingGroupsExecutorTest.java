@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.bremersee.exception.ServiceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+/**
+ * The blocking groups executor test.
+ *
+ * @author Christian Bremer
+ */
+class BlockingGroupsExecutorTest {
+
+  /**
+   * Adapt.
+   */
+  @Test
+  void adapt() {
+    BlockingGroupsExecutor executor = new BlockingGroupsExecutor(true, null, 2);
+    try {
+      StepVerifier
+          .create(executor.adapt(auth -> {
+            assertNotEquals("main", Thread.currentThread().getName());
+            return Collections.singleton("group");
+          }).apply(mock(Authentication.class)))
+          .assertNext(groups -> assertEquals(Set.of("group"), groups))
+          .verifyComplete();
+      StepVerifier
+          .create(executor.adapt(auth -> null).apply(mock(Authentication.class)))
+          .assertNext(groups -> assertEquals(Collections.emptySet(), groups))
+          .verifyComplete();
+      assertEquals(2, executor.getAvailablePermits());
+
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  /**
+   * Execute with timeout.
+   */
+  @Test
+  void executeWithTimeout() {
+    BlockingGroupsExecutor executor = new BlockingGroupsExecutor(
+        false, Duration.ofMillis(50L), 1);
+    try {
+      StepVerifier
+          .create(executor.execute(() -> {
+            sleep(1000L);
+            return Collections.emptySet();
+          }))
+          .expectErrorMatches(e -> e instanceof ServiceException
+              && ((ServiceException) e).status() == 503)
+          .verify();
+
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  /**
+   * Execute with timeout keeps the permit until the blocking call has returned.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void executeWithTimeoutAndHangingCall() throws Exception {
+    BlockingGroupsExecutor executor = new BlockingGroupsExecutor(
+        false, Duration.ofMillis(50L), 1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      StepVerifier
+          .create(executor.execute(() -> {
+            awaitUninterruptibly(release);
+            return Collections.emptySet();
+          }))
+          .expectErrorMatches(e -> e instanceof ServiceException
+              && ((ServiceException) e).status() == 503)
+          .verify();
+      assertEquals(0, executor.getAvailablePermits());
+      release.countDown();
+      long end = System.currentTimeMillis() + 5000L;
+      while (executor.getAvailablePermits() == 0 && System.currentTimeMillis() < end) {
+        Thread.sleep(10L);
+      }
+      assertEquals(1, executor.getAvailablePermits());
+
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  /**
+   * Execute with too many calls.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  void executeWithTooManyCalls() throws Exception {
+    BlockingGroupsExecutor executor = new BlockingGroupsExecutor(false, null, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      Disposable running = executor
+          .execute(() -> {
+            started.countDown();
+            await(release);
+            return Collections.emptySet();
+          })
+          .subscribe();
+      started.await();
+      StepVerifier
+          .create(executor.execute(Collections::emptySet))
+          .expectErrorMatches(e -> e instanceof ServiceException
+              && ((ServiceException) e).status() == 503)
+          .verify();
+      release.countDown();
+      running.dispose();
+
+    } finally {
+      executor.destroy();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    boolean interrupted = false;
+    while (latch.getCount() > 0) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -17,10 +17,12 @@
 package org.bremersee.web.reactive.function.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -39,6 +41,7 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -109,6 +112,66 @@ class AccessTokenAppenderWithRetrieverTest {
         .verifyComplete();
   }
 
+  /**
+   * Tests filter with cached access token.
+   */
+  @Test
+  void filterWithCachedAccessToken() {
+    //noinspection unchecked
+    AccessTokenRetriever<Mono<String>> tokenRetriever = mock(
+        AccessTokenRetriever.class);
+    when(tokenRetriever.retrieveAccessToken(any(PasswordFlowProperties.class)))
+        .thenReturn(Mono.just(validAccessToken()));
+
+    AccessTokenAppender appender = AccessTokenAppender.withCachedAccessTokenRetriever(
+        tokenRetriever,
+        properties());
+
+    ExchangeFunction exchangeFunction = createExchangeFunction();
+    StepVerifier.create(appender.filter(request, exchangeFunction))
+        .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+        .verifyComplete();
+    StepVerifier.create(appender.filter(request, exchangeFunction))
+        .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+        .verifyComplete();
+    verify(tokenRetriever, times(1)).retrieveAccessToken(any(PasswordFlowProperties.class));
+    verify(exchangeFunction, times(2)).exchange(any(ClientRequest.class));
+    assertNotNull(appender.getCachedAccessTokenProvider());
+    appender.destroy();
+  }
+
+  /**
+   * Tests default request.
+   */
+  @Test
+  void defaultRequest() {
+    String accessToken = validAccessToken();
+    //noinspection unchecked
+    AccessTokenRetriever<Mono<String>> tokenRetriever = mock(
+        AccessTokenRetriever.class);
+    when(tokenRetriever.retrieveAccessToken(any(PasswordFlowProperties.class)))
+        .thenReturn(Mono.just(accessToken));
+
+    AccessTokenAppender appender = AccessTokenAppender.withCachedAccessTokenRetriever(
+        tokenRetriever,
+        properties());
+
+    //noinspection rawtypes
+    RequestHeadersSpec spec = mock(RequestHeadersSpec.class);
+    //noinspection unchecked
+    appender.defaultRequest().accept(spec);
+    verifyNoMoreInteractions(spec);
+
+    ExchangeFunction exchangeFunction = createExchangeFunction();
+    StepVerifier.create(appender.filter(request, exchangeFunction))
+        .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+        .verifyComplete();
+    //noinspection unchecked
+    appender.defaultRequest().accept(spec);
+    verify(spec, times(1)).header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+    appender.destroy();
+  }
+
   private static ExchangeFunction createExchangeFunction() {
     ExchangeFunction exchangeFunction = mock(ExchangeFunction.class);
     when(exchangeFunction.exchange(any(ClientRequest.class)))
@@ -20,7 +20,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.validation.constraints.NotNull;
 import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.core.RoleSet;
 import org.springframework.lang.Nullable;
 
 /**
@@ -41,14 +45,91 @@ public interface AccessController {
   }
 
   /**
-   * Creates an access controller from the given access control list.
+   * Creates an access controller from the given access control list. The access control list is
+   * not copied. If its keys are not lower case and it isn't a {@link NormalizedAcl}, it is
+   * normalized once, when the first permission is checked.
    *
    * @param acl the access control list
    * @return the access controller
    */
-  @SuppressWarnings("rawtypes")
+  @SuppressWarnings({"rawtypes", "unchecked"})
   static AccessController from(@Nullable Acl acl) {
-    return acl == null ? new Impl() : new Impl(AclBuilder.builder().from(acl).buildAcl());
+    return acl == null ? new Impl() : new Impl(acl);
+  }
+
+  /**
+   * Compiles the given access control list into an access controller, that maps the permissions
+   * to small ids and the users, roles and groups to bit sets of these ids. It should be used, when
+   * the same access control list is checked several times.
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  static AccessController compile(@Nullable AccessControlList acl) {
+    return new CompiledAccessController(acl);
+  }
+
+  /**
+   * Compiles the given access control list into an access controller, that maps the permissions
+   * to small ids and the users, roles and groups to bit sets of these ids. It should be used, when
+   * the same access control list is checked several times.
+   *
+   * @param acl the access control list
+   * @return the access controller
+   */
+  static AccessController compile(@Nullable Acl<? extends Ace> acl) {
+    return new CompiledAccessController(acl);
+  }
+
+  /**
+   * Filters the given items by the specified permission of the given user with the given roles and
+   * groups. The access control lists of the items are checked in place, without copying or
+   * normalizing them.
+   *
+   * @param <T> the type of the items
+   * @param items the items
+   * @param aclFn the function, that returns the access control list of an item
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   * @return the items, that the user is permitted to access
+   */
+  static <T> Stream<T> filter(
+      @NotNull Stream<T> items,
+      @NotNull Function<? super T, ? extends Acl<? extends Ace>> aclFn,
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+    return items.filter(new AclPermissionFilter<>(aclFn, user, roles, groups, permission));
+  }
+
+  /**
+   * Filters the given items by the specified permission of the given user with the given roles and
+   * groups. The access control lists of the items are checked in place, without copying or
+   * normalizing them. Very large inputs can be filtered in parallel (by the common fork join
+   * pool).
+   *
+   * @param <T> the type of the items
+   * @param items the items
+   * @param aclFn the function, that returns the access control list of an item
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   * @param parallel specifies whether the items should be filtered in parallel
+   * @return the items, that the user is permitted to access
+   */
+  static <T> Stream<T> filter(
+      @NotNull Stream<T> items,
+      @NotNull Function<? super T, ? extends Acl<? extends Ace>> aclFn,
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission,
+      boolean parallel) {
+    return filter(parallel ? items.parallel() : items, aclFn, user, roles, groups, permission);
   }
 
   /**
@@ -160,12 +241,14 @@ public interface AccessController {
   }
 
   /**
-   * The default access controller implementation.
+   * The default access controller implementation. It is a view of the access control list.
    */
   class Impl implements AccessController {
 
     private final Acl<? extends Ace> acl;
 
+    private volatile Map<String, ? extends Ace> entries;
+
     /**
      * Instantiates a new access controller.
      */
@@ -182,6 +265,24 @@ public interface AccessController {
       this.acl = acl;
     }
 
+    private Map<String, ? extends Ace> entryMap() {
+      Map<String, ? extends Ace> map = entries;
+      if (map == null) {
+        map = normalize(acl);
+        entries = map;
+      }
+      return map;
+    }
+
+    private static Map<String, ? extends Ace> normalize(final Acl<? extends Ace> acl) {
+      final Map<String, ? extends Ace> map = acl.entryMap();
+      if (map == null || acl instanceof NormalizedAcl || map.keySet().stream()
+          .allMatch(key -> key != null && key.equals(key.toLowerCase()))) {
+        return map;
+      }
+      return AclBuilder.builder().from(acl).buildAcl().entryMap();
+    }
+
     @Override
     public boolean hasPermission(
         final String user,
@@ -198,7 +299,7 @@ public interface AccessController {
       if (user != null && user.equals(acl.getOwner())) {
         return true;
       }
-      final Map<String, ? extends Ace> map = acl.entryMap();
+      final Map<String, ? extends Ace> map = entryMap();
       if (map == null) {
         return false;
       }
@@ -212,7 +313,11 @@ public interface AccessController {
       if (ace.getUsers().contains(user)) {
         return true;
       }
-      if (roles != null && roles.stream().anyMatch(role -> ace.getRoles().contains(role))) {
+      if (roles instanceof RoleSet) {
+        if (((RoleSet) roles).containsAny(ace.getRoles())) {
+          return true;
+        }
+      } else if (roles != null && roles.stream().anyMatch(role -> ace.getRoles().contains(role))) {
         return true;
       }
       return groups != null && groups.stream().anyMatch(group -> ace.getGroups().contains(group));
@@ -26,6 +26,7 @@ import java.util.Optional;
 import javax.validation.constraints.NotNull;
 import org.bremersee.common.model.AccessControlList;
 import org.bremersee.security.core.AuthorityConstants;
+import org.bremersee.security.core.AuthorityPool;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
@@ -247,7 +248,7 @@ public interface AclBuilder {
    * @return the acl
    */
   default Acl<? extends Ace> buildAcl() {
-    return build((o, e) -> new AclImpl(o, new HashMap<>(e)));
+    return build(AclImpl.Normalized::new);
   }
 
   /**
@@ -397,7 +398,7 @@ public interface AclBuilder {
             .forEach(permission -> entries
                 .computeIfAbsent(permission, p -> new AceImpl())
                 .getRoles()
-                .add(role));
+                .add(AuthorityPool.intern(role)));
       }
       return this;
     }
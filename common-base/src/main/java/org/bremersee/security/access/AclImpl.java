@@ -83,4 +83,22 @@ class AclImpl extends TreeMap<String, Ace> implements Acl<Ace> {
     return Objects.hash(owner, new TreeMap<>(this));
   }
 
+  /**
+   * The internal acl implementation, that is created by the acl builder; its keys are lower case.
+   */
+  static class Normalized extends AclImpl implements NormalizedAcl<Ace> {
+
+    /**
+     * Instantiates a new normalized internal acl.
+     *
+     * @param owner the owner
+     * @param entries the entries with lower case keys
+     */
+    Normalized(
+        final String owner,
+        final Map<String, ? extends Ace> entries) {
+      super(owner, entries);
+    }
+  }
+
 }
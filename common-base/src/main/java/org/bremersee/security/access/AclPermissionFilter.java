@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.bremersee.security.core.RoleSet;
+import org.springframework.lang.Nullable;
+
+/**
+ * The predicate of the bulk filter of the access controller ({@code AccessController.filter}).
+ * The user, the roles, the groups and the permission are normalized once; the access control
+ * lists of the items are read in place without copying them.
+ *
+ * @param <T> the type of the items
+ * @author Christian Bremer
+ */
+class AclPermissionFilter<T> implements Predicate<T> {
+
+  private final Function<? super T, ? extends Acl<? extends Ace>> aclFn;
+
+  private final String user;
+
+  private final RoleSet roles;
+
+  private final RoleSet groups;
+
+  private final String permission;
+
+  /**
+   * Instantiates a new acl permission filter.
+   *
+   * @param aclFn the function, that returns the access control list of an item
+   * @param user the user
+   * @param roles the roles
+   * @param groups the groups
+   * @param permission the permission
+   */
+  AclPermissionFilter(
+      Function<? super T, ? extends Acl<? extends Ace>> aclFn,
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+    this.aclFn = aclFn;
+    this.user = user;
+    this.roles = RoleSet.of(roles);
+    this.groups = RoleSet.of(groups);
+    this.permission = permission != null ? permission.toLowerCase() : null;
+  }
+
+  @Override
+  public boolean test(T item) {
+    if (permission == null || item == null) {
+      return false;
+    }
+    final Acl<? extends Ace> acl = aclFn.apply(item);
+    if (acl == null) {
+      return false;
+    }
+    if (user != null && user.equals(acl.getOwner())) {
+      return true;
+    }
+    final Map<String, ? extends Ace> entries = acl.entryMap();
+    if (entries == null || entries.isEmpty()) {
+      return false;
+    }
+    final Ace ace = entries.get(permission);
+    if (ace != null && isGranted(ace)) {
+      return true;
+    }
+    if (acl instanceof NormalizedAcl) {
+      return false;
+    }
+    // The entries of an access control list, that is not normalized, may contain several case
+    // variants of the permission (e. g. 'read' and 'READ'); like the normalization, that merges
+    // them, the access is granted, if one of them grants it.
+    for (Map.Entry<String, ? extends Ace> entry : entries.entrySet()) {
+      if (!permission.equals(entry.getKey())
+          && permission.equalsIgnoreCase(entry.getKey())
+          && entry.getValue() != null
+          && isGranted(entry.getValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isGranted(Ace ace) {
+    if (ace.isGuest()) {
+      return true;
+    }
+    final Set<String> users = ace.getUsers();
+    if (user != null && users != null && users.contains(user)) {
+      return true;
+    }
+    return containsAny(roles, ace.getRoles()) || containsAny(groups, ace.getGroups());
+  }
+
+  private static boolean containsAny(RoleSet names, @Nullable Set<String> aceNames) {
+    if (names.isEmpty() || aceNames == null || aceNames.isEmpty()) {
+      return false;
+    }
+    if (aceNames.size() <= names.size()) {
+      return names.containsAny(aceNames);
+    }
+    for (String name : names) {
+      if (aceNames.contains(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
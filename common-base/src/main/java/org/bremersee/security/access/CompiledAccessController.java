@@ -0,0 +1,273 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.bremersee.common.model.AccessControlEntry;
+import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.core.AuthorityPool;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * An access controller, that is compiled from an access control list. Every permission gets a
+ * small id; users, roles and groups are mapped to the bit set of the ids of their permissions. So
+ * a check is a hash lookup per user, role and group and a bit test; checks of several permissions
+ * intersect the bit set of all granted permissions with the ids of the requested ones.
+ *
+ * <p>The compiled form is a snapshot, later changes of the access control list are not visible.
+ * It should be used, when the same access control list is checked several times.
+ *
+ * @author Christian Bremer
+ */
+class CompiledAccessController implements AccessController {
+
+  private static final BitSet NONE = new BitSet(0);
+
+  private final String owner;
+
+  private final Map<String, Integer> permissionIds = new HashMap<>();
+
+  private final BitSet guest = new BitSet();
+
+  private final Map<String, BitSet> users = new HashMap<>();
+
+  private final Map<String, BitSet> roles = new HashMap<>();
+
+  private final Map<String, BitSet> groups = new HashMap<>();
+
+  /**
+   * Instantiates a new compiled access controller.
+   *
+   * @param acl the access control list
+   */
+  CompiledAccessController(@Nullable Acl<? extends Ace> acl) {
+    this.owner = acl != null ? acl.getOwner() : null;
+    final Map<String, ? extends Ace> entries = acl != null ? acl.entryMap() : null;
+    if (entries != null) {
+      entries.forEach((permission, ace) -> {
+        if (StringUtils.hasText(permission) && ace != null) {
+          add(
+              permission,
+              ace.isGuest(),
+              ace.getUsers(),
+              ace.getRoles(),
+              ace.getGroups());
+        }
+      });
+    }
+  }
+
+  /**
+   * Instantiates a new compiled access controller.
+   *
+   * @param acl the access control list
+   */
+  CompiledAccessController(@Nullable AccessControlList acl) {
+    this.owner = acl != null ? acl.getOwner() : null;
+    if (acl != null && acl.getEntries() != null) {
+      for (AccessControlEntry entry : acl.getEntries()) {
+        if (entry != null && StringUtils.hasText(entry.getPermission())) {
+          add(
+              entry.getPermission(),
+              Boolean.TRUE.equals(entry.getGuest()),
+              entry.getUsers(),
+              entry.getRoles(),
+              entry.getGroups());
+        }
+      }
+    }
+  }
+
+  private void add(
+      String permission,
+      boolean isGuest,
+      @Nullable Collection<String> users,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups) {
+    final int id = permissionIds
+        .computeIfAbsent(permission.toLowerCase(), key -> permissionIds.size());
+    if (isGuest) {
+      guest.set(id);
+    }
+    add(this.users, users, id, false);
+    add(this.roles, roles, id, true);
+    add(this.groups, groups, id, false);
+  }
+
+  private static void add(
+      Map<String, BitSet> principals,
+      @Nullable Collection<String> names,
+      int permissionId,
+      boolean pooled) {
+    if (names != null) {
+      for (String name : names) {
+        if (StringUtils.hasText(name)) {
+          principals
+              .computeIfAbsent(pooled ? AuthorityPool.intern(name) : name, key -> new BitSet())
+              .set(permissionId);
+        }
+      }
+    }
+  }
+
+  private int permissionId(String permission) {
+    Integer id = permissionIds.get(permission);
+    if (id == null) {
+      final String lowerCasePermission = permission.toLowerCase();
+      if (!lowerCasePermission.equals(permission)) {
+        id = permissionIds.get(lowerCasePermission);
+      }
+    }
+    return id != null ? id : -1;
+  }
+
+  private static boolean isGranted(
+      Map<String, BitSet> principals,
+      @Nullable Collection<String> names,
+      int permissionId) {
+    if (names == null || names.isEmpty() || principals.isEmpty()) {
+      return false;
+    }
+    for (String name : names) {
+      final BitSet permissions = principals.get(name);
+      if (permissions != null && permissions.get(permissionId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private BitSet grantedPermissions(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups) {
+    final BitSet granted = (BitSet) guest.clone();
+    granted.or(users.getOrDefault(user, NONE));
+    grant(granted, this.roles, roles);
+    grant(granted, this.groups, groups);
+    return granted;
+  }
+
+  private static void grant(
+      BitSet granted,
+      Map<String, BitSet> principals,
+      @Nullable Collection<String> names) {
+    if (names != null && !principals.isEmpty()) {
+      for (String name : names) {
+        final BitSet permissions = principals.get(name);
+        if (permissions != null) {
+          granted.or(permissions);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean hasPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable String permission) {
+
+    if (permission == null) {
+      return false;
+    }
+    if (user != null && user.equals(owner)) {
+      return true;
+    }
+    final int id = permissionId(permission);
+    if (id < 0) {
+      return false;
+    }
+    if (guest.get(id)) {
+      return true;
+    }
+    final BitSet userPermissions = users.get(user);
+    if (userPermissions != null && userPermissions.get(id)) {
+      return true;
+    }
+    return isGranted(this.roles, roles, id) || isGranted(this.groups, groups, id);
+  }
+
+  @Override
+  public boolean hasAnyPermission(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+
+    if (permissions == null || permissions.isEmpty()) {
+      return false;
+    }
+    final boolean isOwner = user != null && user.equals(owner);
+    BitSet granted = null;
+    for (String permission : permissions) {
+      if (permission != null) {
+        if (isOwner) {
+          return true;
+        }
+        final int id = permissionId(permission);
+        if (id >= 0) {
+          if (granted == null) {
+            granted = grantedPermissions(user, roles, groups);
+          }
+          if (granted.get(id)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasAllPermissions(
+      @Nullable String user,
+      @Nullable Collection<String> roles,
+      @Nullable Collection<String> groups,
+      @Nullable Collection<String> permissions) {
+
+    if (permissions == null || permissions.isEmpty()) {
+      return false;
+    }
+    final boolean isOwner = user != null && user.equals(owner);
+    BitSet granted = null;
+    for (String permission : permissions) {
+      if (permission == null) {
+        return false;
+      }
+      if (!isOwner) {
+        final int id = permissionId(permission);
+        if (id < 0) {
+          return false;
+        }
+        if (granted == null) {
+          granted = grantedPermissions(user, roles, groups);
+        }
+        if (!granted.get(id)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+}
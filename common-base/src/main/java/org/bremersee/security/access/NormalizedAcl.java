@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+/**
+ * A marker of access control lists, whose entry keys (the permissions) are already lower case,
+ * for example, because they are created by the {@link AclBuilder}. The access controller uses such
+ * access control lists as they are, without normalizing them.
+ *
+ * @param <E> the type of the access control entries
+ * @author Christian Bremer
+ */
+public interface NormalizedAcl<E extends Ace> extends Acl<E> {
+
+}
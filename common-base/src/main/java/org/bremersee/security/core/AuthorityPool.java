@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The pool of authority and role names. Authentications, user contexts and access control lists,
+ * that are created from different requests, share the same string instances, so that membership
+ * checks (see {@link RoleSet}) are mostly identity comparisons. The pool is bounded; if it is
+ * full, the given strings are returned as they are.
+ *
+ * @author Christian Bremer
+ */
+public abstract class AuthorityPool {
+
+  /**
+   * The maximum number of pooled names.
+   */
+  public static final int MAX_SIZE = 10000;
+
+  private static final ConcurrentMap<String, String> pool = new ConcurrentHashMap<>();
+
+  private static final ConcurrentMap<String, ConcurrentMap<String, String>> prefixedPool
+      = new ConcurrentHashMap<>();
+
+  private AuthorityPool() {
+  }
+
+  /**
+   * Returns the pooled instance of the given name.
+   *
+   * @param name the name of the authority or role
+   * @return the pooled name
+   */
+  public static String intern(@NotNull String name) {
+    final String pooled = pool.get(name);
+    if (pooled != null) {
+      return pooled;
+    }
+    if (pool.size() >= MAX_SIZE) {
+      return name;
+    }
+    final String previous = pool.putIfAbsent(name, name);
+    return previous != null ? previous : name;
+  }
+
+  /**
+   * Returns the pooled instance of the given name with the given prefix. If the name already
+   * starts with the prefix, the prefix is not added again. The prefixed name is only built, if it
+   * is not pooled yet.
+   *
+   * @param prefix the prefix, e. g. {@code ROLE_}
+   * @param name the name of the authority or role
+   * @return the pooled prefixed name
+   */
+  public static String intern(@NotNull String prefix, @NotNull String name) {
+    if (prefix.isEmpty() || name.startsWith(prefix)) {
+      return intern(name);
+    }
+    final ConcurrentMap<String, String> names = prefixedPool
+        .computeIfAbsent(prefix, key -> new ConcurrentHashMap<>());
+    final String pooled = names.get(name);
+    if (pooled != null) {
+      return pooled;
+    }
+    final String prefixedName = intern(prefix + name);
+    if (pool.size() < MAX_SIZE && names.size() < MAX_SIZE) {
+      names.putIfAbsent(name, prefixedName);
+    }
+    return prefixedName;
+  }
+
+  /**
+   * Returns the number of pooled names.
+   *
+   * @return the size
+   */
+  public static int size() {
+    return pool.size();
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import org.springframework.lang.Nullable;
+
+/**
+ * An immutable and compact set of role (or authority) names. The names are taken from the
+ * {@link AuthorityPool} and are stored in an open addressing hash table, so a membership check
+ * is one hash probe, that is mostly decided by an identity comparison.
+ *
+ * @author Christian Bremer
+ */
+public final class RoleSet extends AbstractSet<String> {
+
+  private static final RoleSet EMPTY = new RoleSet(new String[0], new String[1]);
+
+  private final String[] elements;
+
+  private final String[] table;
+
+  private final int mask;
+
+  private RoleSet(String[] elements, String[] table) {
+    this.elements = elements;
+    this.table = table;
+    this.mask = table.length - 1;
+  }
+
+  /**
+   * Returns the empty role set.
+   *
+   * @return the empty role set
+   */
+  public static RoleSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a role set of the given roles. If the given roles are already a role set, they are
+   * returned without copying.
+   *
+   * @param roles the roles
+   * @return the role set
+   */
+  public static RoleSet of(@Nullable Collection<String> roles) {
+    if (roles instanceof RoleSet) {
+      return (RoleSet) roles;
+    }
+    return of(roles, Function.identity());
+  }
+
+  /**
+   * Creates a role set of the given objects, e. g. of granted authorities.
+   *
+   * @param <T> the type of the objects
+   * @param objects the objects
+   * @param nameFn the function, that returns the role name of an object
+   * @return the role set
+   */
+  public static <T> RoleSet of(
+      @Nullable Collection<? extends T> objects,
+      Function<? super T, String> nameFn) {
+    if (objects == null || objects.isEmpty()) {
+      return EMPTY;
+    }
+    final String[] table = new String[tableSize(objects.size())];
+    final int mask = table.length - 1;
+    String[] elements = new String[objects.size()];
+    int size = 0;
+    for (T object : objects) {
+      final String name = object != null ? nameFn.apply(object) : null;
+      if (name != null) {
+        final String pooledName = AuthorityPool.intern(name);
+        if (insert(table, mask, pooledName)) {
+          elements[size++] = pooledName;
+        }
+      }
+    }
+    if (size == 0) {
+      return EMPTY;
+    }
+    if (size < elements.length) {
+      elements = Arrays.copyOf(elements, size);
+    }
+    return new RoleSet(elements, table);
+  }
+
+  private static int tableSize(int size) {
+    int tableSize = 2;
+    while (tableSize < size * 2) {
+      tableSize <<= 1;
+    }
+    return tableSize;
+  }
+
+  private static boolean insert(String[] table, int mask, String name) {
+    int index = name.hashCode() & mask;
+    String current;
+    while ((current = table[index]) != null) {
+      if (current == name || current.equals(name)) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    table[index] = name;
+    return true;
+  }
+
+  private static int indexOf(String[] table, int mask, String name) {
+    int index = name.hashCode() & mask;
+    String current;
+    while ((current = table[index]) != null) {
+      if (current == name || current.equals(name)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof String && indexOf(table, mask, (String) o) >= 0;
+  }
+
+  /**
+   * Determines whether this set contains at least one of the given roles.
+   *
+   * @param roles the roles
+   * @return {@code true} if this set contains at least one of the given roles, otherwise
+   *     {@code false}
+   */
+  public boolean containsAny(@Nullable Collection<String> roles) {
+    if (roles == null || roles.isEmpty() || elements.length == 0) {
+      return false;
+    }
+    if (roles instanceof RoleSet && roles.size() < elements.length) {
+      return ((RoleSet) roles).containsAny(this);
+    }
+    for (String role : roles) {
+      if (role != null && indexOf(table, mask, role) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<>() {
+
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < elements.length;
+      }
+
+      @Override
+      public String next() {
+        if (index >= elements.length) {
+          throw new NoSuchElementException();
+        }
+        return elements[index++];
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  public Object[] toArray() {
+    return elements.clone();
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package org.bremersee.security.access;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -24,8 +25,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.bremersee.common.model.AccessControlEntry;
 import org.bremersee.common.model.AccessControlList;
+import org.bremersee.security.core.RoleSet;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -133,6 +141,22 @@ class AccessControllerTest {
                 Collections.emptyList(),
                 Collections.singleton("group"),
                 "write"));
+    assertTrue(
+        AccessController
+            .from(acl)
+            .hasAnyPermission(
+                "test",
+                RoleSet.of(Arrays.asList("other", "role")),
+                Collections.emptyList(),
+                "write"));
+    assertFalse(
+        AccessController
+            .from(acl)
+            .hasAnyPermission(
+                "test",
+                RoleSet.of(Collections.singletonList("other")),
+                Collections.emptyList(),
+                "write"));
     assertTrue(
         AccessController
             .from(acl)
@@ -215,4 +239,117 @@ class AccessControllerTest {
                 "read", "write"));
   }
 
-}
\ No newline at end of file
+  /**
+   * Filter.
+   */
+  @Test
+  void filter() {
+    AceImpl writeAce = new AceImpl();
+    writeAce.getRoles().add("role");
+    writeAce.getGroups().add("group");
+    AceImpl readAce = new AceImpl();
+    readAce.setGuest(true);
+    Map<String, Ace> entries = new HashMap<>();
+    entries.put("WRITE", writeAce);
+    entries.put("read", readAce);
+    List<Acl<Ace>> acls = List.of(
+        new AclImpl("owner", entries),
+        new AclImpl("other", Map.of("write", new AceImpl())),
+        new AclImpl("other", null));
+
+    assertEquals(
+        List.of(acls.get(0)),
+        AccessController
+            .filter(acls.stream(), acl -> acl, "user", List.of("role"), null, "write")
+            .collect(Collectors.toList()));
+    assertEquals(
+        List.of(acls.get(0)),
+        AccessController
+            .filter(acls.stream(), acl -> acl, "user", null, Set.of("group"), "Write", true)
+            .collect(Collectors.toList()));
+    assertEquals(
+        List.of(acls.get(1), acls.get(2)),
+        AccessController
+            .filter(acls.stream(), acl -> acl, "other", null, null, "delete")
+            .collect(Collectors.toList()));
+    assertEquals(
+        List.of(acls.get(0)),
+        AccessController
+            .filter(acls.stream(), acl -> acl, null, null, null, "read")
+            .collect(Collectors.toList()));
+    assertEquals(
+        0L,
+        AccessController
+            .filter(acls.stream(), acl -> acl, "owner", null, null, null)
+            .count());
+  }
+
+  /**
+   * Filter with case variants of a permission.
+   */
+  @Test
+  void filterWithCaseVariantsOfPermission() {
+    AceImpl lowerAce = new AceImpl();
+    lowerAce.getUsers().add("anna");
+    lowerAce.getRoles().add("ROLE_USER");
+    AceImpl upperAce = new AceImpl();
+    upperAce.getUsers().add("livia");
+    upperAce.getGroups().add("developers");
+    Map<String, Ace> entries = new LinkedHashMap<>();
+    entries.put("read", lowerAce);
+    entries.put("READ", upperAce);
+    Acl<Ace> acl = new AclImpl("owner", entries);
+
+    List<String> users = Arrays.asList("anna", "livia", "other", null);
+    List<List<String>> roles = List.of(List.of(), List.of("ROLE_USER"));
+    List<List<String>> groups = List.of(List.of(), List.of("developers"));
+    for (String user : users) {
+      for (List<String> roleList : roles) {
+        for (List<String> groupList : groups) {
+          for (String permission : List.of("read", "Read", "READ", "write")) {
+            boolean expected = AccessController.from(acl)
+                .hasPermission(user, roleList, groupList, permission);
+            assertEquals(
+                expected ? 1L : 0L,
+                AccessController
+                    .filter(Stream.of(acl), a -> a, user, roleList, groupList, permission)
+                    .count(),
+                "user = " + user + ", roles = " + roleList + ", groups = " + groupList
+                    + ", permission = " + permission);
+          }
+        }
+      }
+    }
+    assertEquals(1L, AccessController
+        .filter(Stream.of(acl), a -> a, "livia", null, null, "read")
+        .count());
+  }
+
+  /**
+   * From acl without copy.
+   */
+  @Test
+  void fromAclWithoutCopy() {
+    Acl<? extends Ace> normalized = AclBuilder.builder()
+        .owner("owner")
+        .addUser("user", "read")
+        .buildAcl();
+    assertTrue(normalized instanceof NormalizedAcl);
+    AccessController controller = AccessController.from(normalized);
+    assertTrue(controller.hasPermission("user", null, null, "READ"));
+    normalized.entryMap().get("read").getUsers().add("other");
+    assertTrue(controller.hasPermission("other", null, null, "read"));
+
+    AceImpl ace = new AceImpl();
+    ace.getRoles().add("role");
+    AclImpl notNormalized = new AclImpl("owner", Map.of("Write", ace));
+    assertFalse(notNormalized instanceof NormalizedAcl);
+    assertTrue(AccessController
+        .from(notNormalized)
+        .hasPermission("user", List.of("role"), null, "write"));
+    assertFalse(AccessController
+        .from(notNormalized)
+        .hasPermission("user", List.of("role"), null, "read"));
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.bremersee.common.model.AccessControlEntry;
+import org.bremersee.common.model.AccessControlList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The compiled access controller test.
+ *
+ * @author Christian Bremer
+ */
+class CompiledAccessControllerTest {
+
+  private static final AccessControlList acl = AccessControlList
+      .builder()
+      .owner("owner")
+      .entries(Arrays.asList(
+          AccessControlEntry
+              .builder()
+              .permission("WRITE")
+              .groups(Collections.singletonList("group"))
+              .roles(Collections.singletonList("role"))
+              .users(Collections.singletonList("user"))
+              .build(),
+          AccessControlEntry
+              .builder()
+              .permission("read")
+              .guest(true)
+              .build()))
+      .build();
+
+  /**
+   * Has permission.
+   */
+  @Test
+  void hasPermission() {
+    AccessController controller = AccessController.compile(acl);
+    assertTrue(controller.hasPermission("owner", null, null, "delete"));
+    assertTrue(controller.hasPermission(null, null, null, "read"));
+    assertTrue(controller.hasPermission("user", null, null, "write"));
+    assertTrue(controller.hasPermission(null, List.of("other", "role"), null, "Write"));
+    assertTrue(controller.hasPermission(null, null, List.of("group"), "write"));
+    assertFalse(controller.hasPermission("other", List.of("other"), List.of("other"), "write"));
+    assertFalse(controller.hasPermission("user", null, null, "delete"));
+    assertFalse(controller.hasPermission("owner", null, null, null));
+    assertFalse(AccessController.compile((AccessControlList) null)
+        .hasPermission("owner", null, null, "read"));
+  }
+
+  /**
+   * Has any and all permissions.
+   */
+  @Test
+  void hasAnyAndAllPermissions() {
+    AccessController controller = AccessController.compile(AclBuilder.builder()
+        .from(acl)
+        .buildAcl());
+    assertTrue(controller.hasAnyPermission("user", null, null, "delete", "write"));
+    assertFalse(controller.hasAnyPermission("other", null, null, "delete", "write"));
+    assertTrue(controller.hasAllPermissions("user", null, null, "read", "write"));
+    assertFalse(controller.hasAllPermissions("other", null, null, "read", "write"));
+    assertTrue(controller.hasAllPermissions("owner", null, null, "read", "delete"));
+    assertFalse(controller.hasAllPermissions("owner", null, null, new ArrayList<>()));
+  }
+
+  /**
+   * Compare with default access controller.
+   */
+  @Test
+  void compareWithDefaultAccessController() {
+    Random random = new Random(4711L);
+    for (int i = 0; i < 50; i++) {
+      AclBuilder builder = AclBuilder.builder().owner("u0");
+      for (String permission : PermissionConstants.ALL) {
+        builder.guest(random.nextInt(10) == 0, permission);
+        for (int j = 0; j < 5; j++) {
+          builder.addUser("u" + random.nextInt(10), permission);
+          builder.addRole("r" + random.nextInt(10), permission);
+          builder.addGroup("g" + random.nextInt(10), permission);
+        }
+      }
+      Acl<? extends Ace> source = builder.buildAcl();
+      AccessController expected = AccessController.from(source);
+      AccessController actual = AccessController.compile(source);
+      for (int j = 0; j < 50; j++) {
+        String user = "u" + random.nextInt(12);
+        List<String> roles = List.of("r" + random.nextInt(12), "r" + random.nextInt(12));
+        List<String> groups = List.of("g" + random.nextInt(12));
+        String permission = PermissionConstants.ALL[random.nextInt(PermissionConstants.ALL.length)];
+        assertEquals(
+            expected.hasPermission(user, roles, groups, permission),
+            actual.hasPermission(user, roles, groups, permission));
+        assertEquals(
+            expected.hasAllPermissions(user, roles, groups, PermissionConstants.ALL),
+            actual.hasAllPermissions(user, roles, groups, PermissionConstants.ALL));
+        assertEquals(
+            expected.hasAnyPermission(user, roles, groups, permission, "unknown"),
+            actual.hasAnyPermission(user, roles, groups, permission, "unknown"));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bremersee.security.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The role set test.
+ *
+ * @author Christian Bremer
+ */
+class RoleSetTest {
+
+  /**
+   * Of.
+   */
+  @Test
+  void of() {
+    assertSame(RoleSet.empty(), RoleSet.of(null));
+    assertSame(RoleSet.empty(), RoleSet.of(Collections.emptyList()));
+
+    RoleSet actual = RoleSet.of(Arrays.asList("ROLE_ADMIN", "ROLE_USER", "ROLE_ADMIN", null));
+    assertEquals(2, actual.size());
+    assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), actual);
+    assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER").hashCode(), actual.hashCode());
+    assertSame(actual, RoleSet.of(actual));
+    assertSame(AuthorityPool.intern("ROLE_USER"), actual.toArray()[1]);
+    assertThrows(UnsupportedOperationException.class, () -> actual.add("ROLE_GUEST"));
+    assertThrows(UnsupportedOperationException.class, () -> actual.remove("ROLE_USER"));
+  }
+
+  /**
+   * Contains.
+   */
+  @Test
+  void contains() {
+    RoleSet actual = RoleSet.of(List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_LOCAL_USER"));
+    assertTrue(actual.contains(new String("ROLE_USER".toCharArray())));
+    assertTrue(actual.contains("ROLE_LOCAL_USER"));
+    assertFalse(actual.contains("ROLE_GUEST"));
+    assertFalse(actual.contains(null));
+    assertFalse(actual.contains(1));
+    assertFalse(RoleSet.empty().contains("ROLE_USER"));
+  }
+
+  /**
+   * Contains any.
+   */
+  @Test
+  void containsAny() {
+    RoleSet actual = RoleSet.of(List.of("ROLE_ADMIN", "ROLE_USER"));
+    assertTrue(actual.containsAny(List.of("ROLE_GUEST", "ROLE_USER")));
+    assertTrue(actual.containsAny(RoleSet.of(List.of("ROLE_USER"))));
+    assertFalse(actual.containsAny(Set.of("ROLE_GUEST")));
+    assertFalse(actual.containsAny(null));
+    assertFalse(RoleSet.empty().containsAny(List.of("ROLE_USER")));
+  }
+
+  /**
+   * Intern with prefix.
+   */
+  @Test
+  void internWithPrefix() {
+    String expected = AuthorityPool.intern("SCOPE_profile");
+    assertSame(expected, AuthorityPool.intern("SCOPE_", "profile"));
+    assertSame(expected, AuthorityPool.intern("SCOPE_", "profile"));
+    assertSame(expected, AuthorityPool.intern("SCOPE_", "SCOPE_profile"));
+    assertSame(AuthorityPool.intern("profile"), AuthorityPool.intern("", "profile"));
+  }
+
+}